@@ -0,0 +1,96 @@
+package studentrentals.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import studentrentals.model.Booking;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-room availability checks against a single room with n bookings
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"0", "4", "16", "64", "256"})
+    int bookingsPerRoom;
+
+    Room room;
+    LocalDate[] starts = new LocalDate[QUERIES];
+    LocalDate[] ends = new LocalDate[QUERIES];
+    int next;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        LocalDate from = BenchData.BASE;
+        room = new Room(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), RoomType.SINGLE, 500, "WiFi",
+                from, from.plusDays(BenchData.WINDOW_DAYS));
+        if (bookingsPerRoom > 0) {
+            int slot = Math.max(1, BenchData.WINDOW_DAYS / bookingsPerRoom);
+            for (int b = 0; b < bookingsPerRoom; b++) {
+                LocalDate start = from.plusDays((long) b * slot);
+                LocalDate end = start.plusDays(Math.max(1, slot / 2));
+                room.addConfirmedBooking(new Booking(UUID.randomUUID(), UUID.randomUUID(), room.getId(), start, end, null));
+            }
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            starts[i] = from.plusDays(rnd.nextInt(BenchData.WINDOW_DAYS - 30));
+            ends[i] = starts[i].plusDays(1 + rnd.nextInt(30));
+        }
+    }
+
+    private int nextQuery() {
+        return next = (next + 1) & (QUERIES - 1);
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        int q = nextQuery();
+        return room.isAvailable(starts[q], ends[q]);
+    }
+
+    @Benchmark
+    public boolean windowAndIsAvailable() {
+        int q = nextQuery();
+        return room.isWithinWindow(starts[q], ends[q]) && room.isAvailable(starts[q], ends[q]);
+    }
+
+    @Benchmark
+    public boolean isFreeFor() {
+        int q = nextQuery();
+        return room.isFreeFor(starts[q], ends[q]);
+    }
+
+    @Benchmark
+    public LocalDate earliestFreeStart() {
+        int q = nextQuery();
+        return room.earliestFreeStart(starts[q], starts[q].plusDays(60), 14);
+    }
+
+    @Benchmark
+    public List<Booking> findConflictingBookings() {
+        int q = nextQuery();
+        return room.findConflictingBookings(starts[q], ends[q]);
+    }
+}
@@ -0,0 +1,83 @@
+package studentrentals.bench;
+
+import studentrentals.StudentRentalsSystem;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+
+// Deterministic dataset for the benchmarks: rooms spread over a fixed set of
+// areas and owners, each with a one-year window split into equal slots that
+// hold up to bookingsPerRoom confirmed bookings.
+final class BenchData {
+
+    static final String ADMIN = "admin@studentrentals.com";
+    static final String STUDENT = "bench.student@example.com";
+    static final String[] AREAS = {
+            "Cardiff", "Leeds", "York", "Bath", "Bristol", "London", "Manchester", "Glasgow",
+            "Edinburgh", "Oxford", "Cambridge", "Durham", "Exeter", "Norwich", "Sheffield", "Nottingham"
+    };
+    static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+    static final int WINDOW_DAYS = 365;
+
+    private static final int OWNERS = 64;
+    private static final int ROOMS_PER_PROPERTY = 8;
+
+    final StudentRentalsSystem system;
+    final UUID[] roomIds;
+    final UUID[] propertyIds;
+    final String[] owners;
+
+    BenchData(int rooms, int bookingsPerRoom, long seed) {
+        Random rnd = new Random(seed);
+        system = new StudentRentalsSystem();
+        system.seedAdminAndSampleData();
+        system.registerStudent("Bench Student", STUDENT, "07000000000", "pass", "Bench University", "B0000001");
+
+        owners = new String[OWNERS];
+        for (int i = 0; i < OWNERS; i++) {
+            owners[i] = "bench.owner" + i + "@example.com";
+            system.registerHomeowner("Owner " + i, owners[i], "07000000000", "pass");
+        }
+
+        int properties = (rooms + ROOMS_PER_PROPERTY - 1) / ROOMS_PER_PROPERTY;
+        propertyIds = new UUID[properties];
+        for (int i = 0; i < properties; i++) {
+            Property p = system.createProperty(ownerOfProperty(i), i + " Bench Road",
+                    AREAS[rnd.nextInt(AREAS.length)], "Benchmark property");
+            propertyIds[i] = p.getId();
+        }
+
+        roomIds = new UUID[rooms];
+        for (int i = 0; i < rooms; i++) {
+            int property = i / ROOMS_PER_PROPERTY;
+            LocalDate from = BASE.plusDays(rnd.nextInt(60));
+            Room r = system.addRoom(ownerOfProperty(property), propertyIds[property],
+                    rnd.nextBoolean() ? RoomType.SINGLE : RoomType.DOUBLE, 300 + rnd.nextInt(900),
+                    "WiFi", from, from.plusDays(WINDOW_DAYS));
+            roomIds[i] = r.getId();
+
+            if (bookingsPerRoom > 0) {
+                int slot = WINDOW_DAYS / bookingsPerRoom;
+                for (int b = 0; b < bookingsPerRoom; b++) {
+                    int len = 1 + rnd.nextInt(Math.max(1, slot / 2));
+                    LocalDate start = from.plusDays((long) b * slot + rnd.nextInt(Math.max(1, slot - len)));
+                    BookingRequest req = system.requestBooking(STUDENT, r.getId(), start, start.plusDays(len));
+                    system.decideRequest(ownerOfProperty(property), req.getId(), true);
+                }
+            }
+        }
+    }
+
+    String ownerOfRoom(int index) {
+        return ownerOfProperty(index / ROOMS_PER_PROPERTY);
+    }
+
+    String ownerOfProperty(int index) {
+        return owners[index % OWNERS];
+    }
+}
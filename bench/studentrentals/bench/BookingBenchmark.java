@@ -0,0 +1,91 @@
+package studentrentals.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.RequestStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Booking request and decision paths. Requests pile up over a run, so owner
+// inboxes grow; decisions on booked-up dates fail the FR-14 recheck, which is
+// part of what decideRequest costs.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BookingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int rooms;
+
+    @Param({"0", "4", "16"})
+    int bookingsPerRoom;
+
+    BenchData data;
+
+    @Setup
+    public void setup() {
+        data = new BenchData(rooms, bookingsPerRoom, 42);
+    }
+
+    // null when the dates are already booked (requestBooking rejects those up front)
+    private BookingRequest randomRequest(int roomIndex) {
+        LocalDate start = BenchData.BASE.plusDays(60 + ThreadLocalRandom.current().nextInt(290));
+        try {
+            return data.system.requestBooking(BenchData.STUDENT, data.roomIds[roomIndex], start, start.plusDays(3));
+        } catch (IllegalArgumentException alreadyBooked) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public BookingRequest requestBooking() {
+        return randomRequest(ThreadLocalRandom.current().nextInt(rooms));
+    }
+
+    @Benchmark
+    public Booking requestThenReject() {
+        int room = ThreadLocalRandom.current().nextInt(rooms);
+        BookingRequest req = randomRequest(room);
+        return req == null ? null : data.system.decideRequest(data.ownerOfRoom(room), req.getId(), false);
+    }
+
+    @Benchmark
+    public Booking requestThenAccept() {
+        int room = ThreadLocalRandom.current().nextInt(rooms);
+        BookingRequest req = randomRequest(room);
+        if (req == null) return null;
+        try {
+            return data.system.decideRequest(data.ownerOfRoom(room), req.getId(), true);
+        } catch (IllegalArgumentException conflict) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public List<BookingRequest> listRequestsForOwner() {
+        return data.system.listRequestsForOwner(data.owners[ThreadLocalRandom.current().nextInt(data.owners.length)]);
+    }
+
+    @Benchmark
+    public List<BookingRequest> listPendingRequestsPage() {
+        return data.system.listRequestsForOwner(data.owners[ThreadLocalRandom.current().nextInt(data.owners.length)],
+                RequestStatus.PENDING, 0, 20);
+    }
+}
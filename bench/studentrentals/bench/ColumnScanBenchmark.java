@@ -0,0 +1,129 @@
+package studentrentals.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.search.RoomColumns;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Broad filter (area, type, price band, window) over every room: walking the
+// Room/Property object graph versus the columnar copy, scanned one row at a
+// time and with the Vector API. Bookings are left out; all three paths hand
+// the same survivors on to the availability check.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ColumnScanBenchmark {
+
+    private static final int QUERIES = 64;
+
+    @Param({"10000", "100000", "1000000"})
+    int rooms;
+
+    Room[] roomTable;
+    Map<UUID, Property> properties;
+    RoomColumns scalar;
+    RoomColumns vector;
+
+    String[] areas = new String[QUERIES];
+    int[] areaIds = new int[QUERIES];
+    RoomType[] types = new RoomType[QUERIES];
+    int[] minPrices = new int[QUERIES];
+    int[] maxPrices = new int[QUERIES];
+    LocalDate[] starts = new LocalDate[QUERIES];
+    LocalDate[] ends = new LocalDate[QUERIES];
+    int next;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        Property[] byArea = new Property[BenchData.AREAS.length];
+        properties = new HashMap<>();
+        for (int a = 0; a < byArea.length; a++) {
+            byArea[a] = new Property(UUID.randomUUID(), UUID.randomUUID(), a + " Bench Road", BenchData.AREAS[a], "");
+            properties.put(byArea[a].getId(), byArea[a]);
+        }
+
+        roomTable = new Room[rooms];
+        scalar = RoomColumns.scalar();
+        vector = new RoomColumns();
+        if (!vector.isVectorised()) throw new IllegalStateException("Vector API scan not available.");
+        for (int i = 0; i < rooms; i++) {
+            int area = rnd.nextInt(byArea.length);
+            LocalDate from = BenchData.BASE.plusDays(rnd.nextInt(60));
+            Room r = new Room(UUID.randomUUID(), byArea[area].getId(), UUID.randomUUID(),
+                    rnd.nextBoolean() ? RoomType.SINGLE : RoomType.DOUBLE, 300 + rnd.nextInt(900), "WiFi",
+                    from, from.plusDays(BenchData.WINDOW_DAYS));
+            roomTable[i] = r;
+            scalar.set(i, r, area);
+            vector.set(i, r, area);
+        }
+
+        for (int q = 0; q < QUERIES; q++) {
+            areaIds[q] = rnd.nextInt(4) == 0 ? rnd.nextInt(byArea.length) : -1;
+            areas[q] = areaIds[q] >= 0 ? BenchData.AREAS[areaIds[q]] : null;
+            types[q] = rnd.nextInt(4) == 0 ? RoomType.SINGLE : null;
+            minPrices[q] = 300 + rnd.nextInt(400);
+            maxPrices[q] = minPrices[q] + 200 + rnd.nextInt(400);
+            starts[q] = BenchData.BASE.plusDays(30 + rnd.nextInt(200));
+            ends[q] = starts[q].plusDays(1 + rnd.nextInt(90));
+        }
+    }
+
+    private int nextQuery() {
+        return next = (next + 1) & (QUERIES - 1);
+    }
+
+    @Benchmark
+    public int objectGraphScan() {
+        int q = nextQuery();
+        int matched = 0;
+        for (Room r : roomTable) {
+            if (areas[q] != null && !properties.get(r.getPropertyId()).getArea().equalsIgnoreCase(areas[q])) continue;
+            if (types[q] != null && r.getType() != types[q]) continue;
+            if (r.getPricePerMonth() < minPrices[q] || r.getPricePerMonth() > maxPrices[q]) continue;
+            if (r.isWithinWindow(starts[q], ends[q])) matched++;
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int scalarColumnScan() {
+        return count(scan(scalar, nextQuery()));
+    }
+
+    @Benchmark
+    public int vectorColumnScan() {
+        return count(scan(vector, nextQuery()));
+    }
+
+    private long[] scan(RoomColumns columns, int q) {
+        return columns.scan(minPrices[q], maxPrices[q], types[q], areaIds[q], starts[q], ends[q]);
+    }
+
+    private static int count(long[] bits) {
+        int n = 0;
+        for (long word : bits) n += Long.bitCount(word);
+        return n;
+    }
+}
@@ -0,0 +1,134 @@
+package studentrentals.bench;
+
+import studentrentals.util.IdRegistry;
+import studentrentals.util.IntTable;
+
+import java.lang.ref.Reference;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Retained heap of the rooms' ids, cross-references and by-id lookup, at 1M
+// rooms by default: UUID fields in a ConcurrentHashMap<UUID, Room> (as before
+// the id refs) against int refs in an IntTable plus their IdRegistry entries.
+// Only the id-bearing part is built (the rest of a Room is the same either way).
+// Not a JMH benchmark: it measures used heap after GC, so run it alone with
+// room to spare, e.g.
+//   java -Xmx4g -cp target/benchmarks.jar studentrentals.bench.IdFootprint [rooms]
+public final class IdFootprint {
+    private IdFootprint() {}
+
+    private static final int ROOMS_PER_PROPERTY = 8;
+    private static final int OWNERS = 64;
+
+    // the id fields of a Room in each scheme
+    private static final class UuidIds {
+        final UUID id;
+        final UUID propertyId;
+        final UUID ownerId;
+
+        UuidIds(UUID id, UUID propertyId, UUID ownerId) {
+            this.id = id;
+            this.propertyId = propertyId;
+            this.ownerId = ownerId;
+        }
+    }
+
+    private static final class RefIds {
+        final int ref;
+        final int propertyRef;
+        final int ownerRef;
+
+        RefIds(int ref, int propertyRef, int ownerRef) {
+            this.ref = ref;
+            this.propertyRef = propertyRef;
+            this.ownerRef = ownerRef;
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // loaded from a journal or snapshot, every cross-reference was its own copy;
+        // created live, rooms shared their property's and owner's UUID objects
+        long copied = retained(() -> uuidRooms(n, true));
+        long shared = retained(() -> uuidRooms(n, false));
+        long refs = retained(() -> refRooms(n));
+
+        System.out.printf("%,d rooms%n", n);
+        System.out.printf("  UUID fields, copies     %,8.1f MB  (%d B/room)%n", mb(copied), copied / n);
+        System.out.printf("  UUID fields, shared     %,8.1f MB  (%d B/room)%n", mb(shared), shared / n);
+        System.out.printf("  int refs                %,8.1f MB  (%d B/room)%n", mb(refs), refs / n);
+        System.out.printf("  saved                   %,8.1f MB against copies, %,.1f MB against shared%n",
+                mb(copied - refs), mb(shared - refs));
+    }
+
+    private static Map<UUID, UuidIds> uuidRooms(int n, boolean copyReferences) {
+        UUID[] owners = new UUID[OWNERS];
+        for (int i = 0; i < OWNERS; i++) owners[i] = UUID.randomUUID();
+        Map<UUID, UuidIds> byId = new ConcurrentHashMap<>();
+        UUID propertyId = null;
+        UUID ownerId = null;
+        for (int i = 0; i < n; i++) {
+            if (i % ROOMS_PER_PROPERTY == 0) {
+                propertyId = UUID.randomUUID();
+                ownerId = owners[(i / ROOMS_PER_PROPERTY) % OWNERS];
+            }
+            UUID p = copyReferences ? copy(propertyId) : propertyId;
+            UUID o = copyReferences ? copy(ownerId) : ownerId;
+            UuidIds r = new UuidIds(UUID.randomUUID(), p, o);
+            byId.put(r.id, r);
+        }
+        return byId;
+    }
+
+    // includes the registry entries of the rooms, properties and owners
+    private static Object[] refRooms(int n) {
+        IdRegistry ids = new IdRegistry();
+        int[] owners = new int[OWNERS];
+        for (int i = 0; i < OWNERS; i++) owners[i] = ids.newRef();
+        IntTable<RefIds> byId = new IntTable<>();
+        int propertyRef = IdRegistry.NONE;
+        int ownerRef = IdRegistry.NONE;
+        for (int i = 0; i < n; i++) {
+            if (i % ROOMS_PER_PROPERTY == 0) {
+                propertyRef = ids.newRef();
+                ownerRef = owners[(i / ROOMS_PER_PROPERTY) % OWNERS];
+            }
+            RefIds r = new RefIds(ids.newRef(), propertyRef, ownerRef);
+            byId.put(r.ref, r);
+        }
+        return new Object[] {ids, byId};
+    }
+
+    private static UUID copy(UUID id) {
+        return new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    // heap held by what the supplier builds, measured while it is still reachable
+    private static long retained(Supplier<Object> build) {
+        long before = usedAfterGc();
+        Object kept = build.get();
+        long after = usedAfterGc();
+        Reference.reachabilityFence(kept);
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,120 @@
+package studentrentals.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import studentrentals.model.Homeowner;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Registration, listing maintenance and admin operations. Operations that
+// remove something first create it, so the dataset size stays roughly stable.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ListingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int rooms;
+
+    @Param({"0", "4", "16"})
+    int bookingsPerRoom;
+
+    BenchData data;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        data = new BenchData(rooms, bookingsPerRoom, 42);
+    }
+
+    private int randomProperty() {
+        return ThreadLocalRandom.current().nextInt(data.propertyIds.length);
+    }
+
+    private Room addRoomTo(int property) {
+        LocalDate from = BenchData.BASE.plusDays(ThreadLocalRandom.current().nextInt(60));
+        return data.system.addRoom(data.ownerOfProperty(property), data.propertyIds[property], RoomType.SINGLE,
+                500, "WiFi", from, from.plusDays(BenchData.WINDOW_DAYS));
+    }
+
+    @Benchmark
+    public Student registerStudent() {
+        long n = sequence.incrementAndGet();
+        return data.system.registerStudent("Student " + n, "s" + n + "@bench.example.com", "07000000000",
+                "pass", "Bench University", "S" + n);
+    }
+
+    @Benchmark
+    public Homeowner registerHomeowner() {
+        long n = sequence.incrementAndGet();
+        return data.system.registerHomeowner("Owner " + n, "h" + n + "@bench.example.com", "07000000000", "pass");
+    }
+
+    @Benchmark
+    public Property createProperty() {
+        return data.system.createProperty(data.owners[0], "1 Bench Road",
+                BenchData.AREAS[ThreadLocalRandom.current().nextInt(BenchData.AREAS.length)], "Benchmark property");
+    }
+
+    @Benchmark
+    public Room addRoom() {
+        return addRoomTo(randomProperty());
+    }
+
+    @Benchmark
+    public void updateRoom() {
+        int room = ThreadLocalRandom.current().nextInt(rooms);
+        data.system.updateRoom(data.ownerOfRoom(room), data.roomIds[room], null,
+                300 + ThreadLocalRandom.current().nextInt(900), null, null, null);
+    }
+
+    @Benchmark
+    public void addThenRemoveRoom() {
+        int property = randomProperty();
+        Room r = addRoomTo(property);
+        data.system.removeRoom(data.ownerOfProperty(property), r.getId());
+    }
+
+    @Benchmark
+    public void addThenAdminRemoveListing() {
+        Room r = addRoomTo(randomProperty());
+        data.system.adminRemoveListing(BenchData.ADMIN, r.getId());
+    }
+
+    @Benchmark
+    public void registerThenDeactivateUser() {
+        Student s = registerStudent();
+        data.system.adminDeactivateUser(BenchData.ADMIN, s.getEmail());
+    }
+
+    @Benchmark
+    public List<User> adminViewUsers() {
+        return data.system.adminViewUsers(BenchData.ADMIN);
+    }
+
+    @Benchmark
+    public List<Property> adminViewListings() {
+        return data.system.adminViewListings(BenchData.ADMIN);
+    }
+}
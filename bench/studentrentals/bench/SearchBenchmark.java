@@ -0,0 +1,111 @@
+package studentrentals.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.search.FlexibleMatch;
+import studentrentals.search.SearchPage;
+import studentrentals.search.SortByPriceAsc;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Read paths of StudentRentalsSystem. Dates and areas vary per call so most
+// searches miss the result cache; searchCached measures the hit path.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int rooms;
+
+    @Param({"0", "4", "16"})
+    int bookingsPerRoom;
+
+    BenchData data;
+    final SortByPriceAsc byPrice = new SortByPriceAsc();
+
+    @Setup
+    public void setup() {
+        data = new BenchData(rooms, bookingsPerRoom, 42);
+    }
+
+    private static SearchCriteria criteria(String area, RoomType type, Integer min, Integer max) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        SearchCriteria c = new SearchCriteria();
+        c.setArea(area);
+        c.setRoomType(type);
+        c.setMinPrice(min);
+        c.setMaxPrice(max);
+        c.setStartDate(BenchData.BASE.plusDays(60 + rnd.nextInt(200)));
+        c.setEndDate(c.getStartDate().plusDays(7 + rnd.nextInt(60)));
+        return c;
+    }
+
+    private static String randomArea() {
+        return BenchData.AREAS[ThreadLocalRandom.current().nextInt(BenchData.AREAS.length)];
+    }
+
+    @Benchmark
+    public List<Room> searchByArea() {
+        return data.system.searchRooms(criteria(randomArea(), null, null, null), byPrice);
+    }
+
+    @Benchmark
+    public List<Room> searchByAreaTypeAndPrice() {
+        return data.system.searchRooms(criteria(randomArea(), RoomType.SINGLE, 400, 800), byPrice);
+    }
+
+    @Benchmark
+    public List<Room> searchByPriceBand() {
+        int min = 300 + ThreadLocalRandom.current().nextInt(800);
+        return data.system.searchRooms(criteria(null, null, min, min + 50), byPrice);
+    }
+
+    @Benchmark
+    public List<Room> searchCached() {
+        SearchCriteria c = new SearchCriteria();
+        c.setArea("Cardiff");
+        c.setStartDate(BenchData.BASE.plusDays(100));
+        c.setEndDate(BenchData.BASE.plusDays(130));
+        return data.system.searchRooms(c, byPrice);
+    }
+
+    @Benchmark
+    public SearchPage searchFirstPage() {
+        return data.system.searchRoomsPage(criteria(null, null, null, null), byPrice, 20, null);
+    }
+
+    @Benchmark
+    public List<FlexibleMatch> searchFlexibleDates() {
+        return data.system.searchFlexibleDates(criteria(randomArea(), null, null, null), 90, byPrice);
+    }
+
+    @Benchmark
+    public Room getRoomDetails() {
+        return data.system.getRoomDetails(data.roomIds[ThreadLocalRandom.current().nextInt(data.roomIds.length)]);
+    }
+
+    @Benchmark
+    public Property getPropertyById() {
+        return data.system.getPropertyById(
+                data.propertyIds[ThreadLocalRandom.current().nextInt(data.propertyIds.length)]);
+    }
+}
@@ -0,0 +1,71 @@
+package studentrentals.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.search.RoomSortKey;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SortByAvailableFromThenPrice;
+import studentrentals.search.SortByPriceAsc;
+import studentrentals.search.SortByPriceDesc;
+import studentrentals.search.SortByPriceThenAvailableFrom;
+import studentrentals.search.TopKSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Each RoomSortStrategy over the sort keys of an unsorted result list of n rooms
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int rooms;
+
+    @Param({"priceAsc", "priceDesc", "priceThenAvailableFrom", "availableFromThenPrice", "top20PriceAsc"})
+    String strategy;
+
+    List<RoomSortKey> input;
+    RoomSortStrategy sort;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        input = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            input.add(RoomSortKey.of(new Room(new UUID(rnd.nextLong(), rnd.nextLong()), UUID.randomUUID(),
+                    UUID.randomUUID(), RoomType.SINGLE, 300 + rnd.nextInt(900), "WiFi",
+                    BenchData.BASE.plusDays(rnd.nextInt(60)), BenchData.BASE.plusDays(400))));
+        }
+        sort = switch (strategy) {
+            case "priceAsc" -> new SortByPriceAsc();
+            case "priceDesc" -> new SortByPriceDesc();
+            case "priceThenAvailableFrom" -> new SortByPriceThenAvailableFrom();
+            case "availableFromThenPrice" -> new SortByAvailableFromThenPrice();
+            case "top20PriceAsc" -> new TopKSort(new SortByPriceAsc(), 20);
+            default -> throw new IllegalArgumentException("Unknown strategy " + strategy);
+        };
+    }
+
+    @Benchmark
+    public List<RoomSortKey> sort() {
+        return sort.sortKeys(input);
+    }
+}
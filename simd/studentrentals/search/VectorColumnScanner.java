@@ -0,0 +1,41 @@
+package studentrentals.search;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// ColumnScanner on the (incubating) Vector API: compares a full register of rows
+// per instruction and writes the lane mask straight into the result bitset.
+// Lives outside src so a plain javac build does not need the incubator module;
+// RoomColumns loads it by name when jdk.incubator.vector is present at run time.
+final class VectorColumnScanner implements ColumnScanner {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void scan(int n, int[] price, int[] type, int[] area, int[] from, int[] to, int[] live,
+                     int minPrice, int maxPrice, int typeOrdinal, int areaId, int startDay, int endDay, long[] out) {
+        // lane counts are powers of two up to 16, so a block's mask never straddles two words
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            VectorMask<Integer> m = IntVector.fromArray(SPECIES, live, i).compare(VectorOperators.NE, 0);
+            IntVector p = IntVector.fromArray(SPECIES, price, i);
+            m = m.and(p.compare(VectorOperators.GE, minPrice)).and(p.compare(VectorOperators.LE, maxPrice));
+            if (typeOrdinal >= 0) {
+                m = m.and(IntVector.fromArray(SPECIES, type, i).compare(VectorOperators.EQ, typeOrdinal));
+            }
+            if (areaId >= 0) {
+                m = m.and(IntVector.fromArray(SPECIES, area, i).compare(VectorOperators.EQ, areaId));
+            }
+            m = m.and(IntVector.fromArray(SPECIES, from, i).compare(VectorOperators.LE, startDay))
+                    .and(IntVector.fromArray(SPECIES, to, i).compare(VectorOperators.GE, endDay));
+            long bits = m.toLong();
+            if (bits != 0) out[i >>> 6] |= bits << (i & 63);
+        }
+        ScalarColumnScanner.scanRange(i, n, price, type, area, from, to, live,
+                minPrice, maxPrice, typeOrdinal, areaId, startDay, endDay, out);
+    }
+}
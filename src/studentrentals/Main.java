@@ -1,21 +1,61 @@
 package studentrentals;
 
+import studentrentals.api.ApiServer;
+import studentrentals.bulk.ImportReport;
+import studentrentals.bulk.RoomImporter;
+import studentrentals.bulk.RowError;
+import studentrentals.metrics.MetricsReporter;
 import studentrentals.model.*;
+import studentrentals.search.FlexibleMatch;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SortByAvailableFromThenPrice;
 import studentrentals.search.SortByPriceAsc;
 import studentrentals.search.SortByPriceDesc;
+import studentrentals.search.SortByPriceThenAvailableFrom;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 
 public final class Main {
 
+    private static final int MAX_IMPORT_ERRORS_SHOWN = 20;
+
     public static void main(String[] args) {
         StudentRentalsSystem system = new StudentRentalsSystem();
-        system.seedAdminAndSampleData(); // helpful for demo/testing
+
+        // optional data directory: state is replayed from and journaled to it
+        Services services = new Services(system, args.length > 0 ? Paths.get(args[0]) : null);
+        system.seedAdminAndSampleData(); // helpful for demo/testing; skipped for data that already exists
+
+        // -Dstudentrentals.searchThreads=N: threads one large search may use (1: sequential)
+        Integer searchThreads = Integer.getInteger("studentrentals.searchThreads");
+        if (searchThreads != null) system.setSearchParallelism(searchThreads);
+
+        // -Dstudentrentals.requestTtlDays=N: pending requests expire after N days (0: only once their start date arrives)
+        Long ttlDays = Long.getLong("studentrentals.requestTtlDays");
+        if (ttlDays != null) system.setRequestTtl(ttlDays > 0 ? Duration.ofDays(ttlDays) : null);
+
+        // -Dstudentrentals.metrics.seconds=N prints operation latencies to stderr every N seconds
+        long metricsSeconds = Long.getLong("studentrentals.metrics.seconds", 0);
+        MetricsReporter reporter = metricsSeconds > 0
+                ? new MetricsReporter(system.getMetrics(), System.err, metricsSeconds * 1000)
+                : null;
 
         try (Scanner sc = new Scanner(System.in)) {
+            // -Dstudentrentals.httpPort=N serves the JSON API instead of the menu
+            Integer httpPort = Integer.getInteger("studentrentals.httpPort");
+            if (httpPort != null) {
+                serveHttp(system, httpPort);
+                return;
+            }
+
             System.out.println("=== StudentRentals Prototype (Java 17) ===");
 
             while (true) {
@@ -32,6 +72,10 @@ public final class Main {
                 System.out.println("10) Admin: View Listings");
                 System.out.println("11) Admin: Deactivate User");
                 System.out.println("12) Admin: Remove Listing (Room)");
+                System.out.println("13) Student: Flexible Dates Search");
+                System.out.println("14) Homeowner: Import Rooms From File");
+                System.out.println("15) Homeowner: Accept/Reject Several Requests");
+                System.out.println("16) Room Booking History");
                 System.out.println("0) Exit");
 
                 System.out.print("Choose: ");
@@ -51,6 +95,10 @@ public final class Main {
                         case "10" -> adminViewListings(sc, system);
                         case "11" -> adminDeactivateUser(sc, system);
                         case "12" -> adminRemoveListing(sc, system);
+                        case "13" -> searchFlexibleDates(sc, system);
+                        case "14" -> importRooms(sc, system);
+                        case "15" -> decideBookingRequests(sc, system);
+                        case "16" -> viewBookingHistory(sc, system);
                         case "0" -> {
                             System.out.println("Bye!");
                             return;
@@ -63,6 +111,43 @@ public final class Main {
                     System.out.println("Unexpected error: " + ex.getClass().getSimpleName() + " - " + ex.getMessage());
                 }
             }
+        } finally {
+            if (reporter != null) reporter.close();
+            services.close();
+        }
+    }
+
+    // Serves until the process is stopped (Ctrl+C); the shutdown hook holds the
+    // JVM open until main has closed the journal and the other resources.
+    // Limits: -Dstudentrentals.http.maxConnections, .maxConcurrentRequests, .maxBodyBytes, .requestTimeoutSeconds
+    private static void serveHttp(StudentRentalsSystem system, int port) {
+        ApiServer api = new ApiServer(system).port(port);
+        Integer maxConnections = Integer.getInteger("studentrentals.http.maxConnections");
+        if (maxConnections != null) api.maxConnections(maxConnections);
+        Integer maxRequests = Integer.getInteger("studentrentals.http.maxConcurrentRequests");
+        if (maxRequests != null) api.maxConcurrentRequests(maxRequests);
+        Integer maxBody = Integer.getInteger("studentrentals.http.maxBodyBytes");
+        if (maxBody != null) api.maxBodyBytes(maxBody);
+        Long requestTimeout = Long.getLong("studentrentals.http.requestTimeoutSeconds");
+        if (requestTimeout != null) api.requestTimeoutSeconds(requestTimeout);
+
+        CountDownLatch stop = new CountDownLatch(1);
+        Thread main = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stop.countDown();
+            try {
+                main.join();
+            } catch (InterruptedException ignored) {
+                // exiting anyway
+            }
+        }));
+
+        try (ApiServer a = api.start()) {
+            System.out.println("JSON API on http://localhost:" + a.getPort() + "/ ("
+                    + (a.usesVirtualThreads() ? "virtual threads" : "thread pool") + "), Ctrl+C stops it");
+            stop.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -125,24 +210,28 @@ public final class Main {
         System.out.println("Added room: " + r.getId());
     }
 
+    private static void importRooms(Scanner sc, StudentRentalsSystem system) {
+        System.out.println("\n-- Import Rooms --");
+        System.out.println("CSV with header propertyId,type,price,amenities,availableFrom,availableTo");
+        System.out.println("or NDJSON (.ndjson/.jsonl) with the same keys, one room per line");
+        System.out.print("Owner email: "); String ownerEmail = sc.nextLine().trim();
+        System.out.print("File path: "); Path file = Paths.get(sc.nextLine().trim());
+
+        ImportReport report = new RoomImporter(system).importFile(ownerEmail, file);
+        System.out.println("Imported " + report.getRoomIds().size() + " of " + report.getRowsRead() + " rows.");
+        int shown = 0;
+        for (RowError e : report.getErrors()) {
+            if (shown++ == MAX_IMPORT_ERRORS_SHOWN) {
+                System.out.println("... and " + (report.getErrors().size() - MAX_IMPORT_ERRORS_SHOWN) + " more errors");
+                break;
+            }
+            System.out.println("  " + e);
+        }
+    }
+
     private static void searchRooms(Scanner sc, StudentRentalsSystem system) {
         System.out.println("\n-- Search Rooms (FR-09, FR-10, FR-11) --");
-        SearchCriteria c = new SearchCriteria();
-
-        System.out.print("Area/City (blank=any): ");
-        c.setArea(blankToNull(sc.nextLine()));
-
-        System.out.print("Min price (blank=any): ");
-        String minP = sc.nextLine().trim();
-        c.setMinPrice(minP.isBlank() ? null : Integer.parseInt(minP));
-
-        System.out.print("Max price (blank=any): ");
-        String maxP = sc.nextLine().trim();
-        c.setMaxPrice(maxP.isBlank() ? null : Integer.parseInt(maxP));
-
-        System.out.print("Room type SINGLE/DOUBLE (blank=any): ");
-        String t = sc.nextLine().trim();
-        c.setRoomType(t.isBlank() ? null : RoomType.valueOf(t.toUpperCase()));
+        SearchCriteria c = readFilters(sc);
 
         System.out.print("Start date (YYYY-MM-DD): ");
         c.setStartDate(LocalDate.parse(sc.nextLine().trim()));
@@ -150,13 +239,7 @@ public final class Main {
         System.out.print("End date (YYYY-MM-DD): ");
         c.setEndDate(LocalDate.parse(sc.nextLine().trim()));
 
-        System.out.print("Sort (1=Price Asc, 2=Price Desc): ");
-        String s = sc.nextLine().trim();
-
-        List<Room> results = system.searchRooms(
-                c,
-                "2".equals(s) ? new SortByPriceDesc() : new SortByPriceAsc()
-        );
+        List<Room> results = system.searchRooms(c, readSort(sc));
 
         if (results.isEmpty()) {
             System.out.println("No matches.");
@@ -171,6 +254,68 @@ public final class Main {
         }
     }
 
+    private static void searchFlexibleDates(Scanner sc, StudentRentalsSystem system) {
+        System.out.println("\n-- Flexible Dates Search --");
+        SearchCriteria c = readFilters(sc);
+
+        System.out.print("Earliest start date (YYYY-MM-DD): ");
+        c.setStartDate(LocalDate.parse(sc.nextLine().trim()));
+
+        System.out.print("Latest start date (YYYY-MM-DD): ");
+        c.setEndDate(LocalDate.parse(sc.nextLine().trim()));
+
+        System.out.print("Stay length (days): ");
+        int days = Integer.parseInt(sc.nextLine().trim());
+
+        List<FlexibleMatch> results = system.searchFlexibleDates(c, days, readSort(sc));
+
+        if (results.isEmpty()) {
+            System.out.println("No matches.");
+            return;
+        }
+
+        System.out.println("Matches:");
+        for (FlexibleMatch m : results) {
+            Room r = m.getRoom();
+            Property p = system.getPropertyById(r.getPropertyId());
+            System.out.printf("- Room %s | %s | £%d | %s | %s to %s | Property: %s (%s)%n",
+                    r.getId(), r.getType(), r.getPricePerMonth(), p.getArea(), m.getStartDate(), m.getEndDate(),
+                    p.getId(), p.getAddress());
+        }
+    }
+
+    private static SearchCriteria readFilters(Scanner sc) {
+        SearchCriteria c = new SearchCriteria();
+
+        System.out.print("Area/City (blank=any): ");
+        c.setArea(blankToNull(sc.nextLine()));
+
+        System.out.print("Min price (blank=any): ");
+        String minP = sc.nextLine().trim();
+        c.setMinPrice(minP.isBlank() ? null : Integer.parseInt(minP));
+
+        System.out.print("Max price (blank=any): ");
+        String maxP = sc.nextLine().trim();
+        c.setMaxPrice(maxP.isBlank() ? null : Integer.parseInt(maxP));
+
+        System.out.print("Room type SINGLE/DOUBLE (blank=any): ");
+        String t = sc.nextLine().trim();
+        c.setRoomType(t.isBlank() ? null : RoomType.valueOf(t.toUpperCase()));
+        return c;
+    }
+
+    private static RoomSortStrategy readSort(Scanner sc) {
+        System.out.print("Sort (1=Price Asc, 2=Price Desc, 3=Price then Available From, 4=Available From then Price): ");
+        String s = sc.nextLine().trim();
+
+        return switch (s) {
+            case "2" -> new SortByPriceDesc();
+            case "3" -> new SortByPriceThenAvailableFrom();
+            case "4" -> new SortByAvailableFromThenPrice();
+            default -> new SortByPriceAsc();
+        };
+    }
+
     private static void requestBooking(Scanner sc, StudentRentalsSystem system) {
         System.out.println("\n-- Request Booking (FR-12) --");
         System.out.print("Student email: "); String studentEmail = sc.nextLine().trim();
@@ -193,8 +338,9 @@ public final class Main {
         }
 
         for (BookingRequest r : reqs) {
-            System.out.printf("- Request %s | room=%s | student=%s | %s to %s | %s%n",
-                    r.getId(), r.getRoomId(), r.getStudentId(), r.getStartDate(), r.getEndDate(), r.getStatus());
+            System.out.printf("- Request %s | room=%s | student=%s | %s to %s | %s%s%n",
+                    r.getId(), r.getRoomId(), r.getStudentId(), r.getStartDate(), r.getEndDate(), r.getStatus(),
+                    r.getReason() != null ? " (" + r.getReason() + ")" : "");
         }
     }
 
@@ -212,6 +358,39 @@ public final class Main {
         }
     }
 
+    private static void decideBookingRequests(Scanner sc, StudentRentalsSystem system) {
+        System.out.println("\n-- Accept/Reject Several Requests --");
+        System.out.print("Owner email: "); String ownerEmail = sc.nextLine().trim();
+        System.out.println("One per line: <request id> y|n (blank line to finish)");
+        List<RequestDecision> decisions = new ArrayList<>();
+        while (true) {
+            String line = sc.nextLine().trim();
+            if (line.isEmpty()) break;
+            String[] parts = line.split("\\s+");
+            if (parts.length != 2) {
+                System.out.println("Expected: <request id> y|n");
+                continue;
+            }
+            decisions.add(new RequestDecision(UUID.fromString(parts[0]), parts[1].equalsIgnoreCase("y")));
+        }
+
+        for (DecisionOutcome o : system.decideRequests(ownerEmail, decisions)) {
+            System.out.println(o.getBooking() != null ? o + " booking " + o.getBooking().getId() : o);
+        }
+    }
+
+    private static void viewBookingHistory(Scanner sc, StudentRentalsSystem system) {
+        System.out.println("\n-- Room Booking History --");
+        System.out.print("Room ID: "); UUID roomId = UUID.fromString(sc.nextLine().trim());
+        int[] count = {0};
+        system.streamBookingHistory(roomId, b -> {
+            System.out.printf("- %s | %s to %s | student %s | confirmed %s%n",
+                    b.getId(), b.getStartDate(), b.getEndDate(), b.getStudentId(), b.getConfirmedAt());
+            count[0]++;
+        });
+        if (count[0] == 0) System.out.println("No bookings.");
+    }
+
     private static void adminViewUsers(Scanner sc, StudentRentalsSystem system) {
         System.out.println("\n-- Admin View Users (FR-20) --");
         System.out.print("Admin email: "); String adminEmail = sc.nextLine().trim();
@@ -228,7 +407,7 @@ public final class Main {
         List<Property> props = system.adminViewListings(adminEmail);
         for (Property p : props) {
             System.out.printf("- Property %s | %s | %s | rooms=%d%n",
-                    p.getId(), p.getArea(), p.getAddress(), p.getRoomIds().size());
+                    p.getId(), p.getArea(), p.getAddress(), p.getRoomCount());
         }
     }
 
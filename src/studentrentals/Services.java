@@ -0,0 +1,58 @@
+package studentrentals;
+
+import studentrentals.persistence.BookingArchive;
+import studentrentals.persistence.Journal;
+import studentrentals.util.PeriodicTask;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+// The background side of a running system, shared by the menu (Main) and a
+// shard process (ShardServer): with a data directory the journal, periodic
+// snapshots, the booking archive and daily archival; always request expiry.
+// close() stops the tasks before the journal and archive they write to.
+public final class Services implements AutoCloseable {
+
+    // Journal group commit: fsync every 64 records or 5 ms, whichever comes first
+    private static final int JOURNAL_BATCH_RECORDS = 64;
+    private static final long JOURNAL_BATCH_MILLIS = 5;
+    private static final long SNAPSHOT_PERIOD_MILLIS = 10 * 60 * 1000;
+    private static final long EXPIRY_PERIOD_MILLIS = 60 * 1000;
+    private static final long ARCHIVE_PERIOD_MILLIS = 24 * 60 * 60 * 1000;
+
+    private final Journal journal;
+    private final PeriodicTask snapshots;
+    private final BookingArchive archive;
+    private final PeriodicTask archiving;
+    private final PeriodicTask expiry;
+
+    // dataDir null: nothing is persisted; otherwise state is replayed from it first
+    public Services(StudentRentalsSystem system, Path dataDir) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        if (dataDir != null) {
+            journal = Journal.open(dataDir, JOURNAL_BATCH_RECORDS, JOURNAL_BATCH_MILLIS);
+            system.attachJournal(journal);
+            snapshots = new PeriodicTask("Snapshot", system::takeSnapshot, SNAPSHOT_PERIOD_MILLIS);
+            // bookings that have ended move to the archive once a day
+            archive = BookingArchive.open(dataDir);
+            system.attachArchive(archive);
+            archiving = new PeriodicTask("Booking archival",
+                    () -> system.archiveCompletedBookings(LocalDate.now()), ARCHIVE_PERIOD_MILLIS);
+        } else {
+            journal = null;
+            snapshots = null;
+            archive = null;
+            archiving = null;
+        }
+        expiry = new PeriodicTask("Request expiry", system::expireRequests, EXPIRY_PERIOD_MILLIS);
+    }
+
+    @Override
+    public void close() {
+        if (archiving != null) archiving.close();
+        expiry.close();
+        if (snapshots != null) snapshots.close();
+        if (journal != null) journal.close();
+        if (archive != null) archive.close();
+    }
+}
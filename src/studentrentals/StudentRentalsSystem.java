@@ -1,468 +1,1647 @@
 package studentrentals;
 
+import studentrentals.bulk.RoomRow;
+import studentrentals.bulk.RowError;
 import studentrentals.model.*;
+import studentrentals.metrics.LatencyHistogram;
+import studentrentals.metrics.MetricsRegistry;
+import studentrentals.metrics.MetricsSnapshot;
+import studentrentals.persistence.BookingArchive;
+import studentrentals.persistence.Journal;
+import studentrentals.persistence.JournalHandler;
+import studentrentals.persistence.SnapshotHandler;
+import studentrentals.persistence.SnapshotWriter;
+import studentrentals.persistence.Snapshots;
+import studentrentals.search.FlexibleMatch;
+import studentrentals.search.PriceIndex;
+import studentrentals.search.RoomBitmap;
+import studentrentals.search.RoomIndex;
+import studentrentals.search.RoomSortKey;
 import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchCursor;
+import studentrentals.search.SearchPage;
+import studentrentals.search.SearchResultCache;
+import studentrentals.search.ShardedSearch;
+import studentrentals.search.SortByPriceAsc;
+import studentrentals.search.SortByPriceDesc;
+import studentrentals.search.TopKSort;
+import studentrentals.shard.AreaData;
+import studentrentals.util.IdRegistry;
+import studentrentals.util.IntTable;
 import studentrentals.util.PasswordHasher;
+import studentrentals.util.StripedLocks;
+import studentrentals.util.TimingWheel;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public final class StudentRentalsSystem {
 
+    private static final int DEFAULT_LOCK_STRIPES = 64;
+    private static final int DEFAULT_SEARCH_CACHE_SIZE = 1024;
+    private static final Duration DEFAULT_REQUEST_TTL = Duration.ofDays(14);
+    private static final long EXPIRY_TICK_MILLIS = 60_000;
+    // below this many candidates a search filters on the calling thread
+    private static final int PARALLEL_SEARCH_THRESHOLD = 8192;
+    // a price-only search walks the price index while its band holds at most
+    // 1 in BAND_SCAN_FRACTION rooms (and always up to MIN_BAND_LIMIT), else scans the columns
+    private static final int BAND_SCAN_FRACTION = 16;
+    private static final int MIN_BAND_LIMIT = 1024;
+
     // using UML 
-    private final Map<String, User> usersByEmail = new HashMap<>();
-    private final Map<UUID, Property> propertiesById = new HashMap<>();
-    private final Map<UUID, Room> roomsById = new HashMap<>();
-    private final Map<UUID, BookingRequest> requestsById = new HashMap<>();
-    private final Map<UUID, Booking> bookingsById = new HashMap<>();
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    // Keyed by ref in this system's own IdRegistry. Entities refer to each other
+    // by ref too; UUIDs are looked up (ids.find) only where an id comes in from
+    // a caller. An entity's refs are released when it goes (see release), so a
+    // lookup by a caller's id checks the entity found is still the one named (live).
+    private final IdRegistry ids = new IdRegistry();
+    private final IntTable<Property> propertiesById = new IntTable<>();
+    private final IntTable<Room> roomsById = new IntTable<>();
+    private final IntTable<BookingRequest> requestsById = new IntTable<>();
+    private final IntTable<Booking> bookingsById = new IntTable<>();
+
+    // booking requests per room and per owner, oldest first (id breaks ties)
+    private final Comparator<BookingRequest> requestOrder = Comparator.comparing(BookingRequest::getCreatedAt)
+            .thenComparing((a, b) -> ids.compare(a.getRef(), b.getRef()));
+    private final IntTable<NavigableSet<BookingRequest>> requestsByRoom = new IntTable<>();
+    private final IntTable<NavigableSet<BookingRequest>> requestsByOwner = new IntTable<>();
+
+    // for search: area/type postings as bitmaps over room ordinals, plus a price-ordered index
+    private final RoomIndex roomIndex = new RoomIndex();
+    private final PriceIndex roomsByPrice = new PriceIndex(ids);
+    private final SearchResultCache searchCache;
+    // step 2 and 3 of searchRooms/searchRoomsPage, sharded over a ForkJoin pool for large candidate sets
+    private volatile ShardedSearch shardedSearch =
+            new ShardedSearch(Runtime.getRuntime().availableProcessors(), PARALLEL_SEARCH_THRESHOLD);
+
+    // Per-room locking: searches take the read side, anything that changes a
+    // room or its bookings (including the FR-14 recheck-and-confirm) the write side.
+    private final StripedLocks roomLocks;
+
+    // Latency of every public operation plus a few hot-path counters
+    private enum Op {
+        REGISTER_STUDENT("registerStudent"), REGISTER_HOMEOWNER("registerHomeowner"),
+        CREATE_PROPERTY("createProperty"), ADD_ROOM("addRoom"), ADD_ROOMS("addRooms"), UPDATE_ROOM("updateRoom"),
+        REMOVE_ROOM("removeRoom"), SEARCH_ROOMS("searchRooms"), SEARCH_ROOMS_PAGE("searchRoomsPage"),
+        SEARCH_FLEXIBLE_DATES("searchFlexibleDates"), GET_ROOM_DETAILS("getRoomDetails"),
+        GET_PROPERTY("getPropertyById"), REQUEST_BOOKING("requestBooking"),
+        LIST_REQUESTS("listRequestsForOwner"), LIST_REQUESTS_PAGE("listRequestsForOwner.page"),
+        DECIDE_REQUEST("decideRequest"), DECIDE_REQUESTS("decideRequests"), ADMIN_VIEW_USERS("adminViewUsers"),
+        ADMIN_VIEW_LISTINGS("adminViewListings"), ADMIN_DEACTIVATE_USER("adminDeactivateUser"),
+        ADMIN_REMOVE_LISTING("adminRemoveListing"), TAKE_SNAPSHOT("takeSnapshot"),
+        EXPIRE_REQUESTS("expireRequests"), ARCHIVE_BOOKINGS("archiveCompletedBookings"),
+        BOOKING_HISTORY("streamBookingHistory"), IMPORT_USER("importUser"), LOCATE("locate"),
+        EXPORT_AREA("exportArea"), IMPORT_AREA("importArea"), DROP_AREA("dropArea");
+
+        private final String metricName;
+
+        Op(String metricName) {
+            this.metricName = metricName;
+        }
+    }
 
-    // for search (matches UML)
-    private final Map<String, List<UUID>> roomsByArea = new HashMap<>();
-    private final Map<RoomType, List<UUID>> roomsByType = new HashMap<>();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final LatencyHistogram[] opTimers = new LatencyHistogram[Op.values().length];
+    private final LongAdder candidatesScanned = metrics.counter("search.candidatesScanned");
+    private final LongAdder roomsMatched = metrics.counter("search.roomsMatched");
+    private final LongAdder requestConflicts = metrics.counter("requestBooking.conflicts");
+    private final LongAdder recheckConflicts = metrics.counter("decideRequest.recheckConflicts");
+    private final LongAdder autoRejected = metrics.counter("decideRequest.autoRejected");
+    private final LongAdder requestsExpired = metrics.counter("requests.expired");
+    private final LongAdder bookingsArchived = metrics.counter("bookings.archived");
+
+    // PENDING requests by expiry deadline (guarded by itself); decided ones are
+    // skipped when they come due rather than unscheduled
+    private final TimingWheel<BookingRequest> expiryWheel =
+            new TimingWheel<>(EXPIRY_TICK_MILLIS, System.currentTimeMillis());
+    private volatile Duration requestTtl = DEFAULT_REQUEST_TTL;
+
+    // optional durability; null keeps everything in memory only
+    private volatile Journal journal;
+    private final Object snapshotMutex = new Object();
+    // optional cold tier for bookings that have ended; null keeps them all in memory
+    private volatile BookingArchive archive;
+
+    public StudentRentalsSystem() {
+        this(DEFAULT_LOCK_STRIPES);
+    }
 
-    public Student registerStudent(String name, String email, String phone, String password, String university, String studentId) {
-        requireNonBlank(name, "Name");
-        requireNonBlank(email, "Email");
-        requireNonBlank(phone, "Phone");
-        requireNonBlank(password, "Password");
-        requireNonBlank(university, "University");
-        requireNonBlank(studentId, "Student ID");
+    public StudentRentalsSystem(int lockStripes) {
+        this(lockStripes, DEFAULT_SEARCH_CACHE_SIZE);
+    }
+
+    public StudentRentalsSystem(int lockStripes, int searchCacheSize) {
+        this.roomLocks = new StripedLocks(lockStripes);
+        this.searchCache = new SearchResultCache(searchCacheSize);
 
-        String key = email.toLowerCase(Locale.ROOT);
-        if (usersByEmail.containsKey(key)) {
-            throw new IllegalArgumentException("Email already registered.");
+        for (Op op : Op.values()) {
+            opTimers[op.ordinal()] = metrics.timer(op.metricName);
         }
+        metrics.gauge("searchCache.hits", () -> searchCache.stats().getHits());
+        metrics.gauge("searchCache.misses", () -> searchCache.stats().getMisses());
+        metrics.gauge("searchCache.evictions", () -> searchCache.stats().getEvictions());
+        metrics.gauge("searchCache.invalidations", () -> searchCache.stats().getInvalidations());
+        metrics.gauge("rooms", roomsById::size);
+        metrics.gauge("requests", requestsById::size);
+        metrics.gauge("bookings", bookingsById::size);
+    }
 
-        String hash = PasswordHasher.hashPassword(password);
-        Student s = new Student(UUID.randomUUID(), name, key, phone, hash, true, university, studentId);
-        usersByEmail.put(key, s);
-        return s;
+    public MetricsRegistry getMetrics() {
+        return metrics;
     }
 
-    public Homeowner registerHomeowner(String name, String email, String phone, String password) {
-        requireNonBlank(name, "Name");
-        requireNonBlank(email, "Email");
-        requireNonBlank(phone, "Phone");
-        requireNonBlank(password, "Password");
+    public MetricsSnapshot metricsSnapshot() {
+        return metrics.snapshot();
+    }
+
+    private LatencyHistogram timer(Op op) {
+        return opTimers[op.ordinal()];
+    }
+
+    // Rebuilds state from the newest snapshot plus the journal segments written
+    // after it, then logs every change from here on. Call once, before the
+    // system is shared between threads.
+    public void attachJournal(Journal journal) {
+        if (journal == null) throw new IllegalArgumentException("Journal must not be null.");
+        if (this.journal != null) throw new IllegalStateException("A journal is already attached.");
+        long fromSegment = Snapshots.loadLatest(journal.getDirectory(), new SnapshotLoader());
+        journal.replay(new Replayer(), fromSegment);
+        this.journal = journal;
+    }
+
+    public void attachArchive(BookingArchive archive) {
+        if (archive == null) throw new IllegalArgumentException("Archive must not be null.");
+        if (this.archive != null) throw new IllegalStateException("An archive is already attached.");
+        this.archive = archive;
+    }
+
+    // Writes a snapshot next to the journal and drops the journal segments it covers.
+    // Writers keep running meanwhile: the journal is rotated first and the state is
+    // then copied entity by entity, so anything that changes during the copy is also
+    // in the retained segments and gets re-applied (idempotently) on recovery.
+    public void takeSnapshot() {
+        long startNanos = System.nanoTime();
+        try {
+            Journal j = journal;
+            if (j == null) throw new IllegalStateException("No journal attached.");
+
+            synchronized (snapshotMutex) {
+                long segment = j.rotate();
+                RoomIndex.Capture index = roomIndex.capture();
+
+                try (SnapshotWriter w = SnapshotWriter.create(j.getDirectory(), segment)) {
+                    w.writeRoomIndex(index.getNextOrdinal(), index.getFreeOrdinals(), index.getAreaPostings());
+
+                    List<User> users = new ArrayList<>(usersByEmail.values());
+                    w.beginSection(users.size());
+                    users.forEach(w::writeUser);
+
+                    List<Property> properties = propertiesById.values();
+                    w.beginSection(properties.size());
+                    properties.forEach(w::writeProperty);
+
+                    Room[] table = index.getTable();
+                    int rooms = 0;
+                    for (Room r : table) if (r != null) rooms++;
+                    w.beginSection(rooms);
+                    for (int ord = 0; ord < table.length; ord++) {
+                        if (table[ord] != null) w.writeRoom(ord, copyOfRoom(table[ord]));
+                    }
 
-        String key = email.toLowerCase(Locale.ROOT);
-        if (usersByEmail.containsKey(key)) {
-            throw new IllegalArgumentException("Email already registered.");
+                    List<BookingRequest> requests = requestsById.values();
+                    w.beginSection(requests.size());
+                    requests.forEach(w::writeRequest);
+
+                    List<Booking> bookings = bookingsById.values();
+                    w.beginSection(bookings.size());
+                    bookings.forEach(w::writeBooking);
+
+                    w.commit();
+                }
+
+                j.deleteSegmentsBefore(segment);
+                Snapshots.deleteBefore(j.getDirectory(), segment);
+            }
+        } finally {
+            timer(Op.TAKE_SNAPSHOT).recordSince(startNanos);
         }
+    }
 
-        String hash = PasswordHasher.hashPassword(password);
-        Homeowner h = new Homeowner(UUID.randomUUID(), name, key, phone, hash, true);
-        usersByEmail.put(key, h);
-        return h;
+    // consistent detached copy of a room's fields; it keeps its ids even if the
+    // room is removed while the snapshot is being written
+    private Room copyOfRoom(Room r) {
+        Lock lock = roomLocks.forKey(r.getRef()).readLock();
+        lock.lock();
+        try {
+            return new Room(r.getId(), r.getPropertyId(), r.getOwnerId(), r.getType(), r.getPricePerMonth(),
+                    r.getAmenities(), r.getAvailableFrom(), r.getAvailableTo());
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public Property createProperty(String ownerEmail, String address, String area, String description) {
-        Homeowner owner = requireActiveHomeowner(ownerEmail);
+    public Student registerStudent(String name, String email, String phone, String password, String university, String studentId) {
+        long startNanos = System.nanoTime();
+        try {
+            requireNonBlank(name, "Name");
+            requireNonBlank(email, "Email");
+            requireNonBlank(phone, "Phone");
+            requireNonBlank(password, "Password");
+            requireNonBlank(university, "University");
+            requireNonBlank(studentId, "Student ID");
+
+            String key = email.toLowerCase(Locale.ROOT);
+            if (usersByEmail.containsKey(key)) {
+                throw new IllegalArgumentException("Email already registered.");
+            }
 
-        requireNonBlank(address, "Address");
-        requireNonBlank(area, "Area");
-        requireNonBlank(description, "Description");
+            String hash = PasswordHasher.hashPassword(password);
+            Student s = new Student(ids, ids.newRef(), name, key, phone, hash, true, university, studentId);
+            if (usersByEmail.putIfAbsent(key, s) != null) {
+                ids.release(s.getRef());
+                throw new IllegalArgumentException("Email already registered.");
+            }
+            log(j -> j.appendUser(s));
+            return s;
+        } finally {
+            timer(Op.REGISTER_STUDENT).recordSince(startNanos);
+        }
+    }
+
+    public Homeowner registerHomeowner(String name, String email, String phone, String password) {
+        long startNanos = System.nanoTime();
+        try {
+            requireNonBlank(name, "Name");
+            requireNonBlank(email, "Email");
+            requireNonBlank(phone, "Phone");
+            requireNonBlank(password, "Password");
+
+            String key = email.toLowerCase(Locale.ROOT);
+            if (usersByEmail.containsKey(key)) {
+                throw new IllegalArgumentException("Email already registered.");
+            }
 
-        UUID id = UUID.randomUUID();
-        Property p = new Property(id, owner.getId(), address, area, description);
-        propertiesById.put(id, p);
-        return p;
+            String hash = PasswordHasher.hashPassword(password);
+            Homeowner h = new Homeowner(ids, ids.newRef(), name, key, phone, hash, true);
+            if (usersByEmail.putIfAbsent(key, h) != null) {
+                ids.release(h.getRef());
+                throw new IllegalArgumentException("Email already registered.");
+            }
+            log(j -> j.appendUser(h));
+            return h;
+        } finally {
+            timer(Op.REGISTER_HOMEOWNER).recordSince(startNanos);
+        }
+    }
+
+    public Property createProperty(String ownerEmail, String address, String area, String description) {
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+
+            requireNonBlank(address, "Address");
+            requireNonBlank(area, "Area");
+            requireNonBlank(description, "Description");
+
+            Property p = new Property(ids, ids.newRef(), owner.getRef(), address, area, description);
+            propertiesById.put(p.getRef(), p);
+            log(j -> j.appendProperty(p));
+            return p;
+        } finally {
+            timer(Op.CREATE_PROPERTY).recordSince(startNanos);
+        }
     }
 
     public Room addRoom(String ownerEmail, UUID propertyId, RoomType type, int pricePerMonth,
                         String amenities, LocalDate availableFrom, LocalDate availableTo) {
-        Homeowner owner = requireActiveHomeowner(ownerEmail);
-        Property p = propertiesById.get(propertyId);
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+            Room r = newRoom(owner, propertyId, type, pricePerMonth, amenities, availableFrom, availableTo);
+            Property p = propertiesById.get(r.getPropertyRef());
+
+            // held so nothing about the room can be logged before the room itself
+            Lock lock = roomLocks.forKey(r.getRef()).writeLock();
+            lock.lock();
+            try {
+                putRoom(r, p);
+                log(j -> j.appendRoom(r));
+            } finally {
+                lock.unlock();
+            }
+            return r;
+        } finally {
+            timer(Op.ADD_ROOM).recordSince(startNanos);
+        }
+    }
+
+    // Adds many rooms for one owner in a single batch: the owner is resolved once,
+    // rows are validated in parallel, and the indexes, property room lists and
+    // search cache are updated once for the whole batch. Rows that fail
+    // validation are appended to errors and skipped; returns the rooms added,
+    // in row order.
+    public List<Room> addRooms(String ownerEmail, List<RoomRow> rows, List<RowError> errors) {
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+
+            Room[] built = new Room[rows.size()];
+            String[] failures = new String[rows.size()];
+            IntStream.range(0, rows.size()).parallel().forEach(i -> {
+                RoomRow row = rows.get(i);
+                try {
+                    built[i] = newRoom(owner, row.getPropertyId(), row.getType(), row.getPricePerMonth(),
+                            row.getAmenities(), row.getAvailableFrom(), row.getAvailableTo());
+                } catch (IllegalArgumentException e) {
+                    failures[i] = e.getMessage();
+                }
+            });
+
+            List<Room> added = new ArrayList<>(built.length);
+            for (int i = 0; i < built.length; i++) {
+                if (built[i] != null) added.add(built[i]);
+                else errors.add(new RowError(rows.get(i).getLine(), failures[i]));
+            }
+            if (added.isEmpty()) return added;
+
+            // every new room's lock is held until its record is logged, as in addRoom
+            int[] refs = new int[added.size()];
+            for (int i = 0; i < refs.length; i++) refs[i] = added.get(i).getRef();
+            List<Lock> locks = roomLocks.writeLocksFor(refs);
+            locks.forEach(Lock::lock);
+            try {
+                putRooms(added);
+                for (Room r : added) log(j -> j.appendRoom(r));
+            } finally {
+                for (int i = locks.size() - 1; i >= 0; i--) locks.get(i).unlock();
+            }
+            return added;
+        } finally {
+            timer(Op.ADD_ROOMS).recordSince(startNanos);
+        }
+    }
+
+    // validated, not yet indexed
+    private Room newRoom(Homeowner owner, UUID propertyId, RoomType type, int pricePerMonth,
+                         String amenities, LocalDate availableFrom, LocalDate availableTo) {
+        Property p = live(propertiesById, propertyId);
         if (p == null) throw new IllegalArgumentException("Property not found.");
-        if (!p.getOwnerId().equals(owner.getId())) throw new IllegalArgumentException("Not your property.");
+        if (p.getOwnerRef() != owner.getRef()) throw new IllegalArgumentException("Not your property.");
 
         if (type == null) throw new IllegalArgumentException("Room type required.");
         if (pricePerMonth <= 0) throw new IllegalArgumentException("Price must be > 0.");
         requireNonBlank(amenities, "Amenities");
         requireDateRange(availableFrom, availableTo);
 
-        UUID roomId = UUID.randomUUID();
-        Room r = new Room(roomId, propertyId, owner.getId(), type, pricePerMonth, amenities, availableFrom, availableTo);
-        roomsById.put(roomId, r);
+        return new Room(ids, ids.newRef(), p.getRef(), p.getOwnerRef(), type, pricePerMonth, amenities,
+                availableFrom, availableTo);
+    }
+
+    private void putRoom(Room r, Property p) {
+        roomsById.put(r.getRef(), r);
 
         // Update property composition
-        p.getRoomIds().add(roomId);
+        p.addRoomRefs(r.getRef());
 
         // Update indexes
-        roomsByArea.computeIfAbsent(p.getArea().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(roomId);
-        roomsByType.computeIfAbsent(type, k -> new ArrayList<>()).add(roomId);
+        roomIndex.add(r, areaKey(p.getArea()));
+        roomsByPrice.add(r.getPricePerMonth(), r.getRef());
+        searchCache.invalidate(areaKey(p.getArea()), r.getType(), r.getPricePerMonth(), null, null);
+    }
 
-        return r;
+    // putRoom for a batch: one index and property-list update per area and property
+    private void putRooms(List<Room> rooms) {
+        Map<Property, List<Room>> byProperty = new LinkedHashMap<>();
+        for (Room r : rooms) {
+            roomsById.put(r.getRef(), r);
+            roomsByPrice.add(r.getPricePerMonth(), r.getRef());
+            byProperty.computeIfAbsent(propertiesById.get(r.getPropertyRef()), k -> new ArrayList<>()).add(r);
+        }
+
+        Map<String, List<Room>> byArea = new LinkedHashMap<>();
+        for (Map.Entry<Property, List<Room>> e : byProperty.entrySet()) {
+            Property p = e.getKey();
+            p.addRoomRefs(refsOf(e.getValue()));
+            byArea.computeIfAbsent(areaKey(p.getArea()), k -> new ArrayList<>()).addAll(e.getValue());
+        }
+        byArea.forEach((area, inArea) -> roomIndex.addAll(inArea, area));
+
+        // a batch spans many prices and types; dropping everything beats matching each room
+        searchCache.clear();
+    }
+
+    // The entity a caller's id names, or null. Its ref may have been released
+    // and handed to another entity between the two lookups, so the id must
+    // still map to the same ref after the entity is read.
+    private <T> T live(IntTable<T> table, UUID id) {
+        int ref = ids.find(id);
+        T value = table.get(ref);
+        return value != null && ids.find(id) == ref ? value : null;
+    }
+
+    // live() for a room whose lock (for roomRef) the caller holds
+    private Room heldRoom(int roomRef, UUID roomId) {
+        Room r = roomsById.get(roomRef);
+        return r != null && ids.find(roomId) == roomRef ? r : null;
     }
 
     public void updateRoom(String ownerEmail, UUID roomId, RoomType type, Integer pricePerMonth,
                            String amenities, LocalDate availableFrom, LocalDate availableTo) {
-        Homeowner owner = requireActiveHomeowner(ownerEmail);
-        Room r = roomsById.get(roomId);
-        if (r == null) throw new IllegalArgumentException("Room not found.");
-        if (!r.getOwnerId().equals(owner.getId())) throw new IllegalArgumentException("Not your room.");
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+            if (roomId == null) throw new IllegalArgumentException("Room not found.");
+            int roomRef = ids.find(roomId);
+            Lock lock = roomLocks.forKey(roomRef).writeLock();
+            lock.lock();
+            try {
+                Room r = heldRoom(roomRef, roomId);
+                if (r == null) throw new IllegalArgumentException("Room not found.");
+                if (r.getOwnerRef() != owner.getRef()) throw new IllegalArgumentException("Not your room.");
+
+                // Validate everything first so a bad field leaves the room untouched
+                if (pricePerMonth != null && pricePerMonth <= 0) throw new IllegalArgumentException("Price must be > 0.");
+                LocalDate from = (availableFrom != null) ? availableFrom : r.getAvailableFrom();
+                LocalDate to = (availableTo != null) ? availableTo : r.getAvailableTo();
+                requireDateRange(from, to);
+
+                applyRoomChanges(r, type, pricePerMonth, amenities != null && !amenities.isBlank() ? amenities.trim() : null, from, to);
+                log(j -> j.appendRoom(r));
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            timer(Op.UPDATE_ROOM).recordSince(startNanos);
+        }
+    }
+
+    // caller must hold the room's write lock; null arguments leave a field as is
+    private void applyRoomChanges(Room r, RoomType type, Integer pricePerMonth, String amenities,
+                                  LocalDate from, LocalDate to) {
+        RoomType oldType = r.getType();
+        int oldPrice = r.getPricePerMonth();
 
         // Minimal update logic (keep consistent with fields)
         if (type != null && type != r.getType()) {
             // update type index
-            List<UUID> oldList = roomsByType.getOrDefault(r.getType(), new ArrayList<>());
-            oldList.remove(roomId);
-            roomsByType.computeIfAbsent(type, k -> new ArrayList<>()).add(roomId);
             r.setType(type);
+            roomIndex.changeType(r, oldType, type);
         }
         if (pricePerMonth != null) {
-            if (pricePerMonth <= 0) throw new IllegalArgumentException("Price must be > 0.");
+            roomsByPrice.move(r.getPricePerMonth(), pricePerMonth, r.getRef());
             r.setPricePerMonth(pricePerMonth);
         }
-        if (amenities != null && !amenities.isBlank()) {
-            r.setAmenities(amenities.trim());
+        if (amenities != null) {
+            r.setAmenities(amenities);
         }
-        if (availableFrom != null || availableTo != null) {
-            LocalDate from = (availableFrom != null) ? availableFrom : r.getAvailableFrom();
-            LocalDate to = (availableTo != null) ? availableTo : r.getAvailableTo();
-            requireDateRange(from, to);
-            r.setAvailableFrom(from);
-            r.setAvailableTo(to);
+        if (from != null || to != null) {
+            r.setAvailability(from != null ? from : r.getAvailableFrom(), to != null ? to : r.getAvailableTo());
+        }
+        if (pricePerMonth != null || from != null || to != null) {
+            roomIndex.refresh(r);
         }
-    }
-
-    public void removeRoom(String ownerEmail, UUID roomId) {
-        Homeowner owner = requireActiveHomeowner(ownerEmail);
-        Room r = roomsById.get(roomId);
-        if (r == null) throw new IllegalArgumentException("Room not found.");
-        if (!r.getOwnerId().equals(owner.getId())) throw new IllegalArgumentException("Not your room.");
 
-        // Prototype rule: allow removal only if no confirmed bookings exist
-        if (!r.getConfirmedBookings().isEmpty()) {
-            throw new IllegalArgumentException("Cannot remove room with confirmed bookings.");
+        // searches the room could have been in, and those it could be in now
+        invalidateSearches(r, oldType, oldPrice, null, null);
+        if (r.getType() != oldType || r.getPricePerMonth() != oldPrice) {
+            invalidateSearches(r, r.getType(), r.getPricePerMonth(), null, null);
         }
-        internalRemoveRoom(roomId);
     }
 
-    public List<Room> searchRooms(SearchCriteria criteria, RoomSortStrategy sortStrategy) {
-        if (criteria == null) {
-            throw new IllegalArgumentException("Search criteria must not be null.");
-        }
-        if (sortStrategy == null) {
-            throw new IllegalArgumentException("Sort strategy must not be null.");
+    private void invalidateSearches(Room r, RoomType type, int price, LocalDate from, LocalDate to) {
+        Property p = propertiesById.get(r.getPropertyRef());
+        if (p == null) {
+            searchCache.clear();
+        } else {
+            searchCache.invalidate(areaKey(p.getArea()), type, price, from, to);
         }
+    }
 
-        // Validate required date range
-        requireDateRange(criteria.getStartDate(), criteria.getEndDate());
-
-        // Step 1: determine candidate room IDs using simple indexing
-        Set<UUID> candidateRoomIds = new HashSet<>();
-        boolean usedIndex = false;
+    public void removeRoom(String ownerEmail, UUID roomId) {
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+            if (roomId == null) throw new IllegalArgumentException("Room not found.");
+            int roomRef = ids.find(roomId);
+            Lock lock = roomLocks.forKey(roomRef).writeLock();
+            lock.lock();
+            try {
+                Room r = heldRoom(roomRef, roomId);
+                if (r == null) throw new IllegalArgumentException("Room not found.");
+                if (r.getOwnerRef() != owner.getRef()) throw new IllegalArgumentException("Not your room.");
+
+                // Prototype rule: allow removal only if no confirmed bookings exist
+                if (r.hasConfirmedBookings()) {
+                    throw new IllegalArgumentException("Cannot remove room with confirmed bookings.");
+                }
+                internalRemoveRoom(r);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            timer(Op.REMOVE_ROOM).recordSince(startNanos);
+        }
+    }
 
-        // Filter by area, if provided
-        if (criteria.getArea() != null) {
-            String areaKey = criteria.getArea().trim().toLowerCase(Locale.ROOT);
-            List<UUID> roomsInArea = roomsByArea.get(areaKey);
-            if (roomsInArea != null) {
-                candidateRoomIds.addAll(roomsInArea);
+    public List<Room> searchRooms(SearchCriteria criteria, RoomSortStrategy sortStrategy) {
+        long startNanos = System.nanoTime();
+        try {
+            validateSearch(criteria, sortStrategy);
+
+            SearchResultCache.Key key = searchCache.keyFor(criteria, sortStrategy);
+            List<Room> cached = searchCache.get(key);
+            if (cached != null) {
+                return new ArrayList<>(cached);
             }
-            usedIndex = true;
+            long generation = searchCache.generation(key);
+
+            // Step 1: determine candidate rooms using the indexes
+            List<Room> candidates = candidateRooms(criteria, true);
+
+            // step 2 and 3: apply detailed filtering and sort using the chosen strategy
+            // (in parallel shards when there are many candidates)
+            List<Room> sorted = roomsOf(shardedSearch.filterAndSort(candidates,
+                    room -> searchMatchKeyLocked(room, criteria), sortStrategy));
+            candidatesScanned.add(candidates.size());
+            roomsMatched.add(sorted.size());
+            searchCache.put(key, sorted, generation);
+            return sorted;
+        } finally {
+            timer(Op.SEARCH_ROOMS).recordSince(startNanos);
         }
+    }
 
-        // Filter by room type if provided
-        if (criteria.getRoomType() != null) {
-            List<UUID> roomsOfType = roomsByType.get(criteria.getRoomType());
-            if (roomsOfType == null) {
-                roomsOfType = new ArrayList<>();
+    // Flexible dates: the criteria's start and end dates bound when the stay may
+    // begin (both inclusive); each matching room is returned with the earliest
+    // stay of stayDays days that fits.
+    public List<FlexibleMatch> searchFlexibleDates(SearchCriteria criteria, int stayDays, RoomSortStrategy sortStrategy) {
+        long startNanos = System.nanoTime();
+        try {
+            if (criteria == null) throw new IllegalArgumentException("Search criteria must not be null.");
+            if (sortStrategy == null) throw new IllegalArgumentException("Sort strategy must not be null.");
+            if (stayDays <= 0) throw new IllegalArgumentException("Stay length must be > 0 days.");
+            LocalDate earliest = criteria.getStartDate();
+            LocalDate latest = criteria.getEndDate();
+            if (earliest == null || latest == null) throw new IllegalArgumentException("Start and end dates are required.");
+            if (earliest.isAfter(latest)) throw new IllegalArgumentException("Start date must not be after end date.");
+            // days before the archive watermark may hold archived bookings the calendars no longer show
+            LocalDate through = archivedThrough();
+            if (through != null) {
+                if (latest.isBefore(through)) throw new IllegalArgumentException(archivedMessage("End date", through));
+                if (earliest.isBefore(through)) earliest = through;
             }
 
-            if (!usedIndex) {
-                candidateRoomIds.addAll(roomsOfType);
-                usedIndex = true;
-            } else {
-                // Intersect existing candidates with room-type matches
-                Set<UUID> intersection = new HashSet<>();
-                for (UUID id : roomsOfType) {
-                    if (candidateRoomIds.contains(id)) {
-                        intersection.add(id);
+            List<FlexibleMatch> matches = new ArrayList<>();
+            Collection<Room> candidates = candidateRooms(criteria, false);
+            candidatesScanned.add(candidates.size());
+            for (Room room : candidates) {
+                Lock lock = roomLocks.forKey(room.getRef()).readLock();
+                lock.lock();
+                try {
+                    if (!matchesFilters(room, criteria)) continue;
+                    LocalDate start = room.earliestFreeStart(earliest, latest, stayDays);
+                    if (start != null) {
+                        matches.add(new FlexibleMatch(RoomSortKey.of(room), start, start.plusDays(stayDays)));
                     }
+                } finally {
+                    lock.unlock();
                 }
-                candidateRoomIds = intersection;
             }
-        }
 
-        // If no index was used, fall back to all rooms
-        if (!usedIndex) {
-            candidateRoomIds.addAll(roomsById.keySet());
+            roomsMatched.add(matches.size());
+
+            matches.sort(Comparator.comparing(FlexibleMatch::getSortKey, sortStrategy.comparator()));
+            return matches;
+        } finally {
+            timer(Op.SEARCH_FLEXIBLE_DATES).recordSince(startNanos);
         }
+    }
 
-        // step 2: apply detailed filtering
-        List<Room> matchingRooms = new ArrayList<>();
+    public SearchResultCache.Stats getSearchCacheStats() {
+        return searchCache.stats();
+    }
 
-        for (UUID roomId : candidateRoomIds) {
-            Room room = roomsById.get(roomId);
-            if (room == null) {
-                continue;
+    // Keyset-paginated search: pass null for the first page, then each page's next cursor.
+    public SearchPage searchRoomsPage(SearchCriteria criteria, RoomSortStrategy sortStrategy, int pageSize, String cursor) {
+        long startNanos = System.nanoTime();
+        try {
+            validateSearch(criteria, sortStrategy);
+            if (pageSize <= 0) throw new IllegalArgumentException("Page size must be > 0.");
+
+            RoomSortKey after = (cursor != null) ? SearchCursor.decode(cursor, criteria, sortStrategy) : null;
+            Comparator<RoomSortKey> order = sortStrategy.comparator();
+
+            // fetch one extra room to learn whether another page exists
+            List<RoomSortKey> window;
+            if (criteria.getArea() == null && criteria.getRoomType() == null
+                    && (sortStrategy instanceof SortByPriceAsc || sortStrategy instanceof SortByPriceDesc)) {
+                // the price index is already in result order: walk it and stop once the page is full
+                window = walkPriceOrder(criteria, sortStrategy instanceof SortByPriceDesc, order, after, pageSize + 1);
+            } else {
+                List<Room> candidates = candidateRooms(criteria, true);
+                window = shardedSearch.filterAndSort(candidates, room -> {
+                    RoomSortKey key = searchMatchKeyLocked(room, criteria);
+                    return key != null && (after == null || order.compare(key, after) > 0) ? key : null;
+                }, new TopKSort(sortStrategy, pageSize + 1));
+                candidatesScanned.add(candidates.size());
             }
 
-            // Area check (safe even if indexed)
-            if (criteria.getArea() != null) {
-                Property property = propertiesById.get(room.getPropertyId());
-                if (property == null) {
-                    continue;
-                }
-                if (!property.getArea().equalsIgnoreCase(criteria.getArea().trim())) {
-                    continue;
-                }
+            if (window.size() <= pageSize) {
+                return new SearchPage(roomsOf(window), null);
             }
+            List<RoomSortKey> page = window.subList(0, pageSize);
+            return new SearchPage(roomsOf(page), SearchCursor.encode(page.get(pageSize - 1), criteria, sortStrategy));
+        } finally {
+            timer(Op.SEARCH_ROOMS_PAGE).recordSince(startNanos);
+        }
+    }
 
-            // Room type check
-            if (criteria.getRoomType() != null && room.getType() != criteria.getRoomType()) {
-                continue;
-            }
+    private List<RoomSortKey> walkPriceOrder(SearchCriteria criteria, boolean descending,
+                                             Comparator<RoomSortKey> order, RoomSortKey after, int limit) {
+        Integer min = criteria.getMinPrice();
+        Integer max = criteria.getMaxPrice();
+        Iterable<PriceIndex.Entry> entries;
+        if (descending) {
+            entries = roomsByPrice.descendingFrom(min, max, after != null ? after.getPricePerMonth() : Integer.MAX_VALUE);
+        } else {
+            entries = roomsByPrice.ascendingFrom(min, max, after != null ? after.getPricePerMonth() : Integer.MIN_VALUE);
+        }
 
-            // Price checks
-            if (criteria.getMinPrice() != null && room.getPricePerMonth() < criteria.getMinPrice()) {
+        List<RoomSortKey> out = new ArrayList<>(limit);
+        for (PriceIndex.Entry e : entries) {
+            Room room = roomsById.get(e.getRoomRef());
+            if (room == null) continue;
+            RoomSortKey key = searchMatchKeyLocked(room, criteria);
+            // skip stale entries left behind by a concurrent re-price
+            if (key == null || key.getPricePerMonth() != e.getPrice()) {
                 continue;
             }
-            if (criteria.getMaxPrice() != null && room.getPricePerMonth() > criteria.getMaxPrice()) {
+            if (after != null && order.compare(key, after) <= 0) {
                 continue;
             }
+            out.add(key);
+            if (out.size() == limit) break;
+        }
+        return out;
+    }
 
-            // Availability window check
-            if (!room.isWithinWindow(criteria.getStartDate(), criteria.getEndDate())) {
-                continue;
-            }
+    // fixedDates: the criteria's dates are the stay itself (not a range of start dates),
+    // so rooms whose window does not cover them can be dropped up front
+    private List<Room> candidateRooms(SearchCriteria criteria, boolean fixedDates) {
+        if (criteria.getArea() != null || criteria.getRoomType() != null) {
+            // area/type filters: AND the bitmap postings
+            String areaKey = criteria.getArea() != null ? areaKey(criteria.getArea()) : null;
+            RoomBitmap matches = roomIndex.match(areaKey, criteria.getRoomType());
+            return roomIndex.resolve(matches);
+        }
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            List<Room> band = priceBand(criteria.getMinPrice(), criteria.getMaxPrice());
+            if (band != null) return band;
+        }
+        // No posting applies and the price band is wide (or absent): one pass over the
+        // room columns filters on price and window without touching the Room objects
+        return roomIndex.scan(null, null, criteria.getMinPrice(), criteria.getMaxPrice(),
+                fixedDates ? criteria.getStartDate() : null, fixedDates ? criteria.getEndDate() : null);
+    }
 
-            // Overlap check against confirmed bookings
-            if (!room.isAvailable(criteria.getStartDate(), criteria.getEndDate())) {
-                continue;
-            }
+    // The rooms in a price band, sliced from the price index in O(log n + k);
+    // null once the band is too wide, where the sequential column scan is cheaper
+    private List<Room> priceBand(Integer min, Integer max) {
+        int limit = Math.max(MIN_BAND_LIMIT, roomsById.size() / BAND_SCAN_FRACTION);
+        List<Room> out = new ArrayList<>();
+        for (PriceIndex.Entry e : roomsByPrice.range(min, max)) {
+            if (out.size() == limit) return null;
+            Room room = roomsById.get(e.getRoomRef());
+            // a concurrent re-price briefly leaves the room under both prices: keep one
+            if (room != null && room.getPricePerMonth() == e.getPrice()) out.add(room);
+        }
+        return out;
+    }
 
-            matchingRooms.add(room);
+    private void validateSearch(SearchCriteria criteria, RoomSortStrategy sortStrategy) {
+        if (criteria == null) {
+            throw new IllegalArgumentException("Search criteria must not be null.");
+        }
+        if (sortStrategy == null) {
+            throw new IllegalArgumentException("Sort strategy must not be null.");
         }
 
-        // Step 3: sort results using the chosen strategy
-        return sortStrategy.sort(matchingRooms);
+        // Validate required date range
+        requireDateRange(criteria.getStartDate(), criteria.getEndDate());
+        requireAfterArchive(criteria.getStartDate());
+    }
+
+    // Archived bookings have left the rooms' calendars, so days before this would
+    // look free; null while no archive is attached or nothing is archived yet
+    private LocalDate archivedThrough() {
+        BookingArchive a = archive;
+        return a != null ? a.archivedThrough() : null;
+    }
+
+    private void requireAfterArchive(LocalDate start) {
+        LocalDate through = archivedThrough();
+        if (through != null && start.isBefore(through)) {
+            throw new IllegalArgumentException(archivedMessage("Start date", through));
+        }
+    }
+
+    private static String archivedMessage(String what, LocalDate through) {
+        return what + " must not be before " + through + ": bookings up to then are archived.";
     }
 
 
     public Room getRoomDetails(UUID roomId) {
-        Room r = roomsById.get(roomId);
-        if (r == null)
-        {
-             throw new IllegalArgumentException("Room not found.");
+        long startNanos = System.nanoTime();
+        try {
+            Room r = live(roomsById, roomId);
+            if (r == null)
+            {
+                 throw new IllegalArgumentException("Room not found.");
+            }
+            return r;
+        } finally {
+            timer(Op.GET_ROOM_DETAILS).recordSince(startNanos);
         }
-        return r;
     }
 
     public Property getPropertyById(UUID propertyId) {
-        Property p = propertiesById.get(propertyId);
-        if (p == null) throw new IllegalArgumentException("Property not found.");
-        return p;
+        long startNanos = System.nanoTime();
+        try {
+            Property p = live(propertiesById, propertyId);
+            if (p == null) throw new IllegalArgumentException("Property not found.");
+            return p;
+        } finally {
+            timer(Op.GET_PROPERTY).recordSince(startNanos);
+        }
     }
 
     public BookingRequest requestBooking(String studentEmail, UUID roomId, LocalDate start, LocalDate end) {
-        Student student = requireActiveStudent(studentEmail);
-        Room room = roomsById.get(roomId);
-        if (room == null) {
-            throw new IllegalArgumentException("Room not found.");
-        }
+        long startNanos = System.nanoTime();
+        try {
+            Student student = requireActiveStudent(studentEmail);
+            requireDateRange(start, end);
+            requireAfterArchive(start);
+
+            if (roomId == null) throw new IllegalArgumentException("Room not found.");
+            int roomRef = ids.find(roomId);
+
+            // read lock: keeps the room from being removed or booked while we check
+            Lock lock = roomLocks.forKey(roomRef).readLock();
+            lock.lock();
+            try {
+                Room room = heldRoom(roomRef, roomId);
+                if (room == null) {
+                    throw new IllegalArgumentException("Room not found.");
+                }
 
-        requireDateRange(start, end);
+                if (!room.isWithinWindow(start, end)) {
+                    throw new IllegalArgumentException("Requested dates are outside the room's availability window.");
+                }
+                if (!room.isAvailable(start, end)) {
+                    requestConflicts.increment();
+                    throw new IllegalArgumentException("Room is not available for that date range.");
+                }
 
-        if (!room.isWithinWindow(start, end)) {
-            throw new IllegalArgumentException("Requested dates are outside the room's availability window.");
+                BookingRequest req = new BookingRequest(
+                        ids,
+                        ids.newRef(),
+                        student.getRef(),
+                        room.getRef(),
+                        start,
+                        end,
+                        RequestStatus.PENDING,
+                        LocalDateTime.now(),
+                        null
+                );
+
+                putRequest(req, room);
+                log(j -> j.appendRequest(req));
+                return req;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            timer(Op.REQUEST_BOOKING).recordSince(startNanos);
         }
-        if (!room.isAvailable(start, end)) {
-            throw new IllegalArgumentException("Room is not available for that date range.");
+    }
+
+    private void putRequest(BookingRequest req, Room room) {
+        requestsById.put(req.getRef(), req);
+        if (req.getStatus() == RequestStatus.PENDING) {
+            room.addPendingRequest(req);
+            long deadline = expiryDeadline(req);
+            synchronized (expiryWheel) {
+                expiryWheel.schedule(req, deadline);
+            }
         }
+        requestsByRoom.computeIfAbsent(room.getRef(), k -> new ConcurrentSkipListSet<>(requestOrder)).add(req);
+        requestsByOwner.computeIfAbsent(room.getOwnerRef(), k -> new ConcurrentSkipListSet<>(requestOrder)).add(req);
+    }
 
-        BookingRequest req = new BookingRequest(
-                UUID.randomUUID(),
-                student.getId(),
-                roomId,
-                start,
-                end,
-                RequestStatus.PENDING,
-                LocalDateTime.now()
-        );
+    // Threads a single large search may use (1: always sequential). Searches
+    // already running finish on the previous pool or, if it is gone, sequentially.
+    public void setSearchParallelism(int parallelism) {
+        ShardedSearch previous = shardedSearch;
+        shardedSearch = new ShardedSearch(parallelism, previous.getThreshold());
+        previous.close();
+    }
 
-        requestsById.put(req.getId(), req);
-        return req;
+    // How long a request may stay PENDING before it expires; null means only
+    // once its start date arrives. Requests already waiting keep their old
+    // deadline if the new one is shorter.
+    public void setRequestTtl(Duration ttl) {
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException("Request TTL must be > 0.");
+        }
+        this.requestTtl = ttl;
     }
 
-    public List<BookingRequest> listRequestsForOwner(String ownerEmail) {
-        Homeowner owner = requireActiveHomeowner(ownerEmail);
+    // Expires PENDING requests whose start date has arrived or that outlived the
+    // TTL, and drops them from memory (the journal keeps the record). Meant to be
+    // run periodically: the wheel is locked only to collect what fell due, then
+    // each request is handled under its own room's lock. Returns how many expired.
+    public int expireRequests() {
+        long startNanos = System.nanoTime();
+        try {
+            long now = System.currentTimeMillis();
+            List<BookingRequest> due;
+            synchronized (expiryWheel) {
+                due = expiryWheel.advance(now);
+            }
+
+            int expired = 0;
+            for (BookingRequest req : due) {
+                if (req.getStatus() != RequestStatus.PENDING) continue; // decided meanwhile
+                long deadline = expiryDeadline(req);
+                if (deadline > now) {
+                    // the TTL went up since it was scheduled
+                    synchronized (expiryWheel) {
+                        expiryWheel.schedule(req, deadline);
+                    }
+                    continue;
+                }
 
-        // find room IDs owned by this homeowner
-        Set<UUID> ownerRoomIds = new HashSet<>();
-        for (Room r : roomsById.values()) {
-            if (r.getOwnerId().equals(owner.getId())) {
-                ownerRoomIds.add(r.getId());
+                Lock lock = roomLocks.forKey(req.getRoomRef()).writeLock();
+                lock.lock();
+                try {
+                    if (req.getStatus() != RequestStatus.PENDING || requestsById.get(req.getRef()) != req) continue;
+                    req.markExpired(expiryReason(req));
+                    log(j -> j.appendRequest(req));
+                    dropRequest(req);
+                    expired++;
+                } finally {
+                    lock.unlock();
+                }
             }
+            requestsExpired.add(expired);
+            return expired;
+        } finally {
+            timer(Op.EXPIRE_REQUESTS).recordSince(startNanos);
         }
+    }
 
-        // collect booking requests for those rooms
-        List<BookingRequest> results = new ArrayList<>();
-        for (BookingRequest req : requestsById.values()) {
-            if (ownerRoomIds.contains(req.getRoomId())) {
-                results.add(req);
-            }
+    // epoch millis: the start of the request's first night, or createdAt + TTL if sooner
+    private long expiryDeadline(BookingRequest req) {
+        ZoneId zone = ZoneId.systemDefault();
+        long start = req.getStartDate().atStartOfDay(zone).toInstant().toEpochMilli();
+        Duration ttl = requestTtl;
+        if (ttl == null) return start;
+        return Math.min(start, req.getCreatedAt().atZone(zone).toInstant().toEpochMilli() + ttl.toMillis());
+    }
+
+    private String expiryReason(BookingRequest req) {
+        if (!LocalDate.now().isBefore(req.getStartDate())) return "Start date passed before a decision.";
+        Duration ttl = requestTtl;
+        return "Not decided within " + (ttl != null ? ttl.toHours() + " hours" : "the allowed time") + ".";
+    }
+
+    // caller holds the room's write lock
+    private void dropRequest(BookingRequest req) {
+        if (!requestsById.remove(req.getRef(), req)) return;
+        Room room = roomsById.get(req.getRoomRef());
+        if (room != null) {
+            room.removePendingRequest(req);
+            NavigableSet<BookingRequest> roomRequests = requestsByRoom.get(room.getRef());
+            if (roomRequests != null) roomRequests.remove(req);
+            NavigableSet<BookingRequest> inbox = requestsByOwner.get(room.getOwnerRef());
+            if (inbox != null) inbox.remove(req);
         }
+        release(req);
+    }
+
+    // An entity that has left every table and ordered set keeps its ids in a
+    // frozen copy; only then is its ref freed for reuse. Refs it holds to other
+    // entities are theirs to release.
+    private void release(BookingRequest req) {
+        req.detachIds();
+        ids.release(req.getRef());
+    }
+
+    private void release(Booking b) {
+        b.detachIds();
+        ids.release(b.getRef());
+    }
+
+    private void release(Room r) {
+        r.detachIds();
+        ids.release(r.getRef());
+    }
 
-        // sort requests by creation time (oldest first)
-        for (int i = 0; i < results.size(); i++) {
-            for (int j = i + 1; j < results.size(); j++) {
-                BookingRequest a = results.get(i);
-                BookingRequest b = results.get(j);
+    private void release(Property p) {
+        p.detachIds();
+        ids.release(p.getRef());
+    }
 
-                if (a.getCreatedAt().isAfter(b.getCreatedAt())) {
-                    // Swap positions
-                    results.set(i, b);
-                    results.set(j, a);
+    // Moves bookings that ended on or before the cutoff into the archive and drops
+    // them from memory. The archive write is made durable first; each booking is
+    // then dropped under its room's lock and logged as archived, so a replay leaves
+    // it out too. A crash between the two steps leaves the booking in memory as
+    // well, and it is archived again on the next run (history skips the repeat).
+    // Returns how many bookings were archived (dropped from memory here).
+    public int archiveCompletedBookings(LocalDate cutoff) {
+        long startNanos = System.nanoTime();
+        try {
+            if (cutoff == null) throw new IllegalArgumentException("Cutoff date is required.");
+            if (cutoff.isAfter(LocalDate.now())) throw new IllegalArgumentException("Cutoff must not be in the future.");
+            BookingArchive a = archive;
+            if (a == null) throw new IllegalStateException("No archive attached.");
+
+            List<Booking> completed = new ArrayList<>();
+            for (Booking b : bookingsById.values()) {
+                if (!b.getEndDate().isAfter(cutoff)) completed.add(b);
+            }
+            if (completed.isEmpty()) return 0;
+            completed.sort(Comparator.comparingInt(Booking::getRoomRef).thenComparing(Booking::getStartDate));
+            a.append(completed);
+
+            int archived = 0;
+            for (Booking b : completed) {
+                Lock lock = roomLocks.forKey(b.getRoomRef()).writeLock();
+                lock.lock();
+                try {
+                    // gone with its room meanwhile
+                    if (!bookingsById.remove(b.getRef(), b)) continue;
+                    Room room = roomsById.get(b.getRoomRef());
+                    if (room != null) {
+                        room.removeConfirmedBooking(b);
+                        invalidateSearches(room, room.getType(), room.getPricePerMonth(), b.getStartDate(),
+                                b.getEndDate());
+                    }
+                    log(j -> j.appendBookingArchived(b.getId(), b.getRoomId()));
+                    release(b);
+                    archived++;
+                } finally {
+                    lock.unlock();
                 }
             }
+            bookingsArchived.add(archived);
+            return archived;
+        } finally {
+            timer(Op.ARCHIVE_BOOKINGS).recordSince(startNanos);
         }
+    }
+
+    // Every booking the room has had: archived ones first (read from disk as they
+    // are streamed), then those still in memory, in start-date order.
+    public void streamBookingHistory(UUID roomId, Consumer<Booking> sink) {
+        long startNanos = System.nanoTime();
+        try {
+            if (roomId == null) throw new IllegalArgumentException("Room id is required.");
+            // archived bookings are read detached, never interned, so both sides are matched by id
+            Set<UUID> seen = new HashSet<>();
+            BookingArchive a = archive;
+            if (a != null) {
+                a.forEach(roomId, b -> {
+                    if (seen.add(b.getId())) sink.accept(b);
+                });
+            }
 
-        return results;
+            List<Booking> current;
+            int roomRef = ids.find(roomId);
+            Lock lock = roomLocks.forKey(roomRef).readLock();
+            lock.lock();
+            try {
+                Room room = heldRoom(roomRef, roomId);
+                current = room != null ? room.getConfirmedBookings() : List.of();
+            } finally {
+                lock.unlock();
+            }
+            for (Booking b : current) {
+                if (seen.isEmpty() || !seen.contains(b.getId())) sink.accept(b);
+            }
+        } finally {
+            timer(Op.BOOKING_HISTORY).recordSince(startNanos);
+        }
+    }
+
+    public List<BookingRequest> listRequestsForOwner(String ownerEmail) {
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+
+            // already kept in creation order (oldest first)
+            NavigableSet<BookingRequest> inbox = requestsByOwner.get(owner.getRef());
+            return inbox == null ? new ArrayList<>() : new ArrayList<>(inbox);
+        } finally {
+            timer(Op.LIST_REQUESTS).recordSince(startNanos);
+        }
     }
 
+    // One page of the owner's inbox in creation order; status == null means any status.
+    public List<BookingRequest> listRequestsForOwner(String ownerEmail, RequestStatus status, int offset, int limit) {
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+            if (offset < 0) throw new IllegalArgumentException("Offset must be >= 0.");
+            if (limit <= 0) throw new IllegalArgumentException("Limit must be > 0.");
+
+            List<BookingRequest> results = new ArrayList<>();
+            NavigableSet<BookingRequest> inbox = requestsByOwner.get(owner.getRef());
+            if (inbox == null) {
+                return results;
+            }
 
+            int skipped = 0;
+            for (BookingRequest req : inbox) {
+                if (status != null && req.getStatus() != status) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                results.add(req);
+                if (results.size() == limit) {
+                    break;
+                }
+            }
+            return results;
+        } finally {
+            timer(Op.LIST_REQUESTS_PAGE).recordSince(startNanos);
+        }
+    }
 
     public Booking decideRequest(String ownerEmail, UUID requestId, boolean accept) {
-        Homeowner owner = requireActiveHomeowner(ownerEmail);
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+
+            BookingRequest req = live(requestsById, requestId);
+            if (req == null) throw new IllegalArgumentException("Request not found.");
+
+            // the whole check-and-confirm runs under the room's write lock so two
+            // owners/threads can never confirm overlapping dates (FR-14)
+            Lock lock = roomLocks.forKey(req.getRoomRef()).writeLock();
+            lock.lock();
+            try {
+                if (req.getStatus() != RequestStatus.PENDING) {
+                    throw new IllegalArgumentException("Request is not pending.");
+                }
+
+                // removed with its room since it was looked up; its room ref may be another room's now
+                if (requestsById.get(req.getRef()) != req) throw new IllegalArgumentException("Room not found.");
+                Room room = roomsById.get(req.getRoomRef());
+                if (room.getOwnerRef() != owner.getRef()) throw new IllegalArgumentException("Not your room.");
+
+                if (!accept) {
+                    reject(room, req, null);
+                    return null; // if rejected, no booking returned
+                }
+
+                //important requirement: re-check overlap before confirming (FR-14)
+                String conflict = recheck(room, req);
+                if (conflict != null) {
+                    reject(room, req, conflict);
+                    recheckConflicts.increment();
+                    throw new IllegalArgumentException(conflict);
+                }
 
-        BookingRequest req = requestsById.get(requestId);
-        if (req == null) throw new IllegalArgumentException("Request not found.");
-        if (req.getStatus() != RequestStatus.PENDING) {
-            throw new IllegalArgumentException("Request is not pending.");
+                Booking booking = confirm(room, req);
+                invalidateSearches(room, room.getType(), room.getPricePerMonth(), req.getStartDate(), req.getEndDate());
+                return booking;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            timer(Op.DECIDE_REQUEST).recordSince(startNanos);
         }
+    }
 
-        Room room = roomsById.get(req.getRoomId());
-        if (room == null) throw new IllegalArgumentException("Room not found.");
-        if (!room.getOwnerId().equals(owner.getId())) throw new IllegalArgumentException("Not your room.");
+    // Applies many decisions for one owner. Requests are grouped by room and each
+    // room is locked once; within a room, accepted requests are confirmed oldest
+    // createdAt first, so when two of them overlap the older one wins and the
+    // newer one is rejected as a CONFLICT. Problems are reported per request
+    // instead of aborting the batch. Outcomes come back in input order.
+    public List<DecisionOutcome> decideRequests(String ownerEmail, List<RequestDecision> decisions) {
+        long startNanos = System.nanoTime();
+        try {
+            Homeowner owner = requireActiveHomeowner(ownerEmail);
+
+            DecisionOutcome[] outcomes = new DecisionOutcome[decisions.size()];
+            // resolved once: a request can leave requestsById (room removed, expired) mid-batch
+            BookingRequest[] requests = new BookingRequest[decisions.size()];
+            Map<Integer, List<Integer>> byRoom = new LinkedHashMap<>();
+            Set<BookingRequest> seen = new HashSet<>();
+            for (int i = 0; i < decisions.size(); i++) {
+                UUID id = decisions.get(i).getRequestId();
+                BookingRequest req = live(requestsById, id);
+                requests[i] = req;
+                if (req == null) {
+                    outcomes[i] = failed(id, "Request not found.");
+                } else if (!seen.add(req)) {
+                    outcomes[i] = failed(id, "Request appears more than once in the batch.");
+                } else {
+                    byRoom.computeIfAbsent(req.getRoomRef(), k -> new ArrayList<>()).add(i);
+                }
+            }
 
-        if (!accept) {
-            req.markRejected();
-            return null; // if rejected, no booking returned
+            for (Map.Entry<Integer, List<Integer>> e : byRoom.entrySet()) {
+                decideForRoom(owner, e.getKey(), e.getValue(), decisions, requests, outcomes);
+            }
+            return Arrays.asList(outcomes);
+        } finally {
+            timer(Op.DECIDE_REQUESTS).recordSince(startNanos);
         }
+    }
 
-        //important requirement: re-check overlap before confirming (FR-14)
+    // one room's share of a batch; indexes point into decisions/requests/outcomes
+    private void decideForRoom(Homeowner owner, int roomRef, List<Integer> indexes, List<RequestDecision> decisions,
+                               BookingRequest[] requests, DecisionOutcome[] outcomes) {
+        Lock lock = roomLocks.forKey(roomRef).writeLock();
+        lock.lock();
+        try {
+            Room room = roomsById.get(roomRef);
+            List<Integer> accepts = new ArrayList<>();
+            for (int i : indexes) {
+                BookingRequest req = requests[i];
+                if (req.getStatus() != RequestStatus.PENDING) {
+                    outcomes[i] = failed(req.getId(), "Request is not pending.");
+                } else if (room == null || requestsById.get(req.getRef()) != req) {
+                    // removed with its room mid-batch; roomRef may name another room by now
+                    outcomes[i] = failed(req.getId(), "Room not found.");
+                } else if (room.getOwnerRef() != owner.getRef()) {
+                    outcomes[i] = failed(req.getId(), "Not your room.");
+                } else if (decisions.get(i).isAccept()) {
+                    accepts.add(i);
+                } else {
+                    reject(room, req, null);
+                    outcomes[i] = new DecisionOutcome(req.getId(), DecisionOutcome.Result.REJECTED, null, null);
+                }
+            }
+            if (accepts.isEmpty()) return;
+
+            // oldest first (id breaks ties) so the same batch always resolves the same way
+            accepts.sort((a, b) -> requestOrder.compare(requests[a], requests[b]));
+
+            LocalDate changedFrom = null;
+            LocalDate changedTo = null;
+            for (int i : accepts) {
+                BookingRequest req = requests[i];
+                if (req.getStatus() != RequestStatus.PENDING) {
+                    // rejected by a booking confirmed earlier in this batch
+                    outcomes[i] = new DecisionOutcome(req.getId(), DecisionOutcome.Result.CONFLICT, null, req.getReason());
+                    continue;
+                }
+                String conflict = recheck(room, req);
+                if (conflict != null) {
+                    reject(room, req, conflict);
+                    recheckConflicts.increment();
+                    outcomes[i] = new DecisionOutcome(req.getId(), DecisionOutcome.Result.CONFLICT, null, conflict);
+                    continue;
+                }
+
+                Booking booking = confirm(room, req);
+                outcomes[i] = new DecisionOutcome(req.getId(), DecisionOutcome.Result.ACCEPTED, booking, null);
+                if (changedFrom == null || req.getStartDate().isBefore(changedFrom)) changedFrom = req.getStartDate();
+                if (changedTo == null || req.getEndDate().isAfter(changedTo)) changedTo = req.getEndDate();
+            }
+            if (changedFrom != null) {
+                invalidateSearches(room, room.getType(), room.getPricePerMonth(), changedFrom, changedTo);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // why a pending request can no longer be confirmed, or null if it still can
+    private String recheck(Room room, BookingRequest req) {
+        // the request may overlap bookings archived since it was made, which the room no longer holds
+        LocalDate through = archivedThrough();
+        if (through != null && req.getStartDate().isBefore(through)) {
+            return "Request dates overlap archived bookings.";
+        }
         if (!room.isWithinWindow(req.getStartDate(), req.getEndDate())) {
-            req.markRejected();
-            throw new IllegalArgumentException("Request dates no longer within availability window.");
+            return "Request dates no longer within availability window.";
         }
         if (!room.isAvailable(req.getStartDate(), req.getEndDate())) {
-            req.markRejected();
-            throw new IllegalArgumentException("Conflict detected: room already booked for those dates.");
+            return "Conflict detected: room already booked for those dates.";
         }
+        return null;
+    }
 
+    // caller holds the room's write lock
+    private void reject(Room room, BookingRequest req, String reason) {
+        room.removePendingRequest(req);
+        req.markRejected(reason);
+        log(j -> j.appendRequest(req));
+    }
+
+    // Caller holds the room's write lock and has re-checked the dates. Every other
+    // pending request for overlapping dates can no longer succeed, so it is
+    // rejected here rather than left for the owner to find out later.
+    private Booking confirm(Room room, BookingRequest req) {
         Booking booking = new Booking(
-                UUID.randomUUID(),
-                req.getStudentId(),
-                req.getRoomId(),
+                ids,
+                ids.newRef(),
+                req.getStudentRef(),
+                req.getRoomRef(),
                 req.getStartDate(),
                 req.getEndDate(),
                 LocalDateTime.now()
         );
 
-        bookingsById.put(booking.getId(), booking);
+        bookingsById.put(booking.getRef(), booking);
         room.addConfirmedBooking(booking);
+        room.removePendingRequest(req);
         req.markAccepted();
-
+        log(j -> j.appendBooking(booking));
+        log(j -> j.appendRequest(req));
+
+        String reason = "Dates taken by confirmed booking " + booking.getId() + ".";
+        for (BookingRequest clashing : room.takePendingOverlapping(req.getStartDate(), req.getEndDate())) {
+            clashing.markRejected(reason);
+            log(j -> j.appendRequest(clashing));
+            autoRejected.increment();
+        }
         return booking;
     }
 
+    private static DecisionOutcome failed(UUID requestId, String message) {
+        return new DecisionOutcome(requestId, DecisionOutcome.Result.ERROR, null, message);
+    }
+
     public List<User> adminViewUsers(String adminEmail) {
-        requireAdmin(adminEmail);
+        long startNanos = System.nanoTime();
+        try {
+            requireAdmin(adminEmail);
 
-        List<User> users = new ArrayList<>();
-        for (User u : usersByEmail.values()) {
-            users.add(u);
+            List<User> users = new ArrayList<>();
+            for (User u : usersByEmail.values()) {
+                users.add(u);
+            }
+
+            users.sort(new Comparator<User>() {
+                @Override
+                public int compare(User a, User b) {
+                    return a.getEmail().compareTo(b.getEmail());
+                }
+            });
+
+            return users;
+        } finally {
+            timer(Op.ADMIN_VIEW_USERS).recordSince(startNanos);
         }
+    }
 
-        users.sort(new Comparator<User>() {
-            @Override
-            public int compare(User a, User b) {
-                return a.getEmail().compareTo(b.getEmail());
+
+    public List<Property> adminViewListings(String adminEmail) {
+        long startNanos = System.nanoTime();
+        try {
+            requireAdmin(adminEmail);
+
+            List<Property> props = new ArrayList<>();
+            for (Property p : propertiesById.values()) {
+                props.add(p);
             }
-        });
 
-        return users;
+            props.sort(new Comparator<Property>() {
+                @Override
+                public int compare(Property a, Property b) {
+                    int areaCompare = a.getArea().compareToIgnoreCase(b.getArea());
+                    if (areaCompare != 0) {
+                        return areaCompare;
+                    }
+                    return a.getAddress().compareToIgnoreCase(b.getAddress());
+                }
+            });
+
+            return props;
+        } finally {
+            timer(Op.ADMIN_VIEW_LISTINGS).recordSince(startNanos);
+        }
     }
 
 
-    public List<Property> adminViewListings(String adminEmail) {
-        requireAdmin(adminEmail);
+    public void adminDeactivateUser(String adminEmail, String userEmail) {
+        long startNanos = System.nanoTime();
+        try {
+            requireAdmin(adminEmail);
+            requireNonBlank(userEmail, "User email");
+
+            User u = usersByEmail.get(userEmail.toLowerCase(Locale.ROOT));
+            if (u == null) throw new IllegalArgumentException("User not found.");
+            u.deactivate();
+            log(j -> j.appendUserDeactivated(u.getEmail()));
+        } finally {
+            timer(Op.ADMIN_DEACTIVATE_USER).recordSince(startNanos);
+        }
+    }
 
-        List<Property> props = new ArrayList<>();
-        for (Property p : propertiesById.values()) {
-            props.add(p);
+    public void adminRemoveListing(String adminEmail, UUID roomId) {
+        long startNanos = System.nanoTime();
+        try {
+            requireAdmin(adminEmail);
+            if (roomId == null) throw new IllegalArgumentException("Room not found.");
+            int roomRef = ids.find(roomId);
+
+            Lock lock = roomLocks.forKey(roomRef).writeLock();
+            lock.lock();
+            try {
+                Room r = heldRoom(roomRef, roomId);
+                if (r == null) throw new IllegalArgumentException("Room not found.");
+
+                // Prototype rule: allow admin removal even if bookings exist (admin override)
+                internalRemoveRoom(r);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            timer(Op.ADMIN_REMOVE_LISTING).recordSince(startNanos);
         }
+    }
 
-        props.sort(new Comparator<Property>() {
-            @Override
-            public int compare(Property a, Property b) {
-                int areaCompare = a.getArea().compareToIgnoreCase(b.getArea());
-                if (areaCompare != 0) {
-                    return areaCompare;
+    // Adds a user registered on another instance, keeping its id and password
+    // hash so records that name it agree everywhere (see ShardRouter)
+    public void importUser(User user) {
+        long startNanos = System.nanoTime();
+        try {
+            if (user == null) throw new IllegalArgumentException("User must not be null.");
+            User existing = usersByEmail.get(user.getEmail());
+            if (existing == null) {
+                User copy = adopt(user);
+                existing = usersByEmail.putIfAbsent(copy.getEmail(), copy);
+                if (existing == null) {
+                    log(j -> j.appendUser(copy));
+                    return;
                 }
-                return a.getAddress().compareToIgnoreCase(b.getAddress());
+                if (!existing.getId().equals(user.getId())) ids.release(copy.getRef());
             }
-        });
-
-        return props;
+            if (!existing.getId().equals(user.getId())) throw new IllegalArgumentException("Email already registered.");
+        } finally {
+            timer(Op.IMPORT_USER).recordSince(startNanos);
+        }
     }
 
+    // Area key of the property, room or request with this id, or null if it is not held here
+    public String locate(UUID id) {
+        long startNanos = System.nanoTime();
+        try {
+            Property p = live(propertiesById, id);
+            if (p == null) {
+                Room r = live(roomsById, id);
+                if (r == null) {
+                    BookingRequest req = live(requestsById, id);
+                    r = req != null ? roomsById.get(req.getRoomRef()) : null;
+                }
+                p = r != null ? propertiesById.get(r.getPropertyRef()) : null;
+            }
+            return p != null ? areaKey(p.getArea()) : null;
+        } finally {
+            timer(Op.LOCATE).recordSince(startNanos);
+        }
+    }
 
-    public void adminDeactivateUser(String adminEmail, String userEmail) {
-        requireAdmin(adminEmail);
-        requireNonBlank(userEmail, "User email");
+    // Area keys of the properties held here
+    public Set<String> areas() {
+        Set<String> areas = new TreeSet<>();
+        for (Property p : propertiesById.values()) areas.add(areaKey(p.getArea()));
+        return areas;
+    }
 
-        User u = usersByEmail.get(userEmail.toLowerCase(Locale.ROOT));
-        if (u == null) throw new IllegalArgumentException("User not found.");
-        u.deactivate();
+    // Detached copy of an area's properties, rooms, bookings and requests (built
+    // from their ids, so nothing refers to this system's refs), each room read
+    // under its lock. Changes made meanwhile are not held back, so the
+    // caller stops writes to the area first (ShardRouter.rebalance does).
+    public AreaData exportArea(String area) {
+        long startNanos = System.nanoTime();
+        try {
+            requireNonBlank(area, "Area");
+            String key = areaKey(area);
+            List<Property> properties = new ArrayList<>();
+            List<Room> rooms = new ArrayList<>();
+            List<Booking> bookings = new ArrayList<>();
+            List<BookingRequest> requests = new ArrayList<>();
+
+            for (Property p : propertiesById.values()) {
+                if (!areaKey(p.getArea()).equals(key)) continue;
+                properties.add(new Property(p.getId(), p.getOwnerId(), p.getAddress(), p.getArea(), p.getDescription()));
+                for (int roomRef : p.getRoomRefs()) {
+                    Lock lock = roomLocks.forKey(roomRef).readLock();
+                    lock.lock();
+                    try {
+                        Room r = roomsById.get(roomRef);
+                        if (r == null) continue;
+                        rooms.add(new Room(r.getId(), r.getPropertyId(), r.getOwnerId(), r.getType(), r.getPricePerMonth(),
+                                r.getAmenities(), r.getAvailableFrom(), r.getAvailableTo()));
+                        for (Booking b : r.getConfirmedBookings()) {
+                            bookings.add(new Booking(b.getId(), b.getStudentId(), b.getRoomId(), b.getStartDate(),
+                                    b.getEndDate(), b.getConfirmedAt()));
+                        }
+                        NavigableSet<BookingRequest> roomRequests = requestsByRoom.get(roomRef);
+                        if (roomRequests == null) continue;
+                        for (BookingRequest q : roomRequests) {
+                            requests.add(new BookingRequest(q.getId(), q.getStudentId(), q.getRoomId(), q.getStartDate(),
+                                    q.getEndDate(), q.getStatus(), q.getCreatedAt(), q.getReason()));
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+            return new AreaData(key, properties, rooms, bookings, requests);
+        } finally {
+            timer(Op.EXPORT_AREA).recordSince(startNanos);
+        }
     }
 
-    public void adminRemoveListing(String adminEmail, UUID roomId) {
-        requireAdmin(adminEmail);
+    // Takes in an area exported elsewhere. Records are applied the way a journal
+    // replay would (so importing twice is harmless) and logged here.
+    public void importArea(AreaData data) {
+        long startNanos = System.nanoTime();
+        try {
+            if (data == null) throw new IllegalArgumentException("Area data must not be null.");
+            Replayer apply = new Replayer();
+            for (Property p : data.getProperties()) {
+                apply.onProperty(p);
+                log(j -> j.appendProperty(p));
+            }
 
-        Room r = roomsById.get(roomId);
-        if (r == null) throw new IllegalArgumentException("Room not found.");
+            // grouped by id: the records' refs are their own, not this system's
+            Map<UUID, List<Booking>> bookingsByRoom = new HashMap<>();
+            for (Booking b : data.getBookings()) {
+                bookingsByRoom.computeIfAbsent(b.getRoomId(), k -> new ArrayList<>()).add(b);
+            }
+            Map<UUID, List<BookingRequest>> requestsOfRoom = new HashMap<>();
+            for (BookingRequest req : data.getRequests()) {
+                requestsOfRoom.computeIfAbsent(req.getRoomId(), k -> new ArrayList<>()).add(req);
+            }
+
+            for (Room r : data.getRooms()) {
+                // the room's ref here, assigned up front so its lock can be taken before it is added
+                int roomRef = ids.of(r.getId());
+                Lock lock = roomLocks.forKey(roomRef).writeLock();
+                lock.lock();
+                try {
+                    if (apply.applyRoom(r) == null) {
+                        // its property is not here: nothing took the ref
+                        if (roomsById.get(roomRef) == null) ids.release(roomRef);
+                        continue;
+                    }
+                    log(j -> j.appendRoom(r));
+                    for (Booking b : bookingsByRoom.getOrDefault(r.getId(), List.of())) {
+                        apply.onBooking(b);
+                        log(j -> j.appendBooking(b));
+                    }
+                    for (BookingRequest req : requestsOfRoom.getOrDefault(r.getId(), List.of())) {
+                        apply.onRequest(req);
+                        log(j -> j.appendRequest(req));
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            timer(Op.IMPORT_AREA).recordSince(startNanos);
+        }
+    }
+
+    // Removes an area's properties with their rooms, bookings and requests (after
+    // it was imported elsewhere). Returns how many properties were removed.
+    public int dropArea(String area) {
+        long startNanos = System.nanoTime();
+        try {
+            requireNonBlank(area, "Area");
+            String key = areaKey(area);
+            int dropped = 0;
+            for (Property p : propertiesById.values()) {
+                if (!areaKey(p.getArea()).equals(key)) continue;
+                if (!removeProperty(p)) continue;
+                log(j -> j.appendPropertyRemoved(p.getId()));
+                dropped++;
+            }
+            return dropped;
+        } finally {
+            timer(Op.DROP_AREA).recordSince(startNanos);
+        }
+    }
 
-        // Prototype rule: allow admin removal even if bookings exist (admin override)
-        internalRemoveRoom(roomId);
+    // false if the property was already gone
+    private boolean removeProperty(Property p) {
+        for (int roomRef : p.getRoomRefs()) {
+            Lock lock = roomLocks.forKey(roomRef).writeLock();
+            lock.lock();
+            try {
+                Room r = roomsById.get(roomRef);
+                // a room removed meanwhile may have left its ref to a room of another property
+                if (r != null && r.getPropertyRef() == p.getRef()) internalRemoveRoom(r);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (!propertiesById.remove(p.getRef(), p)) return false;
+        // p.getId() stays readable for the caller's journal record
+        release(p);
+        return true;
     }
 
-    private void internalRemoveRoom(UUID roomId) {
-        Room r = roomsById.remove(roomId);
-        if (r == null) return;
+    // caller must hold the room's write lock
+    private void internalRemoveRoom(Room r) {
+        int roomRef = r.getRef();
+        if (!roomsById.remove(roomRef, r)) return;
 
-        Property p = propertiesById.get(r.getPropertyId());
+        Property p = propertiesById.get(r.getPropertyRef());
         if (p != null) {
-            p.getRoomIds().remove(roomId);
-            // update area index using property area
-            String areaKey = p.getArea().toLowerCase(Locale.ROOT);
-            roomsByArea.getOrDefault(areaKey, new ArrayList<>()).remove(roomId);
+            p.removeRoomRef(roomRef);
+            // update area/type postings using property area
+            roomIndex.remove(r, areaKey(p.getArea()));
+            searchCache.invalidate(areaKey(p.getArea()), r.getType(), r.getPricePerMonth(), null, null);
+        } else {
+            searchCache.clear();
         }
 
-        roomsByType.getOrDefault(r.getType(), new ArrayList<>()).remove(roomId);
+        roomsByPrice.remove(r.getPricePerMonth(), roomRef);
+        List<Booking> bookings = r.getConfirmedBookings();
+        for (Booking b : bookings) {
+            bookingsById.remove(b.getRef(), b);
+        }
 
-        // Remove pending requests for this room
-        requestsById.values().removeIf(req -> req.getRoomId().equals(roomId));
+        // Remove requests for this room
+        NavigableSet<BookingRequest> roomRequests = requestsByRoom.remove(roomRef);
+        List<BookingRequest> requests = new ArrayList<>();
+        if (roomRequests != null) {
+            NavigableSet<BookingRequest> inbox = requestsByOwner.get(r.getOwnerRef());
+            for (BookingRequest req : roomRequests) {
+                if (requestsById.remove(req.getRef(), req)) requests.add(req);
+                if (inbox != null) inbox.remove(req);
+            }
+        }
+        // logged only once fully applied, so a snapshot taken after the journal
+        // rotation that covers this record can never still contain the room
+        log(j -> j.appendRoomRemoved(r.getId()));
+
+        for (Booking b : bookings) release(b);
+        for (BookingRequest req : requests) release(req);
+        release(r);
+    }
+
+    // the room's sort key if it matches, else null; both read under the room's lock
+    private RoomSortKey searchMatchKeyLocked(Room r, SearchCriteria c) {
+        Lock lock = roomLocks.forKey(r.getRef()).readLock();
+        lock.lock();
+        try {
+            return isRoomSearchMatch(r, c) ? RoomSortKey.of(r) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<Room> roomsOf(List<RoomSortKey> keys) {
+        List<Room> rooms = new ArrayList<>(keys.size());
+        for (RoomSortKey k : keys) rooms.add(k.getRoom());
+        return rooms;
+    }
+
+    private static int[] refsOf(List<Room> rooms) {
+        int[] refs = new int[rooms.size()];
+        for (int i = 0; i < refs.length; i++) refs[i] = rooms.get(i).getRef();
+        return refs;
     }
 
     private boolean isRoomSearchMatch(Room r, SearchCriteria c) {
+        return matchesFilters(r, c) && r.isFreeFor(c.getStartDate(), c.getEndDate());
+    }
+
+    // area, type and price filters only
+    private boolean matchesFilters(Room r, SearchCriteria c) {
         // Area filter: already indexed if provided, but still safe if not
         if (c.getArea() != null) {
-            Property p = propertiesById.get(r.getPropertyId());
+            Property p = propertiesById.get(r.getPropertyRef());
             if (p == null) return false;
             if (!p.getArea().equalsIgnoreCase(c.getArea().trim())) return false;
         }
         if (c.getRoomType() != null && r.getType() != c.getRoomType()) return false;
         if (c.getMinPrice() != null && r.getPricePerMonth() < c.getMinPrice()) return false;
         if (c.getMaxPrice() != null && r.getPricePerMonth() > c.getMaxPrice()) return false;
-
-        if (!r.isWithinWindow(c.getStartDate(), c.getEndDate())) return false;
-        return r.isAvailable(c.getStartDate(), c.getEndDate());
+        return true;
     }
 
     private Student requireActiveStudent(String email) {
@@ -492,6 +1671,175 @@ public final class StudentRentalsSystem {
         return u;
     }
 
+    private void log(Consumer<Journal> entry) {
+        Journal j = journal;
+        if (j != null) entry.accept(j);
+    }
+
+    // A copy of a user from elsewhere (decoded, or another system's), with a ref here
+    private User adopt(User user) {
+        int ref = ids.of(user.getId());
+        if (user instanceof Student s) {
+            return new Student(ids, ref, s.getName(), s.getEmail(), s.getPhone(), s.getPasswordHash(), s.isActive(),
+                    s.getUniversityName(), s.getStudentId());
+        }
+        if (user instanceof Homeowner) {
+            return new Homeowner(ids, ref, user.getName(), user.getEmail(), user.getPhone(), user.getPasswordHash(),
+                    user.isActive());
+        }
+        return new Administrator(ids, ref, user.getName(), user.getEmail(), user.getPhone(), user.getPasswordHash(),
+                user.isActive());
+    }
+
+    // Applies journal records on top of the current state. Records hold absolute
+    // values, so re-applying one that is already reflected is a no-op. Records
+    // arrive detached (or from another system), so entities are matched by id and
+    // added as copies with refs here; ids are assigned only for what is kept.
+    private class Replayer implements JournalHandler {
+        @Override
+        public void onUser(User user) {
+            User existing = usersByEmail.get(user.getEmail());
+            if (existing == null) existing = usersByEmail.putIfAbsent(user.getEmail(), adopt(user));
+            if (existing != null && !user.isActive()) existing.deactivate();
+        }
+
+        @Override
+        public void onUserDeactivated(String email) {
+            User u = usersByEmail.get(email);
+            if (u != null) u.deactivate();
+        }
+
+        @Override
+        public void onProperty(Property property) {
+            if (live(propertiesById, property.getId()) != null) return;
+            Property p = new Property(ids, ids.of(property.getId()), ids.of(property.getOwnerId()),
+                    property.getAddress(), property.getArea(), property.getDescription());
+            propertiesById.putIfAbsent(p.getRef(), p);
+        }
+
+        @Override
+        public void onPropertyRemoved(UUID propertyId) {
+            Property p = live(propertiesById, propertyId);
+            if (p != null) removeProperty(p);
+        }
+
+        @Override
+        public void onRoom(Room room) {
+            applyRoom(room);
+        }
+
+        // the room as held here afterwards, or null if its property is not here
+        Room applyRoom(Room room) {
+            Room existing = live(roomsById, room.getId());
+            if (existing == null) {
+                Property p = live(propertiesById, room.getPropertyId());
+                if (p == null) return null;
+                Room r = new Room(ids, ids.of(room.getId()), p.getRef(), ids.of(room.getOwnerId()), room.getType(),
+                        room.getPricePerMonth(), room.getAmenities(), room.getAvailableFrom(), room.getAvailableTo());
+                putRoom(r, p);
+                return r;
+            }
+            applyRoomChanges(existing, room.getType(), room.getPricePerMonth(), room.getAmenities(),
+                    room.getAvailableFrom(), room.getAvailableTo());
+            return existing;
+        }
+
+        @Override
+        public void onRoomRemoved(UUID roomId) {
+            Room r = live(roomsById, roomId);
+            if (r != null) internalRemoveRoom(r);
+        }
+
+        @Override
+        public void onRequest(BookingRequest request) {
+            BookingRequest existing = live(requestsById, request.getId());
+            if (existing == null) {
+                // expired requests are not kept in memory
+                Room room = live(roomsById, request.getRoomId());
+                if (room != null && request.getStatus() != RequestStatus.EXPIRED) {
+                    putRequest(new BookingRequest(ids, ids.of(request.getId()), ids.of(request.getStudentId()),
+                            room.getRef(), request.getStartDate(), request.getEndDate(), request.getStatus(),
+                            request.getCreatedAt(), request.getReason()), room);
+                }
+                return;
+            }
+            if (request.getStatus() == RequestStatus.PENDING) return;
+            Room room = roomsById.get(existing.getRoomRef());
+            if (room != null) room.removePendingRequest(existing);
+            switch (request.getStatus()) {
+                case ACCEPTED -> existing.markAccepted();
+                case REJECTED -> existing.markRejected(request.getReason());
+                case EXPIRED -> {
+                    existing.markExpired(request.getReason());
+                    dropRequest(existing);
+                }
+                default -> { }
+            }
+        }
+
+        @Override
+        public void onBooking(Booking booking) {
+            Room room = live(roomsById, booking.getRoomId());
+            if (room == null || live(bookingsById, booking.getId()) != null) return;
+            Booking b = new Booking(ids, ids.of(booking.getId()), ids.of(booking.getStudentId()), room.getRef(),
+                    booking.getStartDate(), booking.getEndDate(), booking.getConfirmedAt());
+            if (bookingsById.putIfAbsent(b.getRef(), b) == null) {
+                room.addConfirmedBooking(b);
+                invalidateSearches(room, room.getType(), room.getPricePerMonth(), b.getStartDate(), b.getEndDate());
+            }
+        }
+
+        @Override
+        public void onBookingArchived(UUID bookingId, UUID roomId) {
+            Booking booking = live(bookingsById, bookingId);
+            if (booking == null || !bookingsById.remove(booking.getRef(), booking)) return;
+            Room room = roomsById.get(booking.getRoomRef());
+            if (room != null) room.removeConfirmedBooking(booking);
+            release(booking);
+        }
+    }
+
+    // Loads a snapshot into an empty system. Rooms arrive with their ordinals and
+    // the area postings are installed as stored rather than rebuilt room by room.
+    private final class SnapshotLoader extends Replayer implements SnapshotHandler {
+        private int nextOrdinal;
+        private int[] freeOrdinals;
+        private Map<String, RoomBitmap> areaPostings;
+        private Room[] table;
+        private final Map<Property, List<Room>> roomsByProperty = new HashMap<>();
+
+        @Override
+        public void onRoomIndex(int nextOrdinal, int[] freeOrdinals, Map<String, RoomBitmap> areaPostings) {
+            this.nextOrdinal = nextOrdinal;
+            this.freeOrdinals = freeOrdinals;
+            this.areaPostings = areaPostings;
+            this.table = new Room[nextOrdinal];
+        }
+
+        @Override
+        public void onIndexedRoom(int ordinal, Room room) {
+            Room r = new Room(ids, ids.of(room.getId()), ids.of(room.getPropertyId()), ids.of(room.getOwnerId()),
+                    room.getType(), room.getPricePerMonth(), room.getAmenities(), room.getAvailableFrom(),
+                    room.getAvailableTo());
+            roomsById.put(r.getRef(), r);
+            roomsByPrice.add(r.getPricePerMonth(), r.getRef());
+            Property p = propertiesById.get(r.getPropertyRef());
+            if (p != null) roomsByProperty.computeIfAbsent(p, k -> new ArrayList<>()).add(r);
+            table[ordinal] = r;
+        }
+
+        @Override
+        public void onSnapshotLoaded() {
+            // one bulk add per property instead of a copy-on-write copy per room
+            roomsByProperty.forEach((p, rooms) -> p.addRoomRefs(refsOf(rooms)));
+            roomIndex.restore(table, nextOrdinal, freeOrdinals, areaPostings);
+        }
+    }
+
+    private static String areaKey(String area) {
+        return area.trim().toLowerCase(Locale.ROOT);
+    }
+
     private static void requireNonBlank(String value, String fieldName) {
         if (value == null || value.trim().isEmpty()) {
             throw new IllegalArgumentException(fieldName + " must not be blank.");
@@ -509,14 +1857,19 @@ public final class StudentRentalsSystem {
         String adminEmail = "admin@studentrentals.com";
         if (!usersByEmail.containsKey(adminEmail)) {
             Administrator admin = new Administrator(
-                    UUID.randomUUID(),
+                    ids,
+                    ids.newRef(),
                     "Admin",
                     adminEmail,
                     "00000000000",
                     PasswordHasher.hashPassword("admin123"),
                     true
             );
-            usersByEmail.put(adminEmail, admin);
+            if (usersByEmail.putIfAbsent(adminEmail, admin) == null) {
+                log(j -> j.appendUser(admin));
+            } else {
+                ids.release(admin.getRef());
+            }
         }
 
         // Seed a homeowner + property + rooms
@@ -0,0 +1,516 @@
+package studentrentals.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import studentrentals.StudentRentalsSystem;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.RequestStatus;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchPage;
+import studentrentals.search.SortByAvailableFromThenPrice;
+import studentrentals.search.SortByPriceAsc;
+import studentrentals.search.SortByPriceDesc;
+import studentrentals.search.SortByPriceThenAvailableFrom;
+import studentrentals.util.Json;
+import studentrentals.util.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+// Routes and JSON mapping for ApiServer. Request bodies are flat JSON objects;
+// list responses are written room by room (booking by booking, ...) as they
+// are produced. Errors come back as {"error": "..."}:
+//   400 bad input (IllegalArgumentException), 409 wrong state (IllegalStateException),
+//   404 unknown path, 405 wrong method, 413 body too large, 503 too busy
+//
+//   POST   /students                    name, email, phone, password, university, studentId
+//   POST   /homeowners                  name, email, phone, password
+//   POST   /properties                  ownerEmail, address, area, description
+//   GET    /properties/{id}
+//   POST   /rooms                       ownerEmail, propertyId, type, price, amenities, availableFrom, availableTo
+//   GET    /rooms?start=&end=[&area=&type=&minPrice=&maxPrice=&sort=&pageSize=&cursor=]
+//   GET    /rooms/{id}
+//   PATCH  /rooms/{id}                  ownerEmail, then any of type, price, amenities, availableFrom, availableTo
+//   DELETE /rooms/{id}?ownerEmail=
+//   GET    /rooms/{id}/bookings
+//   POST   /requests                    studentEmail, roomId, start, end
+//   GET    /requests?ownerEmail=[&status=&offset=&limit=]
+//   POST   /requests/{id}/decision      ownerEmail, accept
+//   GET    /admin/users?adminEmail=
+//   GET    /admin/listings?adminEmail=
+//   POST   /admin/deactivations         adminEmail, userEmail
+//   DELETE /admin/rooms/{id}?adminEmail=
+final class ApiHandler implements HttpHandler {
+
+    private static final int DEFAULT_REQUEST_PAGE = 50;
+
+    private final StudentRentalsSystem system;
+    private final Semaphore permits;
+    private final int maxBodyBytes;
+
+    ApiHandler(StudentRentalsSystem system, Semaphore permits, int maxBodyBytes) {
+        this.system = system;
+        this.permits = permits;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    // an error that maps straight to a status code
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!permits.tryAcquire()) {
+                ex.getResponseHeaders().set("Retry-After", "1");
+                sendError(ex, 503, "Server busy.");
+                return;
+            }
+            try {
+                route(ex);
+            } catch (HttpError e) {
+                sendError(ex, e.status, e.getMessage());
+            } catch (IllegalArgumentException | DateTimeException e) {
+                sendError(ex, 400, e.getMessage());
+            } catch (IllegalStateException e) {
+                sendError(ex, 409, e.getMessage());
+            } catch (UncheckedIOException e) {
+                // the client went away mid-response; nothing left to tell it
+            } catch (RuntimeException e) {
+                System.err.println("API " + ex.getRequestMethod() + " " + ex.getRequestURI() + " failed: " + e);
+                sendError(ex, 500, "Internal error.");
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void route(HttpExchange ex) throws IOException {
+        String method = ex.getRequestMethod();
+        String[] path = segments(ex.getRequestURI().getRawPath());
+        Map<String, String> query = query(ex.getRequestURI().getRawQuery());
+
+        switch (path.length > 0 ? path[0] : "") {
+            case "students" -> {
+                only(path, 1);
+                expect(method, "POST");
+                Map<String, String> b = body(ex);
+                User u = system.registerStudent(b.get("name"), b.get("email"), b.get("phone"), b.get("password"),
+                        b.get("university"), b.get("studentId"));
+                send(ex, 201, j -> writeUser(j, u));
+            }
+            case "homeowners" -> {
+                only(path, 1);
+                expect(method, "POST");
+                Map<String, String> b = body(ex);
+                User u = system.registerHomeowner(b.get("name"), b.get("email"), b.get("phone"), b.get("password"));
+                send(ex, 201, j -> writeUser(j, u));
+            }
+            case "properties" -> {
+                if (path.length == 1) {
+                    expect(method, "POST");
+                    Map<String, String> b = body(ex);
+                    Property p = system.createProperty(b.get("ownerEmail"), b.get("address"), b.get("area"),
+                            b.get("description"));
+                    send(ex, 201, j -> writeProperty(j, p));
+                } else {
+                    only(path, 2);
+                    expect(method, "GET");
+                    Property p = system.getPropertyById(uuid(path[1], "property id"));
+                    send(ex, 200, j -> writeProperty(j, p));
+                }
+            }
+            case "rooms" -> rooms(ex, method, path, query);
+            case "requests" -> requests(ex, method, path, query);
+            case "admin" -> admin(ex, method, path, query);
+            default -> throw new HttpError(404, "No such resource.");
+        }
+    }
+
+    private void rooms(HttpExchange ex, String method, String[] path, Map<String, String> query) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                searchRooms(ex, query);
+                return;
+            }
+            expect(method, "POST");
+            Map<String, String> b = body(ex);
+            Room r = system.addRoom(b.get("ownerEmail"), uuid(b.get("propertyId"), "propertyId"),
+                    roomType(b.get("type")), integer(b.get("price"), "price"), b.get("amenities"),
+                    date(b.get("availableFrom"), "availableFrom"), date(b.get("availableTo"), "availableTo"));
+            send(ex, 201, j -> writeRoom(j, r));
+            return;
+        }
+
+        UUID roomId = uuid(path[1], "room id");
+        if (path.length == 3 && path[2].equals("bookings")) {
+            expect(method, "GET");
+            // straight from the archive file to the socket
+            send(ex, 200, j -> {
+                j.beginObject().name("bookings").beginArray();
+                system.streamBookingHistory(roomId, b -> writeBooking(j, b));
+                j.endArray().endObject();
+            });
+            return;
+        }
+        only(path, 2);
+        switch (method) {
+            case "GET" -> {
+                Room r = system.getRoomDetails(roomId);
+                send(ex, 200, j -> writeRoom(j, r));
+            }
+            case "PATCH" -> {
+                Map<String, String> b = body(ex);
+                system.updateRoom(b.get("ownerEmail"), roomId,
+                        b.get("type") != null ? roomType(b.get("type")) : null,
+                        b.get("price") != null ? integer(b.get("price"), "price") : null,
+                        b.get("amenities"), date(b.get("availableFrom"), "availableFrom"),
+                        date(b.get("availableTo"), "availableTo"));
+                Room r = system.getRoomDetails(roomId);
+                send(ex, 200, j -> writeRoom(j, r));
+            }
+            case "DELETE" -> {
+                system.removeRoom(query.get("ownerEmail"), roomId);
+                sendEmpty(ex);
+            }
+            default -> throw new HttpError(405, "Method not allowed.");
+        }
+    }
+
+    private void searchRooms(HttpExchange ex, Map<String, String> query) throws IOException {
+        SearchCriteria c = new SearchCriteria();
+        c.setArea(query.get("area"));
+        c.setRoomType(query.get("type") != null ? roomType(query.get("type")) : null);
+        c.setMinPrice(query.get("minPrice") != null ? integer(query.get("minPrice"), "minPrice") : null);
+        c.setMaxPrice(query.get("maxPrice") != null ? integer(query.get("maxPrice"), "maxPrice") : null);
+        c.setStartDate(date(query.get("start"), "start"));
+        c.setEndDate(date(query.get("end"), "end"));
+        RoomSortStrategy sort = sort(query.get("sort"));
+
+        if (query.get("pageSize") != null) {
+            SearchPage page = system.searchRoomsPage(c, sort, integer(query.get("pageSize"), "pageSize"),
+                    query.get("cursor"));
+            send(ex, 200, j -> {
+                writeRooms(j, page.getRooms());
+                j.field("nextCursor", page.getNextCursor()).endObject();
+            });
+        } else {
+            List<Room> rooms = system.searchRooms(c, sort);
+            send(ex, 200, j -> writeRooms(j, rooms).endObject());
+        }
+    }
+
+    private void requests(HttpExchange ex, String method, String[] path, Map<String, String> query) throws IOException {
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                String status = query.get("status");
+                List<BookingRequest> reqs = system.listRequestsForOwner(query.get("ownerEmail"),
+                        status != null ? requestStatus(status) : null,
+                        query.get("offset") != null ? integer(query.get("offset"), "offset") : 0,
+                        query.get("limit") != null ? integer(query.get("limit"), "limit") : DEFAULT_REQUEST_PAGE);
+                send(ex, 200, j -> {
+                    j.beginObject().name("requests").beginArray();
+                    for (BookingRequest r : reqs) writeRequest(j, r);
+                    j.endArray().endObject();
+                });
+                return;
+            }
+            expect(method, "POST");
+            Map<String, String> b = body(ex);
+            BookingRequest req = system.requestBooking(b.get("studentEmail"), uuid(b.get("roomId"), "roomId"),
+                    date(b.get("start"), "start"), date(b.get("end"), "end"));
+            send(ex, 201, j -> writeRequest(j, req));
+            return;
+        }
+
+        if (path.length != 3 || !path[2].equals("decision")) throw new HttpError(404, "No such resource.");
+        expect(method, "POST");
+        UUID requestId = uuid(path[1], "request id");
+        Map<String, String> b = body(ex);
+        String accept = b.get("accept");
+        if (!"true".equals(accept) && !"false".equals(accept)) {
+            throw new IllegalArgumentException("accept must be true or false.");
+        }
+        Booking booking = system.decideRequest(b.get("ownerEmail"), requestId, accept.equals("true"));
+        send(ex, 200, j -> {
+            j.beginObject().name("booking");
+            if (booking != null) writeBooking(j, booking);
+            else j.value((String) null);
+            j.endObject();
+        });
+    }
+
+    private void admin(HttpExchange ex, String method, String[] path, Map<String, String> query) throws IOException {
+        String what = path.length > 1 ? path[1] : "";
+        switch (what) {
+            case "users" -> {
+                only(path, 2);
+                expect(method, "GET");
+                List<User> users = system.adminViewUsers(query.get("adminEmail"));
+                send(ex, 200, j -> {
+                    j.beginObject().name("users").beginArray();
+                    for (User u : users) writeUser(j, u);
+                    j.endArray().endObject();
+                });
+            }
+            case "listings" -> {
+                only(path, 2);
+                expect(method, "GET");
+                List<Property> props = system.adminViewListings(query.get("adminEmail"));
+                send(ex, 200, j -> {
+                    j.beginObject().name("properties").beginArray();
+                    for (Property p : props) writeProperty(j, p);
+                    j.endArray().endObject();
+                });
+            }
+            case "deactivations" -> {
+                only(path, 2);
+                expect(method, "POST");
+                Map<String, String> b = body(ex);
+                system.adminDeactivateUser(b.get("adminEmail"), b.get("userEmail"));
+                sendEmpty(ex);
+            }
+            case "rooms" -> {
+                only(path, 3);
+                expect(method, "DELETE");
+                system.adminRemoveListing(query.get("adminEmail"), uuid(path[2], "room id"));
+                sendEmpty(ex);
+            }
+            default -> throw new HttpError(404, "No such resource.");
+        }
+    }
+
+    // ---- JSON mapping ----
+
+    private static void writeUser(JsonWriter j, User u) {
+        j.beginObject()
+                .field("id", u.getId())
+                .field("role", u.getClass().getSimpleName().toLowerCase(Locale.ROOT))
+                .field("name", u.getName())
+                .field("email", u.getEmail())
+                .field("phone", u.getPhone())
+                .field("active", u.isActive());
+        if (u instanceof Student s) {
+            j.field("university", s.getUniversityName()).field("studentId", s.getStudentId());
+        }
+        j.endObject();
+    }
+
+    private static void writeProperty(JsonWriter j, Property p) {
+        j.beginObject()
+                .field("id", p.getId())
+                .field("ownerId", p.getOwnerId())
+                .field("address", p.getAddress())
+                .field("area", p.getArea())
+                .field("description", p.getDescription())
+                .name("roomIds").beginArray();
+        for (UUID id : p.getRoomIds()) j.value(id);
+        j.endArray().endObject();
+    }
+
+    private static JsonWriter writeRooms(JsonWriter j, List<Room> rooms) {
+        j.beginObject().name("rooms").beginArray();
+        for (Room r : rooms) writeRoom(j, r);
+        return j.endArray();
+    }
+
+    private static void writeRoom(JsonWriter j, Room r) {
+        j.beginObject()
+                .field("id", r.getId())
+                .field("propertyId", r.getPropertyId())
+                .field("ownerId", r.getOwnerId())
+                .field("type", r.getType())
+                .field("price", r.getPricePerMonth())
+                .field("amenities", r.getAmenities())
+                .field("availableFrom", r.getAvailableFrom())
+                .field("availableTo", r.getAvailableTo())
+                .endObject();
+    }
+
+    private static void writeRequest(JsonWriter j, BookingRequest r) {
+        j.beginObject()
+                .field("id", r.getId())
+                .field("studentId", r.getStudentId())
+                .field("roomId", r.getRoomId())
+                .field("start", r.getStartDate())
+                .field("end", r.getEndDate())
+                .field("status", r.getStatus())
+                .field("createdAt", r.getCreatedAt())
+                .field("reason", r.getReason())
+                .endObject();
+    }
+
+    private static void writeBooking(JsonWriter j, Booking b) {
+        j.beginObject()
+                .field("id", b.getId())
+                .field("studentId", b.getStudentId())
+                .field("roomId", b.getRoomId())
+                .field("start", b.getStartDate())
+                .field("end", b.getEndDate())
+                .field("confirmedAt", b.getConfirmedAt())
+                .endObject();
+    }
+
+    // ---- request parsing ----
+
+    private static String[] segments(String rawPath) {
+        String p = rawPath.startsWith("/") ? rawPath.substring(1) : rawPath;
+        if (p.endsWith("/")) p = p.substring(0, p.length() - 1);
+        if (p.isEmpty()) return new String[0];
+        String[] parts = p.split("/");
+        for (int i = 0; i < parts.length; i++) parts[i] = URLDecoder.decode(parts[i], StandardCharsets.UTF_8);
+        return parts;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!value.isEmpty()) params.putIfAbsent(key, value);
+        }
+        return params;
+    }
+
+    private Map<String, String> body(HttpExchange ex) throws IOException {
+        String length = ex.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            try {
+                if (Long.parseLong(length.trim()) > maxBodyBytes) throw new HttpError(413, "Request body too large.");
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad Content-Length.");
+            }
+        }
+        // chunked bodies carry no length: stop reading one byte past the limit
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        InputStream in = ex.getRequestBody();
+        byte[] buf = new byte[4096];
+        int n;
+        while ((n = in.read(buf, 0, Math.min(buf.length, maxBodyBytes + 1 - bytes.size()))) > 0) {
+            bytes.write(buf, 0, n);
+            if (bytes.size() > maxBodyBytes) throw new HttpError(413, "Request body too large.");
+        }
+        if (bytes.size() == 0) throw new IllegalArgumentException("A JSON body is required.");
+        return Json.parseFlatObject(bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void only(String[] path, int length) {
+        if (path.length != length) throw new HttpError(404, "No such resource.");
+    }
+
+    private static void expect(String method, String allowed) {
+        if (!method.equals(allowed)) throw new HttpError(405, "Method not allowed.");
+    }
+
+    private static UUID uuid(String value, String field) {
+        if (value == null) throw new IllegalArgumentException(field + " is required.");
+        try {
+            return UUID.fromString(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + field + ".");
+        }
+    }
+
+    private static int integer(String value, String field) {
+        if (value == null) throw new IllegalArgumentException(field + " is required.");
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number.");
+        }
+    }
+
+    // null stays null: the system reports missing dates itself
+    private static LocalDate date(String value, String field) {
+        if (value == null) return null;
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException(field + " must be a date (YYYY-MM-DD).");
+        }
+    }
+
+    private static RoomType roomType(String value) {
+        if (value == null) throw new IllegalArgumentException("type is required.");
+        try {
+            return RoomType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("type must be SINGLE or DOUBLE.");
+        }
+    }
+
+    private static RequestStatus requestStatus(String value) {
+        try {
+            return RequestStatus.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status " + value + ".");
+        }
+    }
+
+    // same choices as the menu's sort prompt
+    private static RoomSortStrategy sort(String value) {
+        if (value == null) return new SortByPriceAsc();
+        return switch (value) {
+            case "priceAsc" -> new SortByPriceAsc();
+            case "priceDesc" -> new SortByPriceDesc();
+            case "priceThenAvailableFrom" -> new SortByPriceThenAvailableFrom();
+            case "availableFromThenPrice" -> new SortByAvailableFromThenPrice();
+            default -> throw new IllegalArgumentException("sort must be priceAsc, priceDesc, "
+                    + "priceThenAvailableFrom or availableFromThenPrice.");
+        };
+    }
+
+    // ---- responses ----
+
+    private static void send(HttpExchange ex, int status, Consumer<JsonWriter> body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        // length 0: chunked, so nothing has to be buffered up front
+        ex.sendResponseHeaders(status, 0);
+        Writer w = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8));
+        JsonWriter j = new JsonWriter(w);
+        body.accept(j);
+        j.flush();
+    }
+
+    private static void sendEmpty(HttpExchange ex) throws IOException {
+        ex.sendResponseHeaders(204, -1);
+    }
+
+    private static void sendError(HttpExchange ex, int status, String message) throws IOException {
+        if (ex.getResponseCode() != -1) return; // headers already out: the client sees a cut-off body
+        send(ex, status, j -> j.beginObject().field("error", message != null ? message : "").endObject());
+    }
+}
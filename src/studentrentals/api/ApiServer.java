@@ -0,0 +1,145 @@
+package studentrentals.api;
+
+import com.sun.net.httpserver.HttpServer;
+import studentrentals.StudentRentalsSystem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// HTTP/JSON front end on the JDK's built-in server, an alternative to the
+// Scanner menu in Main. Like the menu it has no login: callers name the acting
+// user by email, so it only listens on the loopback interface.
+// Configure, then start():
+//   new ApiServer(system).port(8080).maxConcurrentRequests(256).start()
+public final class ApiServer implements AutoCloseable {
+
+    private static final int STOP_DELAY_SECONDS = 2;
+
+    private final StudentRentalsSystem system;
+    private int port = 8080;
+    private int backlog = 128;
+    private int maxConnections = 1_000;
+    private int maxConcurrentRequests = 256;
+    private int maxBodyBytes = 64 * 1024;
+    private long requestTimeoutSeconds = 30;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private boolean virtualThreads;
+
+    public ApiServer(StudentRentalsSystem system) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        this.system = system;
+    }
+
+    // 0 picks a free port (see getPort)
+    public ApiServer port(int port) {
+        if (port < 0 || port > 65535) throw new IllegalArgumentException("Invalid port " + port + ".");
+        this.port = port;
+        return this;
+    }
+
+    // connections waiting to be accepted
+    public ApiServer backlog(int backlog) {
+        if (backlog <= 0) throw new IllegalArgumentException("Backlog must be > 0.");
+        this.backlog = backlog;
+        return this;
+    }
+
+    // open connections; more are closed as soon as they are accepted
+    public ApiServer maxConnections(int maxConnections) {
+        if (maxConnections <= 0) throw new IllegalArgumentException("Max connections must be > 0.");
+        this.maxConnections = maxConnections;
+        return this;
+    }
+
+    // requests being handled at once; more are answered 503 straight away (on
+    // JDKs without virtual threads they wait for one of this many workers instead)
+    public ApiServer maxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests <= 0) throw new IllegalArgumentException("Max concurrent requests must be > 0.");
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    // larger request bodies are answered 413
+    public ApiServer maxBodyBytes(int maxBodyBytes) {
+        if (maxBodyBytes <= 0) throw new IllegalArgumentException("Max body size must be > 0.");
+        this.maxBodyBytes = maxBodyBytes;
+        return this;
+    }
+
+    // time a client gets to send its whole request
+    public ApiServer requestTimeoutSeconds(long requestTimeoutSeconds) {
+        if (requestTimeoutSeconds <= 0) throw new IllegalArgumentException("Request timeout must be > 0.");
+        this.requestTimeoutSeconds = requestTimeoutSeconds;
+        return this;
+    }
+
+    public ApiServer start() {
+        if (server != null) throw new IllegalStateException("Already started.");
+        // The JDK server reads its connection limits from system properties once,
+        // when it is first used; explicit -D settings win.
+        setDefault("jdk.httpserver.maxConnections", maxConnections);
+        setDefault("sun.net.httpserver.maxReqTime", requestTimeoutSeconds);
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), backlog);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen on port " + port + ".", e);
+        }
+        executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", new ApiHandler(system, new Semaphore(maxConcurrentRequests), maxBodyBytes));
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        if (server == null) throw new IllegalStateException("Not started.");
+        return server.getAddress().getPort();
+    }
+
+    public boolean usesVirtualThreads() { return virtualThreads; }
+
+    @Override
+    public void close() {
+        if (server == null) return;
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    // A virtual thread per request where the JDK has them (21+), so a slow
+    // client parks cheaply; otherwise one platform thread per allowed request.
+    private ExecutorService newExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService e = (ExecutorService) m.invoke(null);
+            virtualThreads = true;
+            return e;
+        } catch (ReflectiveOperationException e) {
+            virtualThreads = false;
+            return Executors.newFixedThreadPool(maxConcurrentRequests, r -> {
+                Thread t = new Thread(r, "API worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private static void setDefault(String property, long value) {
+        if (System.getProperty(property) == null) System.setProperty(property, Long.toString(value));
+    }
+}
@@ -0,0 +1,23 @@
+package studentrentals.bulk;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+// Outcome of a bulk import: the rooms added, in input order, and every row that was not
+public final class ImportReport {
+    private final long rowsRead;
+    private final List<UUID> roomIds;
+    private final List<RowError> errors;
+
+    ImportReport(long rowsRead, List<UUID> roomIds, List<RowError> errors) {
+        this.rowsRead = rowsRead;
+        this.roomIds = Collections.unmodifiableList(roomIds);
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public List<UUID> getRoomIds() { return roomIds; }
+    // sorted by line
+    public List<RowError> getErrors() { return errors; }
+}
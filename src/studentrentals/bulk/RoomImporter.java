@@ -0,0 +1,236 @@
+package studentrentals.bulk;
+
+import studentrentals.StudentRentalsSystem;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.util.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+// Streams rooms for one owner from CSV or NDJSON into the system. Lines are
+// read a batch at a time, parsed in parallel, and each batch goes to
+// StudentRentalsSystem.addRooms in one call. Bad rows are reported with their
+// line number and skipped; the rest of the file is still imported.
+//
+// CSV: a header row naming the columns (any order), then one room per line:
+//   propertyId,type,price,amenities,availableFrom,availableTo
+//   3f2c...,SINGLE,650,"WiFi, desk",2027-09-01,2028-06-30
+// NDJSON: one object per line with the same keys.
+public final class RoomImporter {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        // by file extension: .json/.jsonl/.ndjson are NDJSON, anything else CSV
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final String[] COLUMNS = {"propertyId", "type", "price", "amenities", "availableFrom", "availableTo"};
+
+    private final StudentRentalsSystem system;
+    private final int batchSize;
+
+    public RoomImporter(StudentRentalsSystem system) {
+        this(system, DEFAULT_BATCH_SIZE);
+    }
+
+    public RoomImporter(StudentRentalsSystem system, int batchSize) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be > 0.");
+        this.system = system;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importFile(String ownerEmail, Path file) {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importRooms(ownerEmail, in, Format.forFile(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public ImportReport importRooms(String ownerEmail, Reader in, Format format) {
+        BufferedReader reader = in instanceof BufferedReader b ? b : new BufferedReader(in);
+        List<UUID> roomIds = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        long rowsRead = 0;
+        long lineNo = 0;
+        int[] columns = null; // CSV: position of each of COLUMNS in a row
+
+        try {
+            List<String> lines = new ArrayList<>(batchSize);
+            long[] lineNos = new long[batchSize];
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null) {
+                    lineNo++;
+                    if (line.isBlank()) continue;
+                    if (format == Format.CSV && columns == null) {
+                        columns = csvHeader(line);
+                        continue;
+                    }
+                    lineNos[lines.size()] = lineNo;
+                    lines.add(line);
+                    if (lines.size() < batchSize) continue;
+                }
+                if (!lines.isEmpty()) {
+                    rowsRead += lines.size();
+                    importBatch(ownerEmail, lines, lineNos, format, columns, roomIds, errors);
+                    lines.clear();
+                }
+                if (line == null) break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        errors.sort(Comparator.comparingLong(RowError::getLine));
+        return new ImportReport(rowsRead, roomIds, errors);
+    }
+
+    private void importBatch(String ownerEmail, List<String> lines, long[] lineNos, Format format, int[] columns,
+                             List<UUID> roomIds, List<RowError> errors) {
+        RoomRow[] parsed = new RoomRow[lines.size()];
+        String[] failures = new String[lines.size()];
+        IntStream.range(0, lines.size()).parallel().forEach(i -> {
+            try {
+                Map<String, String> fields = format == Format.CSV
+                        ? csvFields(lines.get(i), columns)
+                        : Json.parseFlatObject(lines.get(i));
+                parsed[i] = toRow(lineNos[i], fields);
+            } catch (IllegalArgumentException e) {
+                failures[i] = e.getMessage();
+            }
+        });
+
+        List<RoomRow> rows = new ArrayList<>(parsed.length);
+        for (int i = 0; i < parsed.length; i++) {
+            if (parsed[i] != null) rows.add(parsed[i]);
+            else errors.add(new RowError(lineNos[i], failures[i]));
+        }
+        for (Room r : system.addRooms(ownerEmail, rows, errors)) {
+            roomIds.add(r.getId());
+        }
+    }
+
+    private static RoomRow toRow(long line, Map<String, String> fields) {
+        String rawProperty = required(fields, "propertyId");
+        UUID propertyId;
+        try {
+            propertyId = UUID.fromString(rawProperty.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid propertyId: " + rawProperty);
+        }
+
+        String rawType = required(fields, "type");
+        RoomType type;
+        try {
+            type = RoomType.valueOf(rawType.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid type: " + rawType);
+        }
+
+        String rawPrice = required(fields, "price");
+        int price;
+        try {
+            price = Integer.parseInt(rawPrice.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + rawPrice);
+        }
+
+        String amenities = fields.get("amenities");
+        return new RoomRow(line, propertyId, type, price, amenities != null ? amenities.trim() : null,
+                date(fields, "availableFrom"), date(fields, "availableTo"));
+    }
+
+    private static LocalDate date(Map<String, String> fields, String name) {
+        String value = required(fields, name);
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("Missing " + name + ".");
+        return value;
+    }
+
+    private static int[] csvHeader(String line) {
+        List<String> names = splitCsv(line);
+        int[] columns = new int[COLUMNS.length];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            columns[c] = -1;
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i).trim();
+                if (name.equalsIgnoreCase(COLUMNS[c]) || (c == 2 && name.equalsIgnoreCase("pricePerMonth"))) {
+                    columns[c] = i;
+                }
+            }
+            if (columns[c] < 0) throw new IllegalArgumentException("CSV header has no " + COLUMNS[c] + " column.");
+        }
+        return columns;
+    }
+
+    private static Map<String, String> csvFields(String line, int[] columns) {
+        List<String> values = splitCsv(line);
+        Map<String, String> fields = new HashMap<>();
+        for (int c = 0; c < COLUMNS.length; c++) {
+            if (columns[c] < values.size()) fields.put(COLUMNS[c], values.get(columns[c]));
+        }
+        return fields;
+    }
+
+    // comma-separated, fields optionally in double quotes ("" inside quotes is a quote)
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    sb.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    sb.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field.");
+        values.add(sb.toString());
+        return values;
+    }
+}
@@ -0,0 +1,36 @@
+package studentrentals.bulk;
+
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// One room to add in a bulk import; line is where it came from (for error reports)
+public final class RoomRow {
+    private final long line;
+    private final UUID propertyId;
+    private final RoomType type;
+    private final int pricePerMonth;
+    private final String amenities;
+    private final LocalDate availableFrom;
+    private final LocalDate availableTo;
+
+    public RoomRow(long line, UUID propertyId, RoomType type, int pricePerMonth, String amenities,
+                   LocalDate availableFrom, LocalDate availableTo) {
+        this.line = line;
+        this.propertyId = propertyId;
+        this.type = type;
+        this.pricePerMonth = pricePerMonth;
+        this.amenities = amenities;
+        this.availableFrom = availableFrom;
+        this.availableTo = availableTo;
+    }
+
+    public long getLine() { return line; }
+    public UUID getPropertyId() { return propertyId; }
+    public RoomType getType() { return type; }
+    public int getPricePerMonth() { return pricePerMonth; }
+    public String getAmenities() { return amenities; }
+    public LocalDate getAvailableFrom() { return availableFrom; }
+    public LocalDate getAvailableTo() { return availableTo; }
+}
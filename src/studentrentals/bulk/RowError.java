@@ -0,0 +1,19 @@
+package studentrentals.bulk;
+
+public final class RowError {
+    private final long line;
+    private final String message;
+
+    public RowError(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() { return line; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return "line " + line + ": " + message;
+    }
+}
@@ -0,0 +1,241 @@
+package studentrentals.load;
+
+import studentrentals.StudentRentalsSystem;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Populates a system with a production-shaped dataset through the public API.
+// The same seed and settings always produce the same data (ids aside); set
+// termStart explicitly for runs that must match across years.
+//  - areas: Zipf-skewed popularity, a few big university cities dominate
+//  - prices: per-area base price, log-normal spread, doubles cost more
+//  - owners: Zipf-skewed portfolio sizes (a few large letting agents)
+//  - windows: mostly academic-year lets from around 1 September, some summer lets
+//  - bookings: density rises with area popularity
+//  - pending requests: a backlog per room on dates that are still free
+public final class DataGenerator {
+
+    // name and typical monthly price of a single room, most popular first
+    private static final String[] AREAS = {
+            "London", "Manchester", "Birmingham", "Leeds", "Glasgow", "Nottingham", "Bristol", "Sheffield",
+            "Edinburgh", "Liverpool", "Cardiff", "Newcastle", "Leicester", "Coventry", "Southampton", "Oxford",
+            "Cambridge", "Brighton", "York", "Exeter", "Durham", "Bath", "Aberdeen", "Swansea"
+    };
+    private static final int[] AREA_BASE_PRICE = {
+            980, 620, 560, 560, 600, 520, 680, 500,
+            720, 540, 520, 530, 490, 520, 580, 820,
+            800, 760, 560, 600, 580, 700, 480, 450
+    };
+
+    private static final double AREA_SKEW = 1.1;
+    static final double OWNER_SKEW = 1.2;
+    private static final double DOUBLE_SHARE = 0.3;
+    private static final double DOUBLE_PREMIUM = 1.35;
+    private static final double PRICE_SPREAD = 0.2;
+    private static final double SUMMER_LET_SHARE = 0.1;
+
+    private final long seed;
+    private int rooms = 10_000;
+    private int owners = 500;
+    private int students = 5_000;
+    private double pendingPerRoom = 1.5;
+    private LocalDate termStart = LocalDate.of(LocalDate.now().getYear() + 1, 9, 1);
+
+    public DataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public DataGenerator rooms(int rooms) {
+        if (rooms <= 0) throw new IllegalArgumentException("Rooms must be > 0.");
+        this.rooms = rooms;
+        return this;
+    }
+
+    public DataGenerator owners(int owners) {
+        if (owners <= 0) throw new IllegalArgumentException("Owners must be > 0.");
+        this.owners = owners;
+        return this;
+    }
+
+    public DataGenerator students(int students) {
+        if (students <= 0) throw new IllegalArgumentException("Students must be > 0.");
+        this.students = students;
+        return this;
+    }
+
+    // mean backlog of pending requests per room (scaled by area popularity)
+    public DataGenerator pendingPerRoom(double pendingPerRoom) {
+        if (pendingPerRoom < 0) throw new IllegalArgumentException("Pending requests per room must be >= 0.");
+        this.pendingPerRoom = pendingPerRoom;
+        return this;
+    }
+
+    public DataGenerator termStart(LocalDate termStart) {
+        if (termStart == null) throw new IllegalArgumentException("Term start must not be null.");
+        this.termStart = termStart;
+        return this;
+    }
+
+    public Dataset populate(StudentRentalsSystem system) {
+        Random rnd = new Random(seed);
+        double[] areaWeights = zipfWeights(AREAS.length, AREA_SKEW);
+        double[] areaCdf = cumulative(areaWeights);
+        double[] ownerCdf = cumulative(zipfWeights(owners, OWNER_SKEW));
+
+        List<String> ownerEmails = new ArrayList<>(owners);
+        for (int i = 0; i < owners; i++) {
+            String email = "owner" + i + "@load.example.com";
+            system.registerHomeowner("Owner " + i, email, "07000000000", "pass");
+            ownerEmails.add(email);
+        }
+        List<String> studentEmails = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            String email = "student" + i + "@load.example.com";
+            system.registerStudent("Student " + i, email, "07000000000", "pass", "Load University", "L" + i);
+            studentEmails.add(email);
+        }
+
+        List<UUID> roomIds = new ArrayList<>(rooms);
+        int bookings = 0;
+        int pending = 0;
+        while (roomIds.size() < rooms) {
+            int area = pick(areaCdf, rnd);
+            int owner = pick(ownerCdf, rnd);
+            String ownerEmail = ownerEmails.get(owner);
+            Property property = system.createProperty(ownerEmail, (1 + rnd.nextInt(300)) + " Load Street",
+                    AREAS[area], "Generated property");
+
+            // houses of 1..12 rooms, most around 3-5
+            int size = Math.min(rooms - roomIds.size(), 1 + (int) Math.min(11, -Math.log(1 - rnd.nextDouble()) * 3));
+            for (int i = 0; i < size; i++) {
+                Room room = addRoom(system, rnd, ownerEmail, property.getId(), area);
+                roomIds.add(room.getId());
+
+                // popular areas book up more
+                double popularity = areaWeights[area] / areaWeights[0];
+                double density = clamp(0.15 + 0.6 * popularity + rnd.nextGaussian() * 0.15, 0, 0.95);
+                bookings += addBookings(system, rnd, ownerEmail, room, density, studentEmails);
+                pending += addPendingRequests(system, rnd, room, pendingPerRoom * (0.5 + popularity), studentEmails);
+            }
+        }
+        return new Dataset(List.of(AREAS), areaWeights, ownerEmails, studentEmails, roomIds, termStart,
+                bookings, pending);
+    }
+
+    private Room addRoom(StudentRentalsSystem system, Random rnd, String ownerEmail, UUID propertyId, int area) {
+        RoomType type = rnd.nextDouble() < DOUBLE_SHARE ? RoomType.DOUBLE : RoomType.SINGLE;
+        double price = AREA_BASE_PRICE[area] * Math.exp(rnd.nextGaussian() * PRICE_SPREAD);
+        if (type == RoomType.DOUBLE) price *= DOUBLE_PREMIUM;
+        int rounded = Math.max(100, (int) Math.round(price / 5) * 5);
+
+        LocalDate from;
+        LocalDate to;
+        if (rnd.nextDouble() < SUMMER_LET_SHARE) {
+            from = termStart.minusDays(90 - rnd.nextInt(20));
+            to = from.plusDays(30 + rnd.nextInt(60));
+        } else {
+            from = termStart.plusDays(Math.round(rnd.nextGaussian() * 20));
+            to = from.plusDays(270 + rnd.nextInt(96)); // 9 to 12 months
+        }
+        return system.addRoom(ownerEmail, propertyId, type, rounded, "WiFi", from, to);
+    }
+
+    // walks the window: each stretch is either booked (with probability density) or left as a gap
+    private static int addBookings(StudentRentalsSystem system, Random rnd, String ownerEmail, Room room,
+                                   double density, List<String> students) {
+        int made = 0;
+        LocalDate cursor = room.getAvailableFrom();
+        LocalDate end = room.getAvailableTo();
+        while (cursor.isBefore(end)) {
+            if (rnd.nextDouble() < density) {
+                // mostly whole-term stays, some short lets
+                int len = rnd.nextDouble() < 0.7 ? 90 + rnd.nextInt(240) : 7 + rnd.nextInt(50);
+                LocalDate stop = cursor.plusDays(len).isAfter(end) ? end : cursor.plusDays(len);
+                String student = students.get(rnd.nextInt(students.size()));
+                BookingRequest req = system.requestBooking(student, room.getId(), cursor, stop);
+                system.decideRequest(ownerEmail, req.getId(), true);
+                made++;
+                cursor = stop;
+            } else {
+                cursor = cursor.plusDays(7 + rnd.nextInt(60));
+            }
+        }
+        return made;
+    }
+
+    private static int addPendingRequests(StudentRentalsSystem system, Random rnd, Room room, double mean,
+                                          List<String> students) {
+        int count = poisson(mean, rnd);
+        int made = 0;
+        long windowDays = room.getAvailableTo().toEpochDay() - room.getAvailableFrom().toEpochDay();
+        for (int i = 0; i < count; i++) {
+            int len = 7 + rnd.nextInt((int) Math.max(1, Math.min(270, windowDays - 7)));
+            LocalDate earliest = room.getAvailableFrom().plusDays(rnd.nextInt((int) Math.max(1, windowDays)));
+            // first stay of that length from a random point on
+            LocalDate start = room.earliestFreeStart(earliest, room.getAvailableTo(), len);
+            if (start == null) continue;
+            String student = students.get(rnd.nextInt(students.size()));
+            system.requestBooking(student, room.getId(), start, start.plusDays(len));
+            made++;
+        }
+        return made;
+    }
+
+    static double[] zipfWeights(int n, double skew) {
+        double[] w = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            w[i] = 1 / Math.pow(i + 1, skew);
+            sum += w[i];
+        }
+        for (int i = 0; i < n; i++) w[i] /= sum;
+        return w;
+    }
+
+    static double[] cumulative(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double acc = 0;
+        for (int i = 0; i < weights.length; i++) {
+            acc += weights[i];
+            cdf[i] = acc;
+        }
+        cdf[cdf.length - 1] = 1.0;
+        return cdf;
+    }
+
+    // index drawn from a cumulative distribution
+    static int pick(double[] cdf, Random rnd) {
+        double u = rnd.nextDouble();
+        int lo = 0;
+        int hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] < u) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int poisson(double mean, Random rnd) {
+        double limit = Math.exp(-mean);
+        double p = rnd.nextDouble();
+        int k = 0;
+        while (p > limit) {
+            p *= rnd.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+}
@@ -0,0 +1,40 @@
+package studentrentals.load;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+// What a DataGenerator run created, for drivers that need ids to work with
+public final class Dataset {
+    private final List<String> areas;
+    private final double[] areaWeights;
+    private final List<String> ownerEmails;
+    private final List<String> studentEmails;
+    private final List<UUID> roomIds;
+    private final LocalDate termStart;
+    private final int bookings;
+    private final int pendingRequests;
+
+    Dataset(List<String> areas, double[] areaWeights, List<String> ownerEmails, List<String> studentEmails,
+            List<UUID> roomIds, LocalDate termStart, int bookings, int pendingRequests) {
+        this.areas = List.copyOf(areas);
+        this.areaWeights = areaWeights.clone();
+        this.ownerEmails = List.copyOf(ownerEmails);
+        this.studentEmails = List.copyOf(studentEmails);
+        this.roomIds = List.copyOf(roomIds);
+        this.termStart = termStart;
+        this.bookings = bookings;
+        this.pendingRequests = pendingRequests;
+    }
+
+    public List<String> getAreas() { return areas; }
+    // popularity of each area (same order as getAreas), summing to 1
+    public double[] getAreaWeights() { return areaWeights.clone(); }
+    public List<String> getOwnerEmails() { return ownerEmails; }
+    public List<String> getStudentEmails() { return studentEmails; }
+    public List<UUID> getRoomIds() { return roomIds; }
+    // start of the academic year most windows are built around
+    public LocalDate getTermStart() { return termStart; }
+    public int getBookings() { return bookings; }
+    public int getPendingRequests() { return pendingRequests; }
+}
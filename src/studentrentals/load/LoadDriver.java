@@ -0,0 +1,294 @@
+package studentrentals.load;
+
+import studentrentals.StudentRentalsSystem;
+import studentrentals.metrics.HistogramSnapshot;
+import studentrentals.metrics.LatencyHistogram;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.RequestStatus;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SortByAvailableFromThenPrice;
+import studentrentals.search.SortByPriceAsc;
+import studentrentals.search.SortByPriceDesc;
+import studentrentals.search.SortByPriceThenAvailableFrom;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+// Closed-loop load driver: N clients each issue one operation, wait for it,
+// and immediately issue the next, drawing operations from a weighted mix.
+// Reports throughput and latency percentiles per operation.
+//
+// java -cp out studentrentals.load.LoadDriver [--rooms 10000] [--owners 500] [--students 5000]
+//     [--pending 1.5] [--seed 1] [--clients 8] [--warmup 5] [--seconds 30]
+//     [--term-start 2027-09-01] [--mix search=60,flexible=5,request=20,decide=10,inbox=5]
+public final class LoadDriver {
+
+    public enum Operation { SEARCH, FLEXIBLE, REQUEST, DECIDE, INBOX }
+
+    private static final RoomSortStrategy[] SORTS = {
+            new SortByPriceAsc(), new SortByPriceDesc(), new SortByPriceThenAvailableFrom(),
+            new SortByAvailableFromThenPrice()
+    };
+
+    private final StudentRentalsSystem system;
+    private final Dataset data;
+    private final Operation[] operations;
+    private final double[] mixCdf;
+    private final double[] areaCdf;
+    private final double[] ownerCdf;
+
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    public LoadDriver(StudentRentalsSystem system, Dataset data, Map<Operation, Integer> mix) {
+        if (mix.isEmpty()) throw new IllegalArgumentException("Operation mix must not be empty.");
+        this.system = system;
+        this.data = data;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        double[] weights = new double[operations.length];
+        double total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            int w = mix.get(operations[i]);
+            if (w < 0) throw new IllegalArgumentException("Mix weights must be >= 0.");
+            weights[i] = w;
+            total += w;
+        }
+        if (total == 0) throw new IllegalArgumentException("Mix weights must not all be 0.");
+        for (int i = 0; i < weights.length; i++) weights[i] /= total;
+        this.mixCdf = DataGenerator.cumulative(weights);
+        this.areaCdf = DataGenerator.cumulative(data.getAreaWeights());
+        this.ownerCdf = DataGenerator.cumulative(
+                DataGenerator.zipfWeights(data.getOwnerEmails().size(), DataGenerator.OWNER_SKEW));
+    }
+
+    public static final class Report {
+        private final Map<Operation, HistogramSnapshot> latencies;
+        private final Map<Operation, Long> rejected;
+        private final double seconds;
+
+        Report(Map<Operation, HistogramSnapshot> latencies, Map<Operation, Long> rejected, double seconds) {
+            this.latencies = latencies;
+            this.rejected = rejected;
+            this.seconds = seconds;
+        }
+
+        public Map<Operation, HistogramSnapshot> getLatencies() { return latencies; }
+        // operations the system refused (conflicts, nothing pending, lost races), included in the latencies
+        public Map<Operation, Long> getRejected() { return rejected; }
+        public double getSeconds() { return seconds; }
+
+        public void print() {
+            System.out.printf(Locale.ROOT, "%-10s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n", "operation", "ops",
+                    "refused", "ops/s", "mean(us)", "p50", "p90", "p99", "p99.9", "max");
+            HistogramSnapshot all = HistogramSnapshot.empty();
+            long refused = 0;
+            for (Map.Entry<Operation, HistogramSnapshot> e : latencies.entrySet()) {
+                long r = rejected.getOrDefault(e.getKey(), 0L);
+                printRow(e.getKey().name().toLowerCase(Locale.ROOT), e.getValue(), r);
+                all = all.merge(e.getValue());
+                refused += r;
+            }
+            printRow("total", all, refused);
+        }
+
+        private void printRow(String name, HistogramSnapshot r, long refused) {
+            System.out.printf(Locale.ROOT, "%-10s %10d %8d %10.0f %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    name, r.count(), refused, r.count() / seconds, r.mean() / 1000.0,
+                    r.percentile(50) / 1000.0, r.percentile(90) / 1000.0, r.percentile(99) / 1000.0,
+                    r.percentile(99.9) / 1000.0, r.max() / 1000.0);
+        }
+    }
+
+    public Report run(int clients, long warmupMillis, long measureMillis, long seed) throws InterruptedException {
+        if (clients <= 0) throw new IllegalArgumentException("Clients must be > 0.");
+        measuring = false;
+        stopped = false;
+
+        List<Client> workers = new ArrayList<>(clients);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client c = new Client(new Random(seed * 31 + i));
+            Thread t = new Thread(c, "load-client-" + i);
+            workers.add(c);
+            threads.add(t);
+            t.start();
+        }
+
+        Thread.sleep(warmupMillis);
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(measureMillis);
+        stopped = true;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        for (Thread t : threads) t.join();
+
+        Map<Operation, HistogramSnapshot> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, Long> rejected = new EnumMap<>(Operation.class);
+        for (Client c : workers) {
+            if (c.failure != null) throw new IllegalStateException("Load client failed.", c.failure);
+            for (Operation op : operations) {
+                latencies.merge(op, c.latencies.get(op).snapshot(), HistogramSnapshot::merge);
+                rejected.merge(op, c.rejected.getOrDefault(op, 0L), Long::sum);
+            }
+        }
+        return new Report(latencies, rejected, seconds);
+    }
+
+    private final class Client implements Runnable {
+        private final Random rnd;
+        private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> rejected = new EnumMap<>(Operation.class);
+        private RuntimeException failure;
+
+        Client(Random rnd) {
+            this.rnd = rnd;
+            for (Operation op : operations) latencies.put(op, new LatencyHistogram());
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!stopped) {
+                    Operation op = operations[DataGenerator.pick(mixCdf, rnd)];
+                    long t0 = System.nanoTime();
+                    boolean accepted = execute(op);
+                    long elapsed = System.nanoTime() - t0;
+                    if (measuring && !stopped) {
+                        latencies.get(op).record(elapsed);
+                        if (!accepted) rejected.merge(op, 1L, Long::sum);
+                    }
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        private boolean execute(Operation op) {
+            try {
+                switch (op) {
+                    case SEARCH -> search();
+                    case FLEXIBLE -> flexibleSearch();
+                    case REQUEST -> request();
+                    case DECIDE -> {
+                        return decide();
+                    }
+                    case INBOX -> inbox();
+                }
+                return true;
+            } catch (IllegalArgumentException refused) {
+                return false;
+            }
+        }
+
+        private void search() {
+            SearchCriteria c = filters();
+            LocalDate start = data.getTermStart().plusDays(rnd.nextInt(45) - 14);
+            c.setStartDate(start);
+            c.setEndDate(start.plusDays(30 + rnd.nextInt(270)));
+            system.searchRooms(c, SORTS[rnd.nextInt(SORTS.length)]);
+        }
+
+        private void flexibleSearch() {
+            SearchCriteria c = filters();
+            LocalDate earliest = data.getTermStart().minusDays(30 - rnd.nextInt(30));
+            c.setStartDate(earliest);
+            c.setEndDate(earliest.plusDays(60));
+            system.searchFlexibleDates(c, 120 + rnd.nextInt(180), SORTS[rnd.nextInt(SORTS.length)]);
+        }
+
+        private SearchCriteria filters() {
+            SearchCriteria c = new SearchCriteria();
+            c.setArea(data.getAreas().get(DataGenerator.pick(areaCdf, rnd)));
+            if (rnd.nextBoolean()) c.setRoomType(rnd.nextBoolean() ? RoomType.SINGLE : RoomType.DOUBLE);
+            if (rnd.nextDouble() < 0.4) c.setMaxPrice(400 + rnd.nextInt(800));
+            return c;
+        }
+
+        private void request() {
+            String student = data.getStudentEmails().get(rnd.nextInt(data.getStudentEmails().size()));
+            UUID room = data.getRoomIds().get(rnd.nextInt(data.getRoomIds().size()));
+            LocalDate start = data.getTermStart().plusDays(rnd.nextInt(214) - 14);
+            system.requestBooking(student, room, start, start.plusDays(30 + rnd.nextInt(240)));
+        }
+
+        // owner works through the oldest pending request in their inbox
+        private boolean decide() {
+            String owner = randomOwner();
+            List<BookingRequest> pending = system.listRequestsForOwner(owner, RequestStatus.PENDING, 0, 1);
+            if (pending.isEmpty()) return false;
+            system.decideRequest(owner, pending.get(0).getId(), rnd.nextDouble() < 0.7);
+            return true;
+        }
+
+        private void inbox() {
+            system.listRequestsForOwner(randomOwner(), RequestStatus.PENDING, 0, 20);
+        }
+
+        private String randomOwner() {
+            return data.getOwnerEmails().get(DataGenerator.pick(ownerCdf, rnd));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> opts = parseArgs(args);
+        long seed = Long.parseLong(opts.getOrDefault("seed", "1"));
+
+        DataGenerator generator = new DataGenerator(seed)
+                .rooms(Integer.parseInt(opts.getOrDefault("rooms", "10000")))
+                .owners(Integer.parseInt(opts.getOrDefault("owners", "500")))
+                .students(Integer.parseInt(opts.getOrDefault("students", "5000")))
+                .pendingPerRoom(Double.parseDouble(opts.getOrDefault("pending", "1.5")));
+        if (opts.containsKey("term-start")) generator.termStart(LocalDate.parse(opts.get("term-start")));
+
+        StudentRentalsSystem system = new StudentRentalsSystem();
+        system.seedAdminAndSampleData();
+        long t0 = System.nanoTime();
+        Dataset data = generator.populate(system);
+        System.out.printf(Locale.ROOT, "Generated %d rooms, %d bookings, %d pending requests in %.1f s%n",
+                data.getRoomIds().size(), data.getBookings(), data.getPendingRequests(),
+                (System.nanoTime() - t0) / 1e9);
+
+        Map<Operation, Integer> mix = parseMix(opts.getOrDefault("mix", "search=60,flexible=5,request=20,decide=10,inbox=5"));
+        int clients = Integer.parseInt(opts.getOrDefault("clients", "8"));
+        long warmup = Long.parseLong(opts.getOrDefault("warmup", "5")) * 1000;
+        long seconds = Long.parseLong(opts.getOrDefault("seconds", "30")) * 1000;
+
+        System.out.printf("Running %d clients: %d s warm-up, %d s measured, mix %s%n", clients, warmup / 1000,
+                seconds / 1000, mix);
+        new LoadDriver(system, data, mix).run(clients, warmup, seconds, seed).print();
+        // server-side view, including generation and warm-up
+        System.out.println();
+        System.out.print(system.metricsSnapshot().toText());
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        return opts;
+    }
+
+    // "search=60,request=20,..." -> weights per operation
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry: " + part);
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,51 @@
+package studentrentals.metrics;
+
+// Point-in-time copy of a LatencyHistogram; values are in nanoseconds
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long sum, long max) {
+        this.counts = counts;
+        long n = 0;
+        for (long c : counts) n += c;
+        this.count = n;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public static HistogramSnapshot empty() {
+        return new HistogramSnapshot(new long[LatencyHistogram.BUCKETS], 0, 0);
+    }
+
+    public long count() { return count; }
+
+    public long max() { return max; }
+
+    public double mean() { return count == 0 ? 0 : (double) sum / count; }
+
+    // Latency at the given percentile (0-100), reported as the bucket midpoint
+    public long percentile(double p) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long lo = LatencyHistogram.lowerBound(i);
+                long mid = lo + (LatencyHistogram.lowerBound(i + 1) - lo) / 2;
+                return Math.min(mid, max);
+            }
+        }
+        return max;
+    }
+
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        long[] merged = new long[counts.length];
+        for (int i = 0; i < merged.length; i++) merged[i] = counts[i] + other.counts[i];
+        return new HistogramSnapshot(merged, sum + other.sum, Math.max(max, other.max));
+    }
+}
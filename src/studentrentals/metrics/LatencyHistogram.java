@@ -0,0 +1,52 @@
+package studentrentals.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free log-linear latency histogram in nanoseconds: exact below 64 ns,
+// then 32 buckets per power of two (about 3% relative error). Recording is a
+// few atomic adds and never blocks; snapshots are taken without stopping writers.
+public final class LatencyHistogram {
+
+    static final int SUB_BITS = 5;
+    static final int SUB = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(index(v));
+        sum.add(v);
+        long m;
+        while (v > (m = max.get()) && !max.compareAndSet(m, v)) {
+            // lost a race with another writer; re-check
+        }
+    }
+
+    // convenience for try/finally timing around an operation
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) copy[i] = counts.get(i);
+        return new HistogramSnapshot(copy, sum.sum(), max.get());
+    }
+
+    static int index(long v) {
+        if (v < 2 * SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return (shift + 1) * SUB + (int) ((v >>> shift) - SUB);
+    }
+
+    static long lowerBound(int index) {
+        if (index < 2 * SUB) return index;
+        int shift = index / SUB - 1;
+        return (long) (index % SUB + SUB) << shift;
+    }
+}
@@ -0,0 +1,38 @@
+package studentrentals.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Named latency histograms, counters and gauges. Look a metric up once and
+// keep the reference; recording on it is lock-free.
+public final class MetricsRegistry {
+
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    // value read at snapshot time, e.g. a size or a counter kept elsewhere
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, HistogramSnapshot> t = new TreeMap<>();
+        timers.forEach((name, h) -> t.put(name, h.snapshot()));
+        Map<String, Long> c = new TreeMap<>();
+        counters.forEach((name, a) -> c.put(name, a.sum()));
+        gauges.forEach((name, g) -> c.put(name, g.getAsLong()));
+        return new MetricsSnapshot(System.currentTimeMillis(), t, c);
+    }
+}
@@ -0,0 +1,28 @@
+package studentrentals.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Prints a registry's snapshot as text at a fixed period on a background thread
+public final class MetricsReporter implements AutoCloseable {
+
+    private final ScheduledExecutorService executor;
+
+    public MetricsReporter(MetricsRegistry registry, PrintStream out, long periodMillis) {
+        if (periodMillis <= 0) throw new IllegalArgumentException("Report period must be > 0.");
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleAtFixedRate(() -> out.print(registry.snapshot().toText()),
+                periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
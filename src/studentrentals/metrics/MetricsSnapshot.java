@@ -0,0 +1,43 @@
+package studentrentals.metrics;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+public final class MetricsSnapshot {
+
+    private final long takenAtMillis;
+    private final Map<String, HistogramSnapshot> timers;
+    private final Map<String, Long> counters;
+
+    MetricsSnapshot(long takenAtMillis, Map<String, HistogramSnapshot> timers, Map<String, Long> counters) {
+        this.takenAtMillis = takenAtMillis;
+        this.timers = Collections.unmodifiableMap(timers);
+        this.counters = Collections.unmodifiableMap(counters);
+    }
+
+    public long getTakenAtMillis() { return takenAtMillis; }
+
+    // operation name -> latency histogram, sorted by name
+    public Map<String, HistogramSnapshot> getTimers() { return timers; }
+
+    // counters and gauges, sorted by name
+    public Map<String, Long> getCounters() { return counters; }
+
+    // Plain-text table, latencies in microseconds
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("metrics at ").append(Instant.ofEpochMilli(takenAtMillis)).append('\n');
+        sb.append(String.format(Locale.ROOT, "%-28s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "mean(us)", "p50", "p99", "p99.9", "max"));
+        timers.forEach((name, h) -> {
+            if (h.count() == 0) return;
+            sb.append(String.format(Locale.ROOT, "%-28s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    name, h.count(), h.mean() / 1000.0, h.percentile(50) / 1000.0, h.percentile(99) / 1000.0,
+                    h.percentile(99.9) / 1000.0, h.max() / 1000.0));
+        });
+        counters.forEach((name, v) -> sb.append(String.format(Locale.ROOT, "%-28s %10d%n", name, v)));
+        return sb.toString();
+    }
+}
@@ -1,22 +1,32 @@
 package studentrentals.model;
 
+import studentrentals.util.IdLookup;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 public final class Booking {
-    private final UUID id;
-    private final UUID studentId;
-    private final UUID roomId;
+    // IdRegistry refs; the UUID getters convert through ids (see Room)
+    private volatile IdLookup ids;
+    private final int ref;
+    private final int studentRef;
+    private final int roomRef;
     private final LocalDate startDate;
     private final LocalDate endDate;
     private final LocalDateTime confirmedAt;
 
     public Booking(UUID id, UUID studentId, UUID roomId, LocalDate startDate, LocalDate endDate, LocalDateTime confirmedAt) 
     {
-        this.id = id;
-        this.studentId = studentId;
-        this.roomId = roomId;
+        this(IdLookup.detached(id, studentId, roomId), 0, 1, 2, startDate, endDate, confirmedAt);
+    }
+
+    public Booking(IdLookup ids, int ref, int studentRef, int roomRef, LocalDate startDate, LocalDate endDate, LocalDateTime confirmedAt) 
+    {
+        this.ids = ids;
+        this.ref = ref;
+        this.studentRef = studentRef;
+        this.roomRef = roomRef;
         this.startDate = startDate;
         this.endDate = endDate;
         this.confirmedAt = confirmedAt;
@@ -24,17 +34,43 @@ public final class Booking {
 
     public UUID getId() 
     { 
-        return id; 
+        return uuid(ref); 
+    }
+    
+    public int getRef() 
+    { 
+        return ref; 
     }
     
     public UUID getStudentId() 
     { 
-        return studentId; 
+        return uuid(studentRef); 
+    }
+    
+    public int getStudentRef() 
+    { 
+        return studentRef; 
     }
     
     public UUID getRoomId() 
     { 
-        return roomId; 
+        return uuid(roomRef); 
+    }
+    
+    public int getRoomRef() 
+    { 
+        return roomRef; 
+    }
+    
+    public IdLookup getIds() 
+    { 
+        return ids; 
+    }
+    
+    // called as the booking leaves its system, before the system releases its refs
+    public void detachIds() 
+    { 
+        ids = ids.freeze(ref, studentRef, roomRef); 
     }
     
     public LocalDate getStartDate() 
@@ -51,4 +87,13 @@ public final class Booking {
     { 
         return confirmedAt; 
     }
+
+    // a detach racing with the read means the registry may already have handed
+    // the ref to another id; the frozen copy then has the right one
+    private UUID uuid(int r) {
+        IdLookup l = ids;
+        UUID id = l.uuid(r);
+        IdLookup now = ids;
+        return now == l ? id : now.uuid(r);
+    }
 }
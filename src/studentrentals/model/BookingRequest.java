@@ -1,33 +1,57 @@
 package studentrentals.model;
 
+import studentrentals.util.IdLookup;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 public final class BookingRequest {
-    private final UUID id;
-    private final UUID studentId;
-    private final UUID roomId;
+    // IdRegistry refs; the UUID getters convert through ids (see Room)
+    private volatile IdLookup ids;
+    private final int ref;
+    private final int studentRef;
+    private final int roomRef;
     private final LocalDate startDate;
     private final LocalDate endDate;
-    private RequestStatus status;
+    private volatile RequestStatus status;
     private final LocalDateTime createdAt;
+    // why the request was rejected or expired, when the system did it (null otherwise)
+    private volatile String reason;
 
     public BookingRequest(UUID id, UUID studentId, UUID roomId, LocalDate startDate, LocalDate endDate, RequestStatus status, LocalDateTime createdAt) {
-        this.id = id;
-        this.studentId = studentId;
-        this.roomId = roomId;
+        this(id, studentId, roomId, startDate, endDate, status, createdAt, null);
+    }
+
+    public BookingRequest(UUID id, UUID studentId, UUID roomId, LocalDate startDate, LocalDate endDate, RequestStatus status, LocalDateTime createdAt, String reason) {
+        this(IdLookup.detached(id, studentId, roomId), 0, 1, 2, startDate, endDate, status, createdAt, reason);
+    }
+
+    public BookingRequest(IdLookup ids, int ref, int studentRef, int roomRef, LocalDate startDate, LocalDate endDate, RequestStatus status, LocalDateTime createdAt, String reason) {
+        this.ids = ids;
+        this.ref = ref;
+        this.studentRef = studentRef;
+        this.roomRef = roomRef;
         this.startDate = startDate;
         this.endDate = endDate;
         this.status = status;
         this.createdAt = createdAt;
+        this.reason = reason;
     }
 
-    public UUID getId() { return id; }
+    public UUID getId() { return uuid(ref); }
+
+    public UUID getStudentId() { return uuid(studentRef); }
+
+    public UUID getRoomId() { return uuid(roomRef); }
+
+    public int getRef() { return ref; }
+
+    public int getStudentRef() { return studentRef; }
 
-    public UUID getStudentId() { return studentId; }
+    public int getRoomRef() { return roomRef; }
 
-    public UUID getRoomId() { return roomId; }
+    public IdLookup getIds() { return ids; }
 
     public LocalDate getStartDate() { return startDate; }
 
@@ -37,10 +61,34 @@ public final class BookingRequest {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
 
+    public String getReason() { return reason; }
 
 
+
+    // called as the request leaves its system, before the system releases its refs
+    public void detachIds() { ids = ids.freeze(ref, studentRef, roomRef); }
+
     public void markAccepted() { this.status = RequestStatus.ACCEPTED; }
 
 
-    public void markRejected() { this.status = RequestStatus.REJECTED; }
+    public void markRejected() { markRejected(null); }
+
+    public void markRejected(String reason) {
+        this.reason = reason;
+        this.status = RequestStatus.REJECTED;
+    }
+
+    public void markExpired(String reason) {
+        this.reason = reason;
+        this.status = RequestStatus.EXPIRED;
+    }
+
+    // a detach racing with the read means the registry may already have handed
+    // the ref to another id; the frozen copy then has the right one
+    private UUID uuid(int r) {
+        IdLookup l = ids;
+        UUID id = l.uuid(r);
+        IdLookup now = ids;
+        return now == l ? id : now.uuid(r);
+    }
 }
@@ -0,0 +1,38 @@
+package studentrentals.model;
+
+import java.util.UUID;
+
+// What a batch decision did to one request
+public final class DecisionOutcome {
+
+    public enum Result {
+        ACCEPTED,  // booking confirmed
+        REJECTED,  // rejected as asked
+        CONFLICT,  // accept asked but the dates were taken or outside the window; request rejected
+        ERROR      // not applied (unknown, not pending, not your room...); request unchanged
+    }
+
+    private final UUID requestId;
+    private final Result result;
+    private final Booking booking;
+    private final String message;
+
+    public DecisionOutcome(UUID requestId, Result result, Booking booking, String message) {
+        this.requestId = requestId;
+        this.result = result;
+        this.booking = booking;
+        this.message = message;
+    }
+
+    public UUID getRequestId() { return requestId; }
+    public Result getResult() { return result; }
+    // set when ACCEPTED
+    public Booking getBooking() { return booking; }
+    // reason for CONFLICT and ERROR
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return requestId + ": " + result + (message != null ? " (" + message + ")" : "");
+    }
+}
@@ -1,9 +1,15 @@
 package studentrentals.model;
 
+import studentrentals.util.IdLookup;
+
 import java.util.UUID;
 
 public final class Homeowner extends User {
     public Homeowner(UUID id, String name, String email, String phone, String passwordHash, boolean active) {
         super(id, name, email, phone, passwordHash, active);
     }
+
+    public Homeowner(IdLookup ids, int ref, String name, String email, String phone, String passwordHash, boolean active) {
+        super(ids, ref, name, email, phone, passwordHash, active);
+    }
 }
@@ -1,29 +1,91 @@
 package studentrentals.model;
 
+import studentrentals.util.IdLookup;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
 public final class Property {
-    private final UUID id;
-    private final UUID ownerId;
+    // IdRegistry refs; the UUID getters convert through ids (see Room)
+    private volatile IdLookup ids;
+    private final int ref;
+    private final int ownerRef;
     private final String address;
     private final String area;
     private final String description;
-    private final List<UUID> roomIds = new ArrayList<>();
+    // copy-on-write: replaced whole under the monitor, never changed in place
+    private volatile int[] roomRefs = new int[0];
 
     public Property(UUID id, UUID ownerId, String address, String area, String description) {
-        this.id = id;
-        this.ownerId = ownerId;
+        this(IdLookup.detached(id, ownerId), 0, 1, address, area, description);
+    }
+
+    public Property(IdLookup ids, int ref, int ownerRef, String address, String area, String description) {
+        this.ids = ids;
+        this.ref = ref;
+        this.ownerRef = ownerRef;
         this.address = address;
         this.area = area;
         this.description = description;
     }
 
-    public UUID getId() { return id; }
-    public UUID getOwnerId() { return ownerId; }
+    public UUID getId() { return uuid(ref); }
+    public UUID getOwnerId() { return uuid(ownerRef); }
+    public IdLookup getIds() { return ids; }
+    public int getRef() { return ref; }
+    public int getOwnerRef() { return ownerRef; }
     public String getAddress() { return address; }
     public String getArea() { return area; }
     public String getDescription() { return description; }
-    public List<UUID> getRoomIds() { return roomIds; }
+
+    // a copy; later changes do not show through
+    public List<UUID> getRoomIds() {
+        int[] refs = roomRefs;
+        List<UUID> ids = new ArrayList<>(refs.length);
+        for (int r : refs) ids.add(uuid(r));
+        return ids;
+    }
+
+    // called as the property leaves its system, before the system releases its refs
+    public synchronized void detachIds() {
+        int[] rooms = roomRefs;
+        int[] refs = Arrays.copyOf(rooms, rooms.length + 2);
+        refs[rooms.length] = ref;
+        refs[rooms.length + 1] = ownerRef;
+        ids = ids.freeze(refs);
+    }
+
+    public int[] getRoomRefs() { return roomRefs.clone(); }
+    public int getRoomCount() { return roomRefs.length; }
+
+    public synchronized void addRoomRefs(int... refs) {
+        int[] old = roomRefs;
+        int[] next = Arrays.copyOf(old, old.length + refs.length);
+        System.arraycopy(refs, 0, next, old.length, refs.length);
+        roomRefs = next;
+    }
+
+    public synchronized boolean removeRoomRef(int roomRef) {
+        int[] old = roomRefs;
+        for (int i = 0; i < old.length; i++) {
+            if (old[i] != roomRef) continue;
+            int[] next = new int[old.length - 1];
+            System.arraycopy(old, 0, next, 0, i);
+            System.arraycopy(old, i + 1, next, i, old.length - i - 1);
+            roomRefs = next;
+            return true;
+        }
+        return false;
+    }
+
+    // a detach racing with the read means the registry may already have handed
+    // the ref to another id; the frozen copy then has the right one
+    private UUID uuid(int r) {
+        IdLookup l = ids;
+        UUID id = l.uuid(r);
+        IdLookup now = ids;
+        return now == l ? id : now.uuid(r);
+    }
 }
@@ -0,0 +1,17 @@
+package studentrentals.model;
+
+import java.util.UUID;
+
+// One entry of a batch decision: accept or reject a pending request
+public final class RequestDecision {
+    private final UUID requestId;
+    private final boolean accept;
+
+    public RequestDecision(UUID requestId, boolean accept) {
+        this.requestId = requestId;
+        this.accept = accept;
+    }
+
+    public UUID getRequestId() { return requestId; }
+    public boolean isAccept() { return accept; }
+}
@@ -3,5 +3,6 @@ package studentrentals.model;
 public enum RequestStatus {
     PENDING,
     ACCEPTED,
-    REJECTED
+    REJECTED,
+    EXPIRED   // never decided: its start date passed or it outlived the request TTL
 }
@@ -1,51 +1,105 @@
 package studentrentals.model;
 
-import studentrentals.util.DateRangeUtil;
+import studentrentals.util.DayCalendar;
+import studentrentals.util.IdLookup;
+import studentrentals.util.IntervalTree;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 public final class Room {
-    private final UUID id;
-    private final UUID propertyId;
-    private final UUID ownerId;
-    private RoomType type;
-    private int pricePerMonth;
-    private String amenities;
-    private LocalDate availableFrom;
-    private LocalDate availableTo;
-
-    // for FR-14 (double-book prevention)
-    private final List<Booking> confirmedBookings = new ArrayList<>();
+    // calendar span cap (~11 years); queries past it fall back to the booking tree
+    private static final int CALENDAR_MAX_DAYS = 4096;
+
+    // IdRegistry refs; the UUID getters convert through ids, which is the
+    // system's registry while the room is held and a frozen copy once it is gone
+    private volatile IdLookup ids;
+    private final int ref;
+    private final int propertyRef;
+    private final int ownerRef;
+    // mutable fields are written under the room's lock but read lock-free by listings
+    private volatile RoomType type;
+    private volatile int pricePerMonth;
+    private volatile String amenities;
+    private volatile LocalDate availableFrom;
+    private volatile LocalDate availableTo;
+
+    // dense slot assigned by the search index; -1 while the room is not indexed
+    private int ordinal = -1;
+
+    // for FR-14 (double-book prevention), ordered by date for O(log n) overlap checks
+    private final IntervalTree<Booking> confirmedBookings = new IntervalTree<>();
+    // free days = availability window minus confirmed bookings, kept in step with both
+    private volatile DayCalendar calendar;
+    // PENDING requests by date, so a confirmed booking can find the ones it clashes with.
+    // Requests are added under the room's read lock, so this also has its own monitor.
+    private final IntervalTree<BookingRequest> pendingRequests = new IntervalTree<>();
 
     public Room(UUID id, UUID propertyId, UUID ownerId, RoomType type, int pricePerMonth, String amenities, LocalDate availableFrom, LocalDate availableTo) {
-        this.id = id;
-        this.propertyId = propertyId;
-        this.ownerId = ownerId;
+        this(IdLookup.detached(id, propertyId, ownerId), 0, 1, 2, type, pricePerMonth, amenities,
+                availableFrom, availableTo);
+    }
+
+    public Room(IdLookup ids, int ref, int propertyRef, int ownerRef, RoomType type, int pricePerMonth, String amenities, LocalDate availableFrom, LocalDate availableTo) {
+        this.ids = ids;
+        this.ref = ref;
+        this.propertyRef = propertyRef;
+        this.ownerRef = ownerRef;
         this.type = type;
         this.pricePerMonth = pricePerMonth;
         this.amenities = amenities;
         this.availableFrom = availableFrom;
         this.availableTo = availableTo;
+        this.calendar = DayCalendar.free(availableFrom, availableTo, CALENDAR_MAX_DAYS);
     }
 
-    public UUID getId() { return id; }
-    public UUID getPropertyId() { return propertyId; }
-    public UUID getOwnerId() { return ownerId; }
+    public UUID getId() { return uuid(ref); }
+    public UUID getPropertyId() { return uuid(propertyRef); }
+    public UUID getOwnerId() { return uuid(ownerRef); }
+    // the id's halves without building a UUID, for sort keys
+    public long getIdMostBits() { return half(true); }
+    public long getIdLeastBits() { return half(false); }
+    public IdLookup getIds() { return ids; }
+    public int getRef() { return ref; }
+    public int getPropertyRef() { return propertyRef; }
+    public int getOwnerRef() { return ownerRef; }
     public RoomType getType() { return type; }
     public int getPricePerMonth() { return pricePerMonth; }
     public String getAmenities() { return amenities; }
     public LocalDate getAvailableFrom() { return availableFrom; }
     public LocalDate getAvailableTo() { return availableTo; }
-    public List<Booking> getConfirmedBookings() { return confirmedBookings; }
+    public int getOrdinal() { return ordinal; }
+    public List<Booking> getConfirmedBookings() { return confirmedBookings.toList(); }
+    public boolean hasConfirmedBookings() { return !confirmedBookings.isEmpty(); }
 
     public void setType(RoomType type) { this.type = type; }
     public void setPricePerMonth(int pricePerMonth) { this.pricePerMonth = pricePerMonth; }
     public void setAmenities(String amenities) { this.amenities = amenities; }
-    public void setAvailableFrom(LocalDate availableFrom) { this.availableFrom = availableFrom; }
-    public void setAvailableTo(LocalDate availableTo) { this.availableTo = availableTo; }
+    public void setAvailableFrom(LocalDate availableFrom) { setAvailability(availableFrom, availableTo); }
+    public void setAvailableTo(LocalDate availableTo) { setAvailability(availableFrom, availableTo); }
+
+    public void setAvailability(LocalDate from, LocalDate to) {
+        if (from.equals(availableFrom) && to.equals(availableTo)) return;
+        DayCalendar old = calendar;
+        DayCalendar next = old.resize(from, to, CALENDAR_MAX_DAYS);
+
+        // only days new to the window need their bookings applied
+        long oldFirst = old.getFirstDay().toEpochDay();
+        long oldEnd = old.getEndDay().toEpochDay();
+        long newFirst = next.getFirstDay().toEpochDay();
+        long newEnd = next.getEndDay().toEpochDay();
+        markBookedDays(next, newFirst, Math.min(newEnd, oldFirst));
+        markBookedDays(next, Math.max(newFirst, oldEnd), newEnd);
+
+        this.availableFrom = from;
+        this.availableTo = to;
+        this.calendar = next;
+    }
+    public void setOrdinal(int ordinal) { this.ordinal = ordinal; }
+
+    // called as the room leaves its system, before the system releases its refs
+    public void detachIds() { ids = ids.freeze(ref, propertyRef, ownerRef); }
 
 
     public boolean isWithinWindow(LocalDate start, LocalDate end) {
@@ -56,15 +110,109 @@ public final class Room {
 
 
     public boolean isAvailable(LocalDate start, LocalDate end) {
-        for (Booking b : confirmedBookings) {
-            if (DateRangeUtil.overlaps(start, end, b.getStartDate(), b.getEndDate())) {
-                return false;
+        return !confirmedBookings.overlapsAny(start, end);
+    }
+
+    // isWithinWindow && isAvailable in one pass over the calendar bits
+    public boolean isFreeFor(LocalDate start, LocalDate end) {
+        if (start == null || end == null || !start.isBefore(end)) return false;
+        DayCalendar cal = calendar;
+        if (cal.covers(start, end)) return cal.isFree(start, end);
+        return isWithinWindow(start, end) && isAvailable(start, end);
+    }
+
+    // Bookings that clash with [start, end), in start-date order
+    public List<Booking> findConflictingBookings(LocalDate start, LocalDate end) {
+        return confirmedBookings.findOverlapping(start, end);
+    }
+
+    // Earliest start in [earliestStart, latestStart] of 'days' free consecutive days, or null
+    public LocalDate earliestFreeStart(LocalDate earliestStart, LocalDate latestStart, int days) {
+        LocalDate from = earliestStart.isBefore(availableFrom) ? availableFrom : earliestStart;
+        LocalDate limit = latestStart.plusDays(days);
+        if (limit.isAfter(availableTo)) limit = availableTo;
+        if (from.plusDays(days).isAfter(limit)) return null;
+
+        DayCalendar cal = calendar;
+        if (cal.covers(from, limit)) return cal.firstFreeRun(from, limit, days);
+
+        // past the calendar span: walk the gaps between bookings instead
+        LocalDate candidate = from;
+        for (Booking b : confirmedBookings.findOverlapping(from, limit)) {
+            if (!candidate.plusDays(days).isAfter(b.getStartDate())) return candidate;
+            if (b.getEndDate().isAfter(candidate)) candidate = b.getEndDate();
+        }
+        return candidate.plusDays(days).isAfter(limit) ? null : candidate;
+    }
+
+    public void addConfirmedBooking(Booking b) {
+        confirmedBookings.insert(b.getStartDate(), b.getEndDate(), b);
+        calendar.markBusy(b.getStartDate(), b.getEndDate());
+    }
+
+    public void addPendingRequest(BookingRequest req) {
+        synchronized (pendingRequests) {
+            pendingRequests.insert(req.getStartDate(), req.getEndDate(), req);
+        }
+    }
+
+    public boolean removePendingRequest(BookingRequest req) {
+        synchronized (pendingRequests) {
+            return pendingRequests.remove(req.getStartDate(), req.getEndDate(), req);
+        }
+    }
+
+    // Removes and returns the pending requests that overlap [start, end)
+    public List<BookingRequest> takePendingOverlapping(LocalDate start, LocalDate end) {
+        synchronized (pendingRequests) {
+            List<BookingRequest> clashing = pendingRequests.findOverlapping(start, end);
+            for (BookingRequest req : clashing) {
+                pendingRequests.remove(req.getStartDate(), req.getEndDate(), req);
             }
+            return clashing;
+        }
+    }
+
+    public int pendingRequestCount() {
+        synchronized (pendingRequests) {
+            return pendingRequests.size();
+        }
+    }
+
+    public boolean removeConfirmedBooking(Booking b) {
+        if (!confirmedBookings.remove(b.getStartDate(), b.getEndDate(), b)) return false;
+        DayCalendar cal = calendar;
+        cal.markFree(b.getStartDate(), b.getEndDate());
+        // another booking may still cover some of those days
+        for (Booking other : confirmedBookings.findOverlapping(b.getStartDate(), b.getEndDate())) {
+            cal.markBusy(other.getStartDate(), other.getEndDate());
         }
         return true;
     }
 
-    public void addConfirmedBooking(Booking b) {
-        confirmedBookings.add(b);
+    private void markBookedDays(DayCalendar cal, long fromDay, long toDay) {
+        if (fromDay >= toDay) return;
+        LocalDate from = LocalDate.ofEpochDay(fromDay);
+        LocalDate to = LocalDate.ofEpochDay(toDay);
+        for (Booking b : confirmedBookings.findOverlapping(from, to)) {
+            cal.markBusy(b.getStartDate(), b.getEndDate());
+        }
+    }
+
+    // a detach racing with the read means the registry may already have handed
+    // the ref to another id; the frozen copy then has the right one
+    private UUID uuid(int r) {
+        IdLookup l = ids;
+        UUID id = l.uuid(r);
+        IdLookup now = ids;
+        return now == l ? id : now.uuid(r);
+    }
+
+    private long half(boolean most) {
+        IdLookup l = ids;
+        long v = most ? l.mostSignificantBits(ref) : l.leastSignificantBits(ref);
+        IdLookup now = ids;
+        if (now == l) return v;
+        return most ? now.mostSignificantBits(ref) : now.leastSignificantBits(ref);
     }
 }
@@ -1,5 +1,7 @@
 package studentrentals.model;
 
+import studentrentals.util.IdLookup;
+
 import java.util.UUID;
 
 public final class Student extends User {
@@ -12,6 +14,12 @@ public final class Student extends User {
         this.studentId = studentId;
     }
 
+    public Student(IdLookup ids, int ref, String name, String email, String phone, String passwordHash, boolean active, String universityName, String studentId) {
+        super(ids, ref, name, email, phone, passwordHash, active);
+        this.universityName = universityName;
+        this.studentId = studentId;
+    }
+
     public String getUniversityName() { return universityName; }
 
     
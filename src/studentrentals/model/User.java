@@ -1,17 +1,27 @@
 package studentrentals.model;
 
+import studentrentals.util.IdLookup;
+
 import java.util.UUID;
 
 public abstract class User {
-    private final UUID id;
+    // IdRegistry ref; getId converts. Users are never removed, so unlike the
+    // other entities they keep their lookup for good
+    private final IdLookup ids;
+    private final int ref;
     private final String name;
     private final String email;
     private final String phone;
     private final String passwordHash;
-    private boolean active;
+    private volatile boolean active;
 
     protected User(UUID id, String name, String email, String phone, String passwordHash, boolean active) {
-        this.id = id;
+        this(IdLookup.detached(id), 0, name, email, phone, passwordHash, active);
+    }
+
+    protected User(IdLookup ids, int ref, String name, String email, String phone, String passwordHash, boolean active) {
+        this.ids = ids;
+        this.ref = ref;
         this.name = name;
         this.email = email;
         this.phone = phone;
@@ -19,7 +29,9 @@ public abstract class User {
         this.active = active;
     }
 
-    public UUID getId() { return id; }
+    public UUID getId() { return ids.uuid(ref); }
+    public int getRef() { return ref; }
+    public IdLookup getIds() { return ids; }
     
     public String getName() { return name; }
     public String getEmail() { return email; }
@@ -0,0 +1,215 @@
+package studentrentals.persistence;
+
+import studentrentals.model.Booking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Append-only cold store for completed bookings (bookings.archive in the data
+// directory). Bookings are packed into fixed 68-byte records:
+//   id, studentId, roomId (2 longs each), start and end epoch day (int each),
+//   confirmedAt epoch second (long) and nanos (int)
+// written in blocks of [int count][records][int crc32 of the records], each
+// block fsynced before append() returns. A torn last block is cut off on open.
+// Reads stream block by block and never load the whole file.
+public final class BookingArchive implements AutoCloseable {
+
+    static final int MAGIC = 0x53524241; // "SRBA"
+    static final int VERSION = 1;
+    private static final String FILE_NAME = "bookings.archive";
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 68;
+    private static final int MAX_BLOCK_RECORDS = 4096;
+
+    private final Path file;
+    private final FileChannel channel;
+    // end of the last complete block; readers never look past it
+    private volatile long committedLength;
+    private volatile long count;
+    // latest end date of any archived booking (epoch day), or NO_END while empty
+    private volatile long archivedThrough;
+
+    private static final long NO_END = Long.MIN_VALUE;
+
+    private BookingArchive(Path file, FileChannel channel, long committedLength, long count, long archivedThrough) {
+        this.file = file;
+        this.channel = channel;
+        this.committedLength = committedLength;
+        this.count = count;
+        this.archivedThrough = archivedThrough;
+    }
+
+    public static BookingArchive open(Path dir) {
+        Path file = dir.resolve(FILE_NAME);
+        try {
+            Files.createDirectories(dir);
+            FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                if (ch.size() == 0) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                    writeFully(ch, header, 0);
+                    ch.force(true);
+                    return new BookingArchive(file, ch, HEADER_BYTES, 0, NO_END);
+                }
+                ByteBuffer header = readFully(ch, 0, HEADER_BYTES);
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IllegalStateException("Not a booking archive: " + file);
+                }
+
+                // walk the blocks to find the last complete one
+                long pos = HEADER_BYTES;
+                long records = 0;
+                long through = NO_END;
+                long size = ch.size();
+                while (pos + 4 <= size) {
+                    int n = readFully(ch, pos, 4).getInt();
+                    long blockBytes = 4L + (long) n * RECORD_BYTES + 4;
+                    if (n <= 0 || n > MAX_BLOCK_RECORDS || pos + blockBytes > size) break;
+                    ByteBuffer block = readFully(ch, pos + 4, (int) blockBytes - 4);
+                    if (crc(block, n * RECORD_BYTES) != block.getInt(n * RECORD_BYTES)) break;
+                    for (int i = 0; i < n; i++) through = Math.max(through, block.getInt(i * RECORD_BYTES + 52));
+                    pos += blockBytes;
+                    records += n;
+                }
+                if (pos < size) ch.truncate(pos);
+                return new BookingArchive(file, ch, pos, records, through);
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open booking archive " + file, e);
+        }
+    }
+
+    public Path getFile() { return file; }
+
+    // bookings archived so far
+    public long size() { return count; }
+
+    // End date of the latest-ending archived booking, or null while the archive is
+    // empty: every archived day falls before it
+    public LocalDate archivedThrough() {
+        long through = archivedThrough;
+        return through == NO_END ? null : LocalDate.ofEpochDay(through);
+    }
+
+    // Durable once this returns
+    public synchronized void append(List<Booking> bookings) {
+        try {
+            long pos = committedLength;
+            long through = archivedThrough;
+            for (int from = 0; from < bookings.size(); from += MAX_BLOCK_RECORDS) {
+                List<Booking> part = bookings.subList(from, Math.min(bookings.size(), from + MAX_BLOCK_RECORDS));
+                ByteBuffer block = ByteBuffer.allocate(4 + part.size() * RECORD_BYTES + 4);
+                block.putInt(part.size());
+                for (Booking b : part) {
+                    put(block, b);
+                    through = Math.max(through, b.getEndDate().toEpochDay());
+                }
+                block.putInt(crc(block.slice(4, part.size() * RECORD_BYTES), part.size() * RECORD_BYTES));
+                block.flip();
+                writeFully(channel, block, pos);
+                pos += block.limit();
+            }
+            channel.force(false);
+            committedLength = pos;
+            count += bookings.size();
+            archivedThrough = through;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to booking archive " + file, e);
+        }
+    }
+
+    // Streams archived bookings in archive order; roomId == null means every room.
+    // Records of other rooms are skipped before any object is built.
+    public void forEach(UUID roomId, Consumer<Booking> sink) {
+        long end = committedLength;
+        long pos = HEADER_BYTES;
+        try {
+            while (pos < end) {
+                int n = readFully(channel, pos, 4).getInt();
+                ByteBuffer block = readFully(channel, pos + 4, n * RECORD_BYTES);
+                for (int i = 0; i < n; i++) {
+                    int at = i * RECORD_BYTES;
+                    if (roomId != null && (block.getLong(at + 32) != roomId.getMostSignificantBits()
+                            || block.getLong(at + 40) != roomId.getLeastSignificantBits())) {
+                        continue;
+                    }
+                    sink.accept(get(block, at));
+                }
+                pos += 4L + (long) n * RECORD_BYTES + 4;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read booking archive " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void put(ByteBuffer out, Booking b) {
+        putUuid(out, b.getId());
+        putUuid(out, b.getStudentId());
+        putUuid(out, b.getRoomId());
+        out.putInt((int) b.getStartDate().toEpochDay());
+        out.putInt((int) b.getEndDate().toEpochDay());
+        out.putLong(b.getConfirmedAt().toEpochSecond(ZoneOffset.UTC));
+        out.putInt(b.getConfirmedAt().getNano());
+    }
+
+    private static Booking get(ByteBuffer in, int at) {
+        return new Booking(
+                new UUID(in.getLong(at), in.getLong(at + 8)),
+                new UUID(in.getLong(at + 16), in.getLong(at + 24)),
+                new UUID(in.getLong(at + 32), in.getLong(at + 40)),
+                LocalDate.ofEpochDay(in.getInt(at + 48)),
+                LocalDate.ofEpochDay(in.getInt(at + 52)),
+                LocalDateTime.ofEpochSecond(in.getLong(at + 56), in.getInt(at + 64), ZoneOffset.UTC));
+    }
+
+    private static void putUuid(ByteBuffer out, UUID id) {
+        out.putLong(id.getMostSignificantBits());
+        out.putLong(id.getLeastSignificantBits());
+    }
+
+    private static int crc(ByteBuffer buf, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(buf.slice(0, len));
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            pos += ch.write(buf, pos);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long pos, int len) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos + buf.position());
+            if (n < 0) throw new IOException("Unexpected end of archive.");
+        }
+        return buf.flip();
+    }
+}
@@ -0,0 +1,342 @@
+package studentrentals.persistence;
+
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only binary journal of state changes, split into numbered segment
+// files. Appends only enqueue; a background thread writes queued records with
+// one gathering write and one fsync per group (group commit), so callers never
+// wait on the disk. Frame: [int length][record][int crc32 of record].
+public final class Journal implements AutoCloseable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final int groupCommitRecords;
+    private final long groupCommitNanos;
+
+    private final Object lock = new Object();
+    // held while writing to the channel, so rotation never interleaves with a group write
+    private final Object ioLock = new Object();
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long pendingSince;
+    private long appendedCount;
+    private long durableCount;
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+
+    private FileChannel channel;
+    private long segment;
+    private final Thread flusher;
+
+    private Journal(Path dir, int groupCommitRecords, long groupCommitMillis) throws IOException {
+        this.dir = dir;
+        this.groupCommitRecords = groupCommitRecords;
+        this.groupCommitNanos = groupCommitMillis * 1_000_000L;
+        Files.createDirectories(dir);
+
+        // never append after a possibly torn tail: always start a fresh segment
+        List<Long> existing = segments(dir);
+        segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        channel = openSegment(segment);
+
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // groupCommitRecords: fsync once this many records are queued;
+    // groupCommitMillis: or once the oldest queued record has waited this long.
+    public static Journal open(Path dir, int groupCommitRecords, long groupCommitMillis) {
+        if (groupCommitRecords <= 0) throw new IllegalArgumentException("Group commit size must be > 0.");
+        if (groupCommitMillis < 0) throw new IllegalArgumentException("Group commit delay must be >= 0.");
+        try {
+            return new Journal(dir, groupCommitRecords, groupCommitMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal in " + dir, e);
+        }
+    }
+
+    public Path getDirectory() { return dir; }
+
+    // Replays every segment written before this journal was opened, oldest first.
+    // A torn or corrupt record ends its segment (it was never acknowledged as durable).
+    public void replay(JournalHandler handler) {
+        replay(handler, 0);
+    }
+
+    // Same, skipping segments numbered below fromSegment (already covered by a snapshot)
+    public void replay(JournalHandler handler, long fromSegment) {
+        try {
+            for (long seg : segments(dir)) {
+                if (seg < fromSegment) continue;
+                if (seg >= currentSegment()) break;
+                replaySegment(segmentPath(seg), handler);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal replay failed.", e);
+        }
+    }
+
+    // Flushes what is queued into the current segment and starts a new one.
+    // Returns the new segment number: every record appended after this call
+    // returns lands in that segment or a later one.
+    public long rotate() {
+        synchronized (ioLock) {
+            List<ByteBuffer> batch;
+            long batchEnd;
+            long next;
+            synchronized (lock) {
+                if (closed) throw new IllegalStateException("Journal is closed.");
+                batch = pending;
+                pending = new ArrayList<>();
+                batchEnd = appendedCount;
+                next = segment + 1;
+                // later appends queue up behind ioLock and go to the new segment
+                segment = next;
+            }
+            try {
+                writeBatch(batch);
+                channel.close();
+                channel = openSegment(next);
+            } catch (IOException e) {
+                fail(e);
+                throw new UncheckedIOException("Journal rotation failed.", e);
+            }
+            markDurable(batchEnd);
+            return next;
+        }
+    }
+
+    // Deletes segments numbered below the given one (they are covered by a snapshot)
+    public void deleteSegmentsBefore(long keepFrom) {
+        try {
+            for (long seg : segments(dir)) {
+                if (seg < keepFrom) Files.deleteIfExists(segmentPath(seg));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate journal.", e);
+        }
+    }
+
+    private long currentSegment() {
+        synchronized (lock) {
+            return segment;
+        }
+    }
+
+    public void appendUser(User u) { append(RecordCodec.user(u)); }
+
+    public void appendUserDeactivated(String email) { append(RecordCodec.userDeactivated(email)); }
+
+    public void appendProperty(Property p) { append(RecordCodec.property(p)); }
+
+    public void appendPropertyRemoved(UUID propertyId) { append(RecordCodec.propertyRemoved(propertyId)); }
+
+    public void appendRoom(Room r) { append(RecordCodec.room(r)); }
+
+    public void appendRoomRemoved(UUID roomId) { append(RecordCodec.roomRemoved(roomId)); }
+
+    public void appendRequest(BookingRequest req) { append(RecordCodec.request(req)); }
+
+    public void appendBooking(Booking b) { append(RecordCodec.booking(b)); }
+
+    public void appendBookingArchived(UUID bookingId, UUID roomId) { append(RecordCodec.bookingArchived(bookingId, roomId)); }
+
+    private void append(byte[] record) {
+        ByteBuffer frame = ByteBuffer.allocate(record.length + 8);
+        frame.putInt(record.length);
+        frame.put(record);
+        frame.putInt(crc(record, 0, record.length));
+        frame.flip();
+
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Journal is closed.");
+            if (failure != null) throw new UncheckedIOException("Journal write failed.", failure);
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+            }
+            pending.add(frame);
+            appendedCount++;
+            if (pending.size() >= groupCommitRecords) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Blocks until everything appended so far has been fsynced.
+    public void sync() {
+        synchronized (lock) {
+            long target = appendedCount;
+            flushRequested = true;
+            lock.notifyAll();
+            while (durableCount < target && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while syncing journal.", e);
+                }
+            }
+            if (failure != null) throw new UncheckedIOException("Journal write failed.", failure);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+            synchronized (ioLock) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (lock) {
+                try {
+                    while (!closed && !groupReady()) {
+                        if (pending.isEmpty()) {
+                            lock.wait();
+                        } else {
+                            long waitNanos = groupCommitNanos - (System.nanoTime() - pendingSince);
+                            lock.wait(Math.max(1, waitNanos / 1_000_000L));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (pending.isEmpty() && closed) return;
+            }
+
+            // take the batch under ioLock so groups reach the disk in append order
+            synchronized (ioLock) {
+                List<ByteBuffer> batch;
+                long batchEnd;
+                synchronized (lock) {
+                    batch = pending;
+                    pending = new ArrayList<>();
+                    flushRequested = false;
+                    batchEnd = appendedCount;
+                }
+                try {
+                    writeBatch(batch);
+                } catch (IOException e) {
+                    fail(e);
+                    return;
+                }
+                markDurable(batchEnd);
+            }
+        }
+    }
+
+    // caller holds ioLock
+    private void writeBatch(List<ByteBuffer> batch) throws IOException {
+        if (batch.isEmpty()) return;
+        ByteBuffer[] frames = batch.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer f : frames) remaining += f.remaining();
+        while (remaining > 0) {
+            remaining -= channel.write(frames);
+        }
+        channel.force(false);
+    }
+
+    private void markDurable(long count) {
+        synchronized (lock) {
+            durableCount = count;
+            lock.notifyAll();
+        }
+    }
+
+    private void fail(IOException e) {
+        synchronized (lock) {
+            failure = e;
+            lock.notifyAll();
+        }
+    }
+
+    // caller holds lock
+    private boolean groupReady() {
+        if (pending.isEmpty()) return false;
+        // full group, a sync() caller waiting, or the oldest record has waited long enough
+        return pending.size() >= groupCommitRecords || flushRequested
+                || System.nanoTime() - pendingSince >= groupCommitNanos;
+    }
+
+    private void replaySegment(Path file, JournalHandler handler) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) ch.size());
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {
+                // keep reading
+            }
+            buf.flip();
+            while (buf.remaining() >= 4) {
+                int len = buf.getInt();
+                // torn tail: a partial frame, or a length so large that len + 4 would overflow
+                if (len <= 0 || len > buf.remaining() - 4) break;
+                int start = buf.position();
+                int crc = crc(buf.array(), start, len);
+                if (buf.getInt(start + len) != crc) break;
+
+                ByteBuffer record = buf.slice(start, len);
+                RecordCodec.decode(record, handler);
+                buf.position(start + len + 4);
+            }
+        }
+    }
+
+    private FileChannel openSegment(long seg) throws IOException {
+        return FileChannel.open(segmentPath(seg), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long seg) {
+        return dir.resolve(String.format("%s%010d%s", PREFIX, seg, SUFFIX));
+    }
+
+    private static List<Long> segments(Path dir) throws IOException {
+        List<Long> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(PREFIX) && n.endsWith(SUFFIX))
+                    .forEach(n -> out.add(Long.parseLong(n.substring(PREFIX.length(), n.length() - SUFFIX.length()))));
+        }
+        out.sort(null);
+        return out;
+    }
+
+    private static int crc(byte[] data, int off, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(data, off, len);
+        return (int) crc.getValue();
+    }
+}
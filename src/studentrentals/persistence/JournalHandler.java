@@ -0,0 +1,35 @@
+package studentrentals.persistence;
+
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.User;
+
+import java.util.UUID;
+
+// Receives decoded records during replay. Records carry absolute state
+// (not deltas), so applying the same record twice must be harmless.
+public interface JournalHandler {
+    void onUser(User user);
+
+    void onUserDeactivated(String email);
+
+    void onProperty(Property property);
+
+    // Also removes whatever rooms are still filed under the property
+    void onPropertyRemoved(UUID propertyId);
+
+    // Detached room holding the full current state after an add or update
+    void onRoom(Room room);
+
+    void onRoomRemoved(UUID roomId);
+
+    // Full request state, logged on creation and on every status change
+    void onRequest(BookingRequest request);
+
+    void onBooking(Booking booking);
+
+    // The booking now lives in the BookingArchive only
+    void onBookingArchived(UUID bookingId, UUID roomId);
+}
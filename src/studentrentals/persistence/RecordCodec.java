@@ -0,0 +1,216 @@
+package studentrentals.persistence;
+
+import studentrentals.model.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+// Binary encoding of the domain records shared by the journal and snapshots.
+// Layout of one record: [type byte][payload]; framing is up to the caller.
+final class RecordCodec {
+    private RecordCodec() {}
+
+    static final byte USER = 1;
+    static final byte USER_DEACTIVATED = 2;
+    static final byte PROPERTY = 3;
+    static final byte ROOM = 4;
+    static final byte ROOM_REMOVED = 5;
+    static final byte REQUEST = 6;
+    static final byte BOOKING = 7;
+    // REQUEST plus a rejection reason; plain REQUEST is still written when there is none
+    static final byte REQUEST_WITH_REASON = 8;
+    // booking moved to the cold archive; drops it from memory on replay
+    static final byte BOOKING_ARCHIVED = 9;
+    // property (and any rooms still under it) moved off this instance
+    static final byte PROPERTY_REMOVED = 10;
+
+    private static final byte STUDENT = 0;
+    private static final byte HOMEOWNER = 1;
+    private static final byte ADMIN = 2;
+
+    static byte[] user(User u) {
+        return encode(USER, out -> {
+            byte kind = (u instanceof Student) ? STUDENT : (u instanceof Homeowner) ? HOMEOWNER : ADMIN;
+            out.writeByte(kind);
+            writeUuid(out, u.getId());
+            writeString(out, u.getName());
+            writeString(out, u.getEmail());
+            writeString(out, u.getPhone());
+            writeString(out, u.getPasswordHash());
+            out.writeBoolean(u.isActive());
+            if (u instanceof Student s) {
+                writeString(out, s.getUniversityName());
+                writeString(out, s.getStudentId());
+            }
+        });
+    }
+
+    static byte[] userDeactivated(String email) {
+        return encode(USER_DEACTIVATED, out -> writeString(out, email));
+    }
+
+    static byte[] property(Property p) {
+        return encode(PROPERTY, out -> {
+            writeUuid(out, p.getId());
+            writeUuid(out, p.getOwnerId());
+            writeString(out, p.getAddress());
+            writeString(out, p.getArea());
+            writeString(out, p.getDescription());
+        });
+    }
+
+    static byte[] propertyRemoved(UUID propertyId) {
+        return encode(PROPERTY_REMOVED, out -> writeUuid(out, propertyId));
+    }
+
+    static byte[] room(Room r) {
+        return encode(ROOM, out -> {
+            writeUuid(out, r.getId());
+            writeUuid(out, r.getPropertyId());
+            writeUuid(out, r.getOwnerId());
+            out.writeByte(r.getType().ordinal());
+            out.writeInt(r.getPricePerMonth());
+            writeString(out, r.getAmenities());
+            writeDate(out, r.getAvailableFrom());
+            writeDate(out, r.getAvailableTo());
+        });
+    }
+
+    static byte[] roomRemoved(UUID roomId) {
+        return encode(ROOM_REMOVED, out -> writeUuid(out, roomId));
+    }
+
+    static byte[] request(BookingRequest req) {
+        String reason = req.getReason();
+        return encode(reason == null ? REQUEST : REQUEST_WITH_REASON, out -> {
+            writeUuid(out, req.getId());
+            writeUuid(out, req.getStudentId());
+            writeUuid(out, req.getRoomId());
+            writeDate(out, req.getStartDate());
+            writeDate(out, req.getEndDate());
+            out.writeByte(req.getStatus().ordinal());
+            writeDateTime(out, req.getCreatedAt());
+            if (reason != null) writeString(out, reason);
+        });
+    }
+
+    static byte[] booking(Booking b) {
+        return encode(BOOKING, out -> {
+            writeUuid(out, b.getId());
+            writeUuid(out, b.getStudentId());
+            writeUuid(out, b.getRoomId());
+            writeDate(out, b.getStartDate());
+            writeDate(out, b.getEndDate());
+            writeDateTime(out, b.getConfirmedAt());
+        });
+    }
+
+    static byte[] bookingArchived(UUID bookingId, UUID roomId) {
+        return encode(BOOKING_ARCHIVED, out -> {
+            writeUuid(out, bookingId);
+            writeUuid(out, roomId);
+        });
+    }
+
+    // Decodes one record (type byte + payload) from the buffer's position
+    static void decode(ByteBuffer in, JournalHandler handler) {
+        byte type = in.get();
+        switch (type) {
+            case USER -> handler.onUser(readUser(in));
+            case USER_DEACTIVATED -> handler.onUserDeactivated(readString(in));
+            case PROPERTY -> handler.onProperty(new Property(readUuid(in), readUuid(in), readString(in), readString(in), readString(in)));
+            case ROOM -> handler.onRoom(new Room(readUuid(in), readUuid(in), readUuid(in), RoomType.values()[in.get()],
+                    in.getInt(), readString(in), readDate(in), readDate(in)));
+            case ROOM_REMOVED -> handler.onRoomRemoved(readUuid(in));
+            case REQUEST -> handler.onRequest(new BookingRequest(readUuid(in), readUuid(in), readUuid(in), readDate(in), readDate(in),
+                    RequestStatus.values()[in.get()], readDateTime(in)));
+            case REQUEST_WITH_REASON -> handler.onRequest(new BookingRequest(readUuid(in), readUuid(in), readUuid(in), readDate(in),
+                    readDate(in), RequestStatus.values()[in.get()], readDateTime(in), readString(in)));
+            case BOOKING -> handler.onBooking(new Booking(readUuid(in), readUuid(in), readUuid(in), readDate(in), readDate(in),
+                    readDateTime(in)));
+            case BOOKING_ARCHIVED -> handler.onBookingArchived(readUuid(in), readUuid(in));
+            case PROPERTY_REMOVED -> handler.onPropertyRemoved(readUuid(in));
+            default -> throw new IllegalStateException("Unknown record type " + type + ".");
+        }
+    }
+
+    private static User readUser(ByteBuffer in) {
+        byte kind = in.get();
+        UUID id = readUuid(in);
+        String name = readString(in);
+        String email = readString(in);
+        String phone = readString(in);
+        String hash = readString(in);
+        boolean active = in.get() != 0;
+        return switch (kind) {
+            case STUDENT -> new Student(id, name, email, phone, hash, active, readString(in), readString(in));
+            case HOMEOWNER -> new Homeowner(id, name, email, phone, hash, active);
+            case ADMIN -> new Administrator(id, name, email, phone, hash, active);
+            default -> throw new IllegalStateException("Unknown user kind " + kind + ".");
+        };
+    }
+
+    interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    static byte[] encode(byte type, Body body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            body.write(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // in-memory streams do not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    static String readString(ByteBuffer in) {
+        byte[] b = new byte[in.getInt()];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    static void writeDate(DataOutputStream out, LocalDate d) throws IOException {
+        out.writeLong(d.toEpochDay());
+    }
+
+    static LocalDate readDate(ByteBuffer in) {
+        return LocalDate.ofEpochDay(in.getLong());
+    }
+
+    static void writeDateTime(DataOutputStream out, LocalDateTime t) throws IOException {
+        out.writeLong(t.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(t.getNano());
+    }
+
+    static LocalDateTime readDateTime(ByteBuffer in) {
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,17 @@
+package studentrentals.persistence;
+
+import studentrentals.model.Room;
+import studentrentals.search.RoomBitmap;
+
+import java.util.Map;
+
+// Receives a snapshot as it is loaded: the room index first, then users,
+// properties, rooms (with their ordinals), requests and bookings.
+public interface SnapshotHandler extends JournalHandler {
+    void onRoomIndex(int nextOrdinal, int[] freeOrdinals, Map<String, RoomBitmap> areaPostings);
+
+    void onIndexedRoom(int ordinal, Room room);
+
+    // All sections have been delivered
+    void onSnapshotLoaded();
+}
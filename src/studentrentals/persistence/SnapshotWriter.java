@@ -0,0 +1,127 @@
+package studentrentals.persistence;
+
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.User;
+import studentrentals.search.RoomBitmap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+// Streams a snapshot to a temporary file and publishes it with an atomic rename,
+// so a snapshot file that exists under its final name is always complete.
+// Sections must be written in order: room index, users, properties, rooms,
+// requests, bookings; each section starts with its record count.
+public final class SnapshotWriter implements AutoCloseable {
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private boolean committed;
+
+    private SnapshotWriter(Path dir, long journalSegment) throws IOException {
+        this.target = dir.resolve(Snapshots.fileName(journalSegment));
+        this.temp = dir.resolve(Snapshots.fileName(journalSegment) + ".tmp");
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+        out.writeInt(Snapshots.MAGIC);
+        out.writeInt(Snapshots.VERSION);
+        out.writeLong(journalSegment);
+    }
+
+    // journalSegment: first journal segment not covered by this snapshot
+    public static SnapshotWriter create(Path dir, long journalSegment) {
+        try {
+            return new SnapshotWriter(dir, journalSegment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create snapshot in " + dir, e);
+        }
+    }
+
+    public void writeRoomIndex(int nextOrdinal, int[] freeOrdinals, Map<String, RoomBitmap> areaPostings) {
+        try {
+            out.writeInt(nextOrdinal);
+            out.writeInt(freeOrdinals.length);
+            for (int f : freeOrdinals) out.writeInt(f);
+            out.writeInt(areaPostings.size());
+            for (Map.Entry<String, RoomBitmap> e : areaPostings.entrySet()) {
+                RecordCodec.writeString(out, e.getKey());
+                e.getValue().writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void beginSection(int count) {
+        try {
+            out.writeInt(count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void writeUser(User u) { frame(RecordCodec.user(u)); }
+
+    public void writeProperty(Property p) { frame(RecordCodec.property(p)); }
+
+    public void writeRoom(int ordinal, Room r) {
+        try {
+            out.writeInt(ordinal);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        frame(RecordCodec.room(r));
+    }
+
+    public void writeRequest(BookingRequest req) { frame(RecordCodec.request(req)); }
+
+    public void writeBooking(Booking b) { frame(RecordCodec.booking(b)); }
+
+    private void frame(byte[] record) {
+        try {
+            out.writeInt(record.length);
+            out.write(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Seals, fsyncs and publishes the snapshot
+    public void commit() {
+        try {
+            out.writeInt(Snapshots.MAGIC);
+            out.flush();
+            channel.force(true);
+            out.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot publish snapshot.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (committed) return;
+        try {
+            out.close();
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
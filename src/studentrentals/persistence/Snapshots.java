@@ -0,0 +1,156 @@
+package studentrentals.persistence;
+
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.User;
+import studentrentals.search.RoomBitmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Snapshot files live next to the journal as snapshot-<segment>.bin, where
+// <segment> is the first journal segment that must be replayed on top of it.
+public final class Snapshots {
+    private Snapshots() {}
+
+    static final int MAGIC = 0x53525331; // "SRS1"
+    static final int VERSION = 1;
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    static String fileName(long journalSegment) {
+        return String.format("%s%010d%s", PREFIX, journalSegment, SUFFIX);
+    }
+
+    // Loads the newest snapshot in dir through a memory-mapped read and returns
+    // the journal segment to replay from, or 0 if there is no snapshot.
+    public static long loadLatest(Path dir, SnapshotHandler handler) {
+        try {
+            List<Long> found = list(dir);
+            if (found.isEmpty()) return 0;
+            long segment = found.get(found.size() - 1);
+            load(dir.resolve(fileName(segment)), handler);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load snapshot from " + dir, e);
+        }
+    }
+
+    // Removes snapshots older than the given one
+    public static void deleteBefore(Path dir, long journalSegment) {
+        try {
+            for (long seg : list(dir)) {
+                if (seg < journalSegment) Files.deleteIfExists(dir.resolve(fileName(seg)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete old snapshots.", e);
+        }
+    }
+
+    private static void load(Path file, SnapshotHandler handler) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot larger than 2 GB is not supported: " + file);
+            }
+            MappedByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            try {
+                if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                    throw new IllegalStateException("Not a snapshot file: " + file);
+                }
+                in.getLong(); // journal segment, already known from the file name
+                if (in.getInt(in.limit() - 4) != MAGIC) {
+                    throw new IllegalStateException("Truncated snapshot: " + file);
+                }
+
+                int nextOrdinal = in.getInt();
+                int[] free = new int[in.getInt()];
+                for (int i = 0; i < free.length; i++) free[i] = in.getInt();
+                int areas = in.getInt();
+                Map<String, RoomBitmap> postings = new HashMap<>(areas * 2);
+                for (int i = 0; i < areas; i++) {
+                    String key = RecordCodec.readString(in);
+                    postings.put(key, RoomBitmap.readFrom(in));
+                }
+                handler.onRoomIndex(nextOrdinal, free, postings);
+
+                readSection(in, handler); // users
+                readSection(in, handler); // properties
+
+                int rooms = in.getInt();
+                RoomOnly roomSink = new RoomOnly();
+                for (int i = 0; i < rooms; i++) {
+                    int ordinal = in.getInt();
+                    decodeFrame(in, roomSink);
+                    handler.onIndexedRoom(ordinal, roomSink.last);
+                }
+
+                readSection(in, handler); // requests
+                readSection(in, handler); // bookings
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IllegalStateException("Corrupt snapshot: " + file, e);
+            }
+            handler.onSnapshotLoaded();
+        }
+    }
+
+    private static void readSection(ByteBuffer in, JournalHandler handler) {
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            decodeFrame(in, handler);
+        }
+    }
+
+    private static void decodeFrame(ByteBuffer in, JournalHandler handler) {
+        int len = in.getInt();
+        ByteBuffer record = in.slice(in.position(), len);
+        RecordCodec.decode(record, handler);
+        in.position(in.position() + len);
+    }
+
+    private static List<Long> list(Path dir) throws IOException {
+        List<Long> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(PREFIX) && n.endsWith(SUFFIX))
+                    .forEach(n -> out.add(Long.parseLong(n.substring(PREFIX.length(), n.length() - SUFFIX.length()))));
+        }
+        out.sort(null);
+        return out;
+    }
+
+    // Captures the room decoded from a rooms-section frame
+    private static final class RoomOnly implements JournalHandler {
+        Room last;
+
+        @Override public void onRoom(Room room) { last = room; }
+        @Override public void onUser(User user) { unexpected(); }
+        @Override public void onUserDeactivated(String email) { unexpected(); }
+        @Override public void onProperty(Property property) { unexpected(); }
+        @Override public void onPropertyRemoved(UUID propertyId) { unexpected(); }
+        @Override public void onRoomRemoved(UUID roomId) { unexpected(); }
+        @Override public void onRequest(BookingRequest request) { unexpected(); }
+        @Override public void onBooking(Booking booking) { unexpected(); }
+        @Override public void onBookingArchived(UUID bookingId, UUID roomId) { unexpected(); }
+
+        private static void unexpected() {
+            throw new IllegalStateException("Unexpected record in rooms section.");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package studentrentals.search;
+
+// Filter kernel over RoomColumns: sets bit i of out for every row i < n that is
+// live, priced within [minPrice, maxPrice], of the given type and area (-1: any)
+// and whose window covers [startDay, endDay). out must be zeroed by the caller.
+interface ColumnScanner {
+    void scan(int n, int[] price, int[] type, int[] area, int[] from, int[] to, int[] live,
+              int minPrice, int maxPrice, int typeOrdinal, int areaId, int startDay, int endDay, long[] out);
+}
@@ -0,0 +1,24 @@
+package studentrentals.search;
+
+import studentrentals.model.Room;
+
+import java.time.LocalDate;
+
+// A room from a flexible-dates search with the earliest stay that fits it
+public final class FlexibleMatch {
+    private final RoomSortKey key;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    // key taken together with the match, under the room's lock
+    public FlexibleMatch(RoomSortKey key, LocalDate startDate, LocalDate endDate) {
+        this.key = key;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Room getRoom() { return key.getRoom(); }
+    public RoomSortKey getSortKey() { return key; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+}
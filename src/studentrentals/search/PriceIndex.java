@@ -0,0 +1,149 @@
+package studentrentals.search;
+
+import studentrentals.util.IdRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Secondary index of rooms ordered by monthly price (ties broken by room id),
+// so a price band can be sliced out without touching rooms outside it.
+// Entries hold the room's ref in the system's IdRegistry; ties still compare
+// the ids themselves so the order matches RoomComparators.BY_ID.
+public final class PriceIndex {
+
+    // bound refs for range probes: before and after every real room at a price
+    private static final int LOWEST_REF = Integer.MIN_VALUE;
+    private static final int HIGHEST_REF = Integer.MAX_VALUE;
+
+    public static final class Entry {
+        private final int price;
+        private final int roomRef;
+
+        Entry(int price, int roomRef) {
+            this.price = price;
+            this.roomRef = roomRef;
+        }
+
+        public int getPrice() { return price; }
+        public int getRoomRef() { return roomRef; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry e)) return false;
+            return price == e.price && roomRef == e.roomRef;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * price + roomRef;
+        }
+    }
+
+    private final IdRegistry ids;
+    private final ConcurrentSkipListSet<Entry> entries;
+
+    // ids: the registry the room refs belong to; a room's entry must be removed
+    // before its ref is released
+    public PriceIndex(IdRegistry ids) {
+        this.ids = ids;
+        this.entries = new ConcurrentSkipListSet<>(this::compare);
+    }
+
+    private int compare(Entry a, Entry b) {
+        int c = Integer.compare(a.price, b.price);
+        return c != 0 ? c : compareRefs(a.roomRef, b.roomRef);
+    }
+
+    private int compareRefs(int a, int b) {
+        if (a == b) return 0;
+        if (a == LOWEST_REF || b == HIGHEST_REF) return -1;
+        if (a == HIGHEST_REF || b == LOWEST_REF) return 1;
+        return ids.compare(a, b);
+    }
+
+    public void add(int price, int roomRef) {
+        entries.add(new Entry(price, roomRef));
+    }
+
+    public void remove(int price, int roomRef) {
+        entries.remove(new Entry(price, roomRef));
+    }
+
+    public void move(int oldPrice, int newPrice, int roomRef) {
+        if (oldPrice == newPrice) return;
+        // add first so a concurrent range query never loses the room entirely
+        add(newPrice, roomRef);
+        remove(oldPrice, roomRef);
+    }
+
+    // Live view of the entries with minPrice <= price <= maxPrice (either bound may be null)
+    public NavigableSet<Entry> range(Integer minPrice, Integer maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return entries;
+        }
+        if (minPrice == null) {
+            return entries.headSet(new Entry(maxPrice, HIGHEST_REF), true);
+        }
+        if (maxPrice == null) {
+            return entries.tailSet(new Entry(minPrice, LOWEST_REF), true);
+        }
+        if (minPrice > maxPrice) {
+            return new ConcurrentSkipListSet<>(entries.comparator());
+        }
+        return entries.subSet(new Entry(minPrice, LOWEST_REF), true, new Entry(maxPrice, HIGHEST_REF), true);
+    }
+
+    // Band entries with price >= fromPrice, cheapest first
+    public Iterable<Entry> ascendingFrom(Integer minPrice, Integer maxPrice, int fromPrice) {
+        // clamp into the band: sub-set views reject bounds outside their range
+        int from = (minPrice != null) ? Math.max(fromPrice, minPrice) : fromPrice;
+        if (maxPrice != null && from > maxPrice) return new ConcurrentSkipListSet<>(entries.comparator());
+        return range(minPrice, maxPrice).tailSet(new Entry(from, LOWEST_REF), true);
+    }
+
+    // Band entries with price <= fromPrice, dearest first; equal prices stay in id order
+    public Iterable<Entry> descendingFrom(Integer minPrice, Integer maxPrice, int fromPrice) {
+        int from = (maxPrice != null) ? Math.min(fromPrice, maxPrice) : fromPrice;
+        if (minPrice != null && from < minPrice) return new ConcurrentSkipListSet<>(entries.comparator());
+        NavigableSet<Entry> band = range(minPrice, maxPrice).headSet(new Entry(from, HIGHEST_REF), true);
+        return () -> new DescendingByPrice(band.descendingIterator());
+    }
+
+    public int size() { return entries.size(); }
+
+    // Walks a descending iterator one price at a time, replaying each price's
+    // entries in ascending id order.
+    private static final class DescendingByPrice implements Iterator<Entry> {
+        private final Iterator<Entry> source;
+        private final ArrayDeque<Entry> run = new ArrayDeque<>();
+        private Entry pending;
+
+        DescendingByPrice(Iterator<Entry> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!run.isEmpty()) return true;
+            if (pending == null) {
+                if (!source.hasNext()) return false;
+                pending = source.next();
+            }
+            int price = pending.price;
+            while (pending != null && pending.price == price) {
+                run.push(pending);
+                pending = source.hasNext() ? source.next() : null;
+            }
+            return true;
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return run.pop();
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package studentrentals.search;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Compressed bitmap of room ordinals (roaring-style): ordinals are split into
+// 64K chunks by their high 16 bits, each chunk stored either as a sorted
+// array (sparse) or a 1024-word bitset (dense). Not thread-safe.
+public final class RoomBitmap {
+
+    // array containers switch to a bitset above this many values (8 KB either way)
+    private static final int ARRAY_MAX = 4096;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public RoomBitmap() {
+        this(4);
+    }
+
+    private RoomBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    public void add(int ordinal) {
+        char hb = (char) (ordinal >>> 16);
+        int i = Arrays.binarySearch(keys, 0, size, hb);
+        if (i >= 0) {
+            containers[i] = containers[i].add((char) ordinal);
+        } else {
+            ArrayContainer c = new ArrayContainer(4);
+            c.add((char) ordinal);
+            insertAt(-i - 1, hb, c);
+        }
+    }
+
+    public void remove(int ordinal) {
+        char hb = (char) (ordinal >>> 16);
+        int i = Arrays.binarySearch(keys, 0, size, hb);
+        if (i < 0) return;
+        Container c = containers[i].remove((char) ordinal);
+        if (c.cardinality() == 0) {
+            removeAt(i);
+        } else {
+            containers[i] = c;
+        }
+    }
+
+    public boolean contains(int ordinal) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (ordinal >>> 16));
+        return i >= 0 && containers[i].contains((char) ordinal);
+    }
+
+    public int cardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++) n += containers[i].cardinality();
+        return n;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public RoomBitmap and(RoomBitmap o) {
+        RoomBitmap out = new RoomBitmap(Math.max(1, Math.min(size, o.size)));
+        int i = 0, j = 0;
+        while (i < size && j < o.size) {
+            if (keys[i] < o.keys[j]) {
+                i++;
+            } else if (keys[i] > o.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(o.containers[j]);
+                if (c.cardinality() > 0) out.append(keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    public RoomBitmap or(RoomBitmap o) {
+        RoomBitmap out = new RoomBitmap(Math.max(1, size + o.size));
+        int i = 0, j = 0;
+        while (i < size || j < o.size) {
+            if (j >= o.size || (i < size && keys[i] < o.keys[j])) {
+                out.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > o.keys[j]) {
+                out.append(o.keys[j], o.containers[j].copy());
+                j++;
+            } else {
+                out.append(keys[i], containers[i].or(o.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    public RoomBitmap copy() {
+        RoomBitmap out = new RoomBitmap(Math.max(1, size));
+        for (int i = 0; i < size; i++) out.append(keys[i], containers[i].copy());
+        return out;
+    }
+
+    // Visits ordinals in ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    // Serialised form: [int chunks] then per chunk [char key][byte kind][payload]
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeChar(keys[i]);
+            if (containers[i] instanceof ArrayContainer a) {
+                out.writeByte(0);
+                out.writeInt(a.card);
+                for (int j = 0; j < a.card; j++) out.writeChar(a.values[j]);
+            } else {
+                BitmapContainer b = (BitmapContainer) containers[i];
+                out.writeByte(1);
+                out.writeInt(b.card);
+                for (long w : b.words) out.writeLong(w);
+            }
+        }
+    }
+
+    public static RoomBitmap readFrom(ByteBuffer in) {
+        int n = in.getInt();
+        RoomBitmap bm = new RoomBitmap(Math.max(1, n));
+        for (int i = 0; i < n; i++) {
+            char key = in.getChar();
+            byte kind = in.get();
+            int card = in.getInt();
+            if (kind == 0) {
+                char[] values = new char[Math.max(1, card)];
+                in.asCharBuffer().get(values, 0, card);
+                in.position(in.position() + card * 2);
+                bm.append(key, new ArrayContainer(values, card));
+            } else {
+                long[] words = new long[1024];
+                in.asLongBuffer().get(words);
+                in.position(in.position() + 1024 * 8);
+                bm.append(key, new BitmapContainer(words, card));
+            }
+        }
+        return bm;
+    }
+
+    private void append(char key, Container c) {
+        if (size == keys.length) grow();
+        keys[size] = key;
+        containers[size] = c;
+        size++;
+    }
+
+    private void insertAt(int pos, char key, Container c) {
+        if (size == keys.length) grow();
+        System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+        System.arraycopy(containers, pos, containers, pos + 1, size - pos);
+        keys[pos] = key;
+        containers[pos] = c;
+        size++;
+    }
+
+    private void removeAt(int pos) {
+        System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+        System.arraycopy(containers, pos + 1, containers, pos, size - pos - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private void grow() {
+        int n = Math.max(4, keys.length * 2);
+        keys = Arrays.copyOf(keys, n);
+        containers = Arrays.copyOf(containers, n);
+    }
+
+    private abstract static class Container {
+        abstract Container add(char v);
+        abstract Container remove(char v);
+        abstract boolean contains(char v);
+        abstract int cardinality();
+        abstract Container and(Container o);
+        abstract Container or(Container o);
+        abstract Container copy();
+        abstract void forEach(int high, IntConsumer action);
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values;
+        int card;
+
+        ArrayContainer(int capacity) {
+            values = new char[capacity];
+        }
+
+        ArrayContainer(char[] values, int card) {
+            this.values = values;
+            this.card = card;
+        }
+
+        @Override
+        Container add(char v) {
+            int i = Arrays.binarySearch(values, 0, card, v);
+            if (i >= 0) return this;
+            if (card >= ARRAY_MAX) {
+                return toBitmap().add(v);
+            }
+            i = -i - 1;
+            if (card == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, card * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, card - i);
+            values[i] = v;
+            card++;
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            int i = Arrays.binarySearch(values, 0, card, v);
+            if (i < 0) return this;
+            System.arraycopy(values, i + 1, values, i, card - i - 1);
+            card--;
+            return this;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return Arrays.binarySearch(values, 0, card, v) >= 0;
+        }
+
+        @Override
+        int cardinality() { return card; }
+
+        @Override
+        Container and(Container o) {
+            char[] out = new char[Math.min(card, o.cardinality())];
+            int n = 0;
+            if (o instanceof ArrayContainer a) {
+                int i = 0, j = 0;
+                while (i < card && j < a.card) {
+                    if (values[i] < a.values[j]) i++;
+                    else if (values[i] > a.values[j]) j++;
+                    else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                BitmapContainer b = (BitmapContainer) o;
+                for (int i = 0; i < card; i++) {
+                    if (b.contains(values[i])) out[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        Container or(Container o) {
+            if (o instanceof BitmapContainer b) {
+                return b.or(this);
+            }
+            ArrayContainer a = (ArrayContainer) o;
+            char[] out = new char[card + a.card];
+            int i = 0, j = 0, n = 0;
+            while (i < card || j < a.card) {
+                if (j >= a.card || (i < card && values[i] < a.values[j])) out[n++] = values[i++];
+                else if (i >= card || values[i] > a.values[j]) out[n++] = a.values[j++];
+                else {
+                    out[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer merged = new ArrayContainer(out, n);
+            return n > ARRAY_MAX ? merged.toBitmap() : merged;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(1, card)), card);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < card; i++) action.accept(high | values[i]);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int i = 0; i < card; i++) b.set(values[i]);
+            return b;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words;
+        int card;
+
+        BitmapContainer() {
+            words = new long[1024];
+        }
+
+        BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        void set(char v) {
+            long before = words[v >>> 6];
+            long after = before | (1L << v);
+            if (before != after) {
+                words[v >>> 6] = after;
+                card++;
+            }
+        }
+
+        @Override
+        Container add(char v) {
+            set(v);
+            return this;
+        }
+
+        @Override
+        Container remove(char v) {
+            long before = words[v >>> 6];
+            long after = before & ~(1L << v);
+            if (before != after) {
+                words[v >>> 6] = after;
+                card--;
+            }
+            return card <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char v) {
+            return (words[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        int cardinality() { return card; }
+
+        @Override
+        Container and(Container o) {
+            if (o instanceof ArrayContainer a) {
+                return a.and(this);
+            }
+            BitmapContainer b = (BitmapContainer) o;
+            long[] out = new long[1024];
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                out[i] = words[i] & b.words[i];
+                n += Long.bitCount(out[i]);
+            }
+            BitmapContainer result = new BitmapContainer(out, n);
+            return n <= ARRAY_MAX ? result.toArray() : result;
+        }
+
+        @Override
+        Container or(Container o) {
+            BitmapContainer out = (BitmapContainer) copy();
+            if (o instanceof ArrayContainer a) {
+                for (int i = 0; i < a.card; i++) out.set(a.values[i]);
+                return out;
+            }
+            BitmapContainer b = (BitmapContainer) o;
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                out.words[i] |= b.words[i];
+                n += Long.bitCount(out.words[i]);
+            }
+            out.card = n;
+            return out;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < 1024; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    action.accept(high | (i << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        ArrayContainer toArray() {
+            char[] out = new char[card];
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    out[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package studentrentals.search;
+
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Struct-of-arrays copy of the searchable room fields, one row per room
+// ordinal: price, type ordinal, area id, availability window as epoch days and
+// a live flag. A filter scan walks these primitive arrays instead of chasing
+// Room, LocalDate and Property references, and uses the Vector API kernel when
+// the JVM runs with --add-modules jdk.incubator.vector (scalar loop otherwise;
+// -Dstudentrentals.vectorScan=false forces scalar).
+// Not thread-safe: RoomIndex guards its instance with its own lock.
+public final class RoomColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final ColumnScanner BEST = loadScanner();
+
+    private final ColumnScanner scanner;
+    private int[] price = new int[INITIAL_CAPACITY];
+    private int[] type = new int[INITIAL_CAPACITY];
+    private int[] area = new int[INITIAL_CAPACITY];
+    private int[] from = new int[INITIAL_CAPACITY];
+    private int[] to = new int[INITIAL_CAPACITY];
+    private int[] live = new int[INITIAL_CAPACITY];
+    // one past the highest row ever set
+    private int rows;
+
+    public RoomColumns() {
+        this(BEST);
+    }
+
+    private RoomColumns(ColumnScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    // Always scans one row at a time (for comparisons)
+    public static RoomColumns scalar() {
+        return new RoomColumns(ScalarColumnScanner.INSTANCE);
+    }
+
+    public boolean isVectorised() { return scanner != ScalarColumnScanner.INSTANCE; }
+    public int rows() { return rows; }
+
+    public void set(int ordinal, Room room, int areaId) {
+        ensureCapacity(ordinal + 1);
+        area[ordinal] = areaId;
+        live[ordinal] = 1;
+        update(ordinal, room);
+        if (ordinal >= rows) rows = ordinal + 1;
+    }
+
+    // Re-reads type, price and window after the room changed
+    public void update(int ordinal, Room room) {
+        price[ordinal] = room.getPricePerMonth();
+        type[ordinal] = room.getType().ordinal();
+        from[ordinal] = (int) room.getAvailableFrom().toEpochDay();
+        to[ordinal] = (int) room.getAvailableTo().toEpochDay();
+    }
+
+    public void clear(int ordinal) {
+        if (ordinal < rows) live[ordinal] = 0;
+    }
+
+    // Bitset (by ordinal) of live rows matching every filter; null filters match anything
+    public long[] scan(Integer minPrice, Integer maxPrice, RoomType roomType, int areaId,
+                       LocalDate start, LocalDate end) {
+        long[] out = new long[(rows + 63) >>> 6];
+        scanner.scan(rows, price, type, area, from, to, live,
+                minPrice != null ? minPrice : Integer.MIN_VALUE,
+                maxPrice != null ? maxPrice : Integer.MAX_VALUE,
+                roomType != null ? roomType.ordinal() : -1,
+                areaId,
+                start != null ? (int) start.toEpochDay() : Integer.MAX_VALUE,
+                end != null ? (int) end.toEpochDay() : Integer.MIN_VALUE,
+                out);
+        return out;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= price.length) return;
+        int capacity = Math.max(needed, price.length * 2);
+        price = Arrays.copyOf(price, capacity);
+        type = Arrays.copyOf(type, capacity);
+        area = Arrays.copyOf(area, capacity);
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        live = Arrays.copyOf(live, capacity);
+    }
+
+    private static ColumnScanner loadScanner() {
+        if (!Boolean.parseBoolean(System.getProperty("studentrentals.vectorScan", "true"))) {
+            return ScalarColumnScanner.INSTANCE;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return ScalarColumnScanner.INSTANCE;
+        }
+        try {
+            return (ColumnScanner) Class.forName("studentrentals.search.VectorColumnScanner")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // built without the simd sources
+            return ScalarColumnScanner.INSTANCE;
+        }
+    }
+}
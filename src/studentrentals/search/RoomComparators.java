@@ -0,0 +1,19 @@
+package studentrentals.search;
+
+import java.util.Comparator;
+
+// Building blocks shared by the sort strategies
+public final class RoomComparators {
+    private RoomComparators() {}
+
+    public static final Comparator<RoomSortKey> BY_PRICE = Comparator.comparingInt(RoomSortKey::getPricePerMonth);
+    public static final Comparator<RoomSortKey> BY_AVAILABLE_FROM = Comparator.comparing(RoomSortKey::getAvailableFrom);
+    // same order as UUID.compareTo on the ids
+    public static final Comparator<RoomSortKey> BY_ID =
+            Comparator.comparingLong(RoomSortKey::getIdMostBits).thenComparingLong(RoomSortKey::getIdLeastBits);
+
+    // Appends the id tie-break that makes any key order total
+    public static Comparator<RoomSortKey> total(Comparator<RoomSortKey> keys) {
+        return keys.thenComparing(BY_ID);
+    }
+}
@@ -0,0 +1,295 @@
+package studentrentals.search;
+
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Area and room-type postings kept as compressed bitmaps over dense room
+// ordinals. Ordinals of removed rooms are recycled so the id space stays dense.
+// Area keys are expected to be normalised (trimmed, lower case) by the caller.
+// The same ordinals key a columnar copy of the filter fields (RoomColumns) for
+// searches no posting narrows down.
+public final class RoomIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Room[] byOrdinal = new Room[1024];
+    private int nextOrdinal;
+    private int[] freeOrdinals = new int[64];
+    private int freeCount;
+
+    private final RoomBitmap allRooms = new RoomBitmap();
+    private final Map<String, RoomBitmap> byArea = new HashMap<>();
+    private final Map<RoomType, RoomBitmap> byType = new EnumMap<>(RoomType.class);
+
+    private final RoomColumns columns = new RoomColumns();
+    // area key -> dense id for the area column; ids are never reused
+    private final Map<String, Integer> areaIds = new HashMap<>();
+
+    // Point-in-time copy of the ordinal table and area postings, for snapshots.
+    // Room field values are read later by the caller, so only immutable facts
+    // (which room sits at which ordinal, and its area) are captured here.
+    public static final class Capture {
+        private final Room[] table;
+        private final int nextOrdinal;
+        private final int[] freeOrdinals;
+        private final Map<String, RoomBitmap> areaPostings;
+
+        Capture(Room[] table, int nextOrdinal, int[] freeOrdinals, Map<String, RoomBitmap> areaPostings) {
+            this.table = table;
+            this.nextOrdinal = nextOrdinal;
+            this.freeOrdinals = freeOrdinals;
+            this.areaPostings = areaPostings;
+        }
+
+        public Room[] getTable() { return table; }
+        public int getNextOrdinal() { return nextOrdinal; }
+        public int[] getFreeOrdinals() { return freeOrdinals; }
+        public Map<String, RoomBitmap> getAreaPostings() { return areaPostings; }
+    }
+
+    public Capture capture() {
+        lock.readLock().lock();
+        try {
+            Map<String, RoomBitmap> areas = new HashMap<>();
+            for (Map.Entry<String, RoomBitmap> e : byArea.entrySet()) {
+                areas.put(e.getKey(), e.getValue().copy());
+            }
+            return new Capture(Arrays.copyOf(byOrdinal, nextOrdinal), nextOrdinal,
+                    Arrays.copyOf(freeOrdinals, freeCount), areas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Installs a loaded snapshot into an empty index. Area postings are taken as
+    // stored; the all-rooms and type postings are derived from them and the table.
+    public void restore(Room[] table, int nextOrdinal, int[] freeOrdinals, Map<String, RoomBitmap> areaPostings) {
+        lock.writeLock().lock();
+        try {
+            if (!allRooms.isEmpty()) throw new IllegalStateException("Index is not empty.");
+            byOrdinal = Arrays.copyOf(table, Math.max(1024, Integer.highestOneBit(Math.max(1, nextOrdinal)) * 2));
+            this.nextOrdinal = nextOrdinal;
+            this.freeOrdinals = Arrays.copyOf(freeOrdinals, Math.max(64, freeOrdinals.length));
+            this.freeCount = freeOrdinals.length;
+
+            RoomBitmap all = new RoomBitmap();
+            for (Map.Entry<String, RoomBitmap> e : areaPostings.entrySet()) {
+                byArea.put(e.getKey(), e.getValue());
+                all = all.or(e.getValue());
+                int areaId = areaId(e.getKey());
+                e.getValue().forEach(ord -> {
+                    if (ord < nextOrdinal && table[ord] != null) columns.set(ord, table[ord], areaId);
+                });
+            }
+            all.forEach(allRooms::add);
+
+            for (int ord = 0; ord < nextOrdinal; ord++) {
+                Room r = byOrdinal[ord];
+                if (r == null) continue;
+                r.setOrdinal(ord);
+                byType.computeIfAbsent(r.getType(), k -> new RoomBitmap()).add(ord);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int add(Room room, String areaKey) {
+        lock.writeLock().lock();
+        try {
+            int ord = freeCount > 0 ? freeOrdinals[--freeCount] : nextOrdinal++;
+            if (ord >= byOrdinal.length) {
+                byOrdinal = Arrays.copyOf(byOrdinal, byOrdinal.length * 2);
+            }
+            byOrdinal[ord] = room;
+            room.setOrdinal(ord);
+
+            allRooms.add(ord);
+            byArea.computeIfAbsent(areaKey, k -> new RoomBitmap()).add(ord);
+            byType.computeIfAbsent(room.getType(), k -> new RoomBitmap()).add(ord);
+            columns.set(ord, room, areaId(areaKey));
+            return ord;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Same as add() for each room, under one lock acquisition
+    public void addAll(List<Room> rooms, String areaKey) {
+        if (rooms.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            RoomBitmap area = byArea.computeIfAbsent(areaKey, k -> new RoomBitmap());
+            int areaId = areaId(areaKey);
+            for (Room room : rooms) {
+                int ord = freeCount > 0 ? freeOrdinals[--freeCount] : nextOrdinal++;
+                if (ord >= byOrdinal.length) {
+                    byOrdinal = Arrays.copyOf(byOrdinal, byOrdinal.length * 2);
+                }
+                byOrdinal[ord] = room;
+                room.setOrdinal(ord);
+
+                allRooms.add(ord);
+                area.add(ord);
+                byType.computeIfAbsent(room.getType(), k -> new RoomBitmap()).add(ord);
+                columns.set(ord, room, areaId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Room room, String areaKey) {
+        lock.writeLock().lock();
+        try {
+            int ord = room.getOrdinal();
+            if (ord < 0 || byOrdinal[ord] != room) return;
+
+            allRooms.remove(ord);
+            removePosting(byArea, areaKey, ord);
+            removePosting(byType, room.getType(), ord);
+            columns.clear(ord);
+
+            byOrdinal[ord] = null;
+            room.setOrdinal(-1);
+            if (freeCount == freeOrdinals.length) {
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+            }
+            freeOrdinals[freeCount++] = ord;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void changeType(Room room, RoomType oldType, RoomType newType) {
+        lock.writeLock().lock();
+        try {
+            int ord = room.getOrdinal();
+            if (ord < 0 || byOrdinal[ord] != room) return;
+            removePosting(byType, oldType, ord);
+            byType.computeIfAbsent(newType, k -> new RoomBitmap()).add(ord);
+            columns.update(ord, room);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Call after a room's price or availability window changed
+    public void refresh(Room room) {
+        lock.writeLock().lock();
+        try {
+            int ord = room.getOrdinal();
+            if (ord < 0 || byOrdinal[ord] != room) return;
+            columns.update(ord, room);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rooms matching every non-null filter (AND of the postings); no filters means all rooms.
+    public RoomBitmap match(String areaKey, RoomType type) {
+        lock.readLock().lock();
+        try {
+            RoomBitmap result = allRooms;
+            if (areaKey != null) {
+                result = result.and(byArea.getOrDefault(areaKey, new RoomBitmap()));
+            }
+            if (type != null) {
+                result = result.and(byType.getOrDefault(type, new RoomBitmap()));
+            }
+            return result == allRooms ? allRooms.copy() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rooms in any of the given areas (OR of the area postings)
+    public RoomBitmap matchAnyArea(Iterable<String> areaKeys) {
+        lock.readLock().lock();
+        try {
+            RoomBitmap result = new RoomBitmap();
+            for (String key : areaKeys) {
+                RoomBitmap posting = byArea.get(key);
+                if (posting != null) result = result.or(posting);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rooms passing every non-null filter, with the window covering [start, end),
+    // from one pass over the columns. Bookings are not looked at.
+    public List<Room> scan(String areaKey, RoomType type, Integer minPrice, Integer maxPrice,
+                           LocalDate start, LocalDate end) {
+        List<Room> rooms = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int areaId = -1;
+            if (areaKey != null) {
+                Integer id = areaIds.get(areaKey);
+                if (id == null) return rooms;
+                areaId = id;
+            }
+            long[] bits = columns.scan(minPrice, maxPrice, type, areaId, start, end);
+            Room[] table = byOrdinal;
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    rooms.add(table[(w << 6) + Long.numberOfTrailingZeros(word)]);
+                    word &= word - 1;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rooms;
+    }
+
+    public boolean isScanVectorised() { return columns.isVectorised(); }
+
+    public List<Room> resolve(RoomBitmap ordinals) {
+        List<Room> rooms = new ArrayList<>(ordinals.cardinality());
+        lock.readLock().lock();
+        try {
+            Room[] table = byOrdinal;
+            ordinals.forEach(ord -> {
+                Room r = ord < table.length ? table[ord] : null;
+                if (r != null) rooms.add(r);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rooms;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return allRooms.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // caller holds the write lock
+    private int areaId(String areaKey) {
+        return areaIds.computeIfAbsent(areaKey, k -> areaIds.size());
+    }
+
+    private static <K> void removePosting(Map<K, RoomBitmap> postings, K key, int ord) {
+        RoomBitmap bm = postings.get(key);
+        if (bm == null) return;
+        bm.remove(ord);
+        if (bm.isEmpty()) postings.remove(key);
+    }
+}
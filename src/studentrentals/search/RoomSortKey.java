@@ -0,0 +1,37 @@
+package studentrentals.search;
+
+import studentrentals.model.Room;
+
+import java.time.LocalDate;
+
+// A room's sort fields read once, so sorts and merges compare values that cannot
+// change under them (a re-price mid-sort would break the comparator's contract).
+// Searches take it under the room's read lock, together with the filter check.
+public final class RoomSortKey {
+    private final Room room;
+    // the room id's halves, so the id tie-break agrees across processes without building a UUID
+    private final long idMostBits;
+    private final long idLeastBits;
+    private final int pricePerMonth;
+    private final LocalDate availableFrom;
+
+    public RoomSortKey(Room room, long idMostBits, long idLeastBits, int pricePerMonth, LocalDate availableFrom) {
+        this.room = room;
+        this.idMostBits = idMostBits;
+        this.idLeastBits = idLeastBits;
+        this.pricePerMonth = pricePerMonth;
+        this.availableFrom = availableFrom;
+    }
+
+    public static RoomSortKey of(Room room) {
+        return new RoomSortKey(room, room.getIdMostBits(), room.getIdLeastBits(),
+                room.getPricePerMonth(), room.getAvailableFrom());
+    }
+
+    // null for a cursor's probe key
+    public Room getRoom() { return room; }
+    public long getIdMostBits() { return idMostBits; }
+    public long getIdLeastBits() { return idLeastBits; }
+    public int getPricePerMonth() { return pricePerMonth; }
+    public LocalDate getAvailableFrom() { return availableFrom; }
+}
@@ -2,8 +2,31 @@ package studentrentals.search;
 
 import studentrentals.model.Room;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public interface RoomSortStrategy {
-    List<Room> sort(List<Room> rooms);
+
+    // Total order over rooms' sort keys; implementations break ties on room id so results are deterministic.
+    // Strategies that give the same order should be equal (search results are cached per strategy).
+    Comparator<RoomSortKey> comparator();
+
+    // Reads each room's sort fields once, sorts the keys and unwraps them; the list is not modified
+    default List<Room> sort(List<Room> rooms) {
+        List<RoomSortKey> keys = new ArrayList<>(rooms.size());
+        for (Room r : rooms) keys.add(RoomSortKey.of(r));
+        List<RoomSortKey> sorted = sortKeys(keys);
+        List<Room> out = new ArrayList<>(sorted.size());
+        for (RoomSortKey k : sorted) out.add(k.getRoom());
+        return out;
+    }
+
+    // What searches call, with keys taken under the rooms' read locks
+    default List<RoomSortKey> sortKeys(List<RoomSortKey> keys) {
+        // Make a copy so the original list is not modified
+        List<RoomSortKey> sorted = new ArrayList<>(keys);
+        sorted.sort(comparator());
+        return sorted;
+    }
 }
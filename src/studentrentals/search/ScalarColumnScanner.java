@@ -0,0 +1,28 @@
+package studentrentals.search;
+
+// One row at a time; also finishes the tail the vector kernel leaves over
+final class ScalarColumnScanner implements ColumnScanner {
+
+    static final ScalarColumnScanner INSTANCE = new ScalarColumnScanner();
+
+    private ScalarColumnScanner() {}
+
+    @Override
+    public void scan(int n, int[] price, int[] type, int[] area, int[] from, int[] to, int[] live,
+                     int minPrice, int maxPrice, int typeOrdinal, int areaId, int startDay, int endDay, long[] out) {
+        scanRange(0, n, price, type, area, from, to, live, minPrice, maxPrice, typeOrdinal, areaId, startDay, endDay, out);
+    }
+
+    static void scanRange(int first, int end, int[] price, int[] type, int[] area, int[] from, int[] to, int[] live,
+                          int minPrice, int maxPrice, int typeOrdinal, int areaId, int startDay, int endDay, long[] out) {
+        for (int i = first; i < end; i++) {
+            if (live[i] != 0
+                    && price[i] >= minPrice && price[i] <= maxPrice
+                    && (typeOrdinal < 0 || type[i] == typeOrdinal)
+                    && (areaId < 0 || area[i] == areaId)
+                    && from[i] <= startDay && to[i] >= endDay) {
+                out[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package studentrentals.search;
+
+import studentrentals.model.SearchCriteria;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+
+// Keyset cursor: captures the sort keys of the last room on a page.
+// The next page is "everything the strategy orders strictly after that room",
+// so rooms added or removed elsewhere never shift or duplicate results.
+// It also carries a code for the sort strategy and a hash of the criteria, and
+// is only accepted back for the same search. Both are computed from names and
+// values alone, so a cursor from one shard process is valid on another.
+public final class SearchCursor {
+    private SearchCursor() {}
+
+    private static final byte VERSION = 3;
+    private static final int LENGTH = 1 + 4 + 4 + 16 + 4 + 8;
+
+    public static String encode(RoomSortKey last, SearchCriteria criteria, RoomSortStrategy strategy) {
+        ByteBuffer buf = ByteBuffer.allocate(LENGTH);
+        buf.put(VERSION);
+        buf.putInt(strategyCode(strategy));
+        buf.putInt(criteriaHash(criteria));
+        buf.putLong(last.getIdMostBits());
+        buf.putLong(last.getIdLeastBits());
+        buf.putInt(last.getPricePerMonth());
+        buf.putLong(last.getAvailableFrom().toEpochDay());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    // Rebuilds a probe key (without a room) that compares like the original did
+    public static RoomSortKey decode(String cursor, SearchCriteria criteria, RoomSortStrategy strategy) {
+        ByteBuffer buf;
+        try {
+            buf = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        if (buf.remaining() != LENGTH || buf.get() != VERSION) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        if (buf.getInt() != strategyCode(strategy) || buf.getInt() != criteriaHash(criteria)) {
+            throw new IllegalArgumentException("Cursor belongs to a different search.");
+        }
+        try {
+            long idMostBits = buf.getLong();
+            long idLeastBits = buf.getLong();
+            int price = buf.getInt();
+            LocalDate from = LocalDate.ofEpochDay(buf.getLong());
+            return new RoomSortKey(null, idMostBits, idLeastBits, price, from);
+        } catch (BufferUnderflowException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    // a top-k view pages like the order it wraps
+    private static int strategyCode(RoomSortStrategy strategy) {
+        RoomSortStrategy s = strategy instanceof TopKSort top ? top.getOrder() : strategy;
+        return s.getClass().getName().hashCode();
+    }
+
+    // same normalisation as the search cache's key
+    private static int criteriaHash(SearchCriteria c) {
+        String area = c.getArea() != null ? c.getArea().trim().toLowerCase(Locale.ROOT) : null;
+        String type = c.getRoomType() != null ? c.getRoomType().name() : null;
+        return Objects.hash(area, c.getMinPrice(), c.getMaxPrice(), type, c.getStartDate(), c.getEndDate());
+    }
+}
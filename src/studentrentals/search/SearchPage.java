@@ -0,0 +1,22 @@
+package studentrentals.search;
+
+import studentrentals.model.Room;
+
+import java.util.List;
+
+public final class SearchPage {
+    private final List<Room> rooms;
+    private final String nextCursor;
+
+    public SearchPage(List<Room> rooms, String nextCursor) {
+        this.rooms = List.copyOf(rooms);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Room> getRooms() { return rooms; }
+
+    // Opaque token for the following page, or null when this is the last page
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
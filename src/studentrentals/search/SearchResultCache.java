@@ -0,0 +1,232 @@
+package studentrentals.search;
+
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded LRU cache of search results keyed by normalised criteria plus sort
+// strategy. Entries are tagged by (area, type) so a room change only drops the
+// searches that could have matched that room.
+public final class SearchResultCache {
+
+    private final int capacity;
+    private final Object lock = new Object();
+    private final LinkedHashMap<Key, List<Room>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // (area or null, type or null) -> cached keys with exactly those filters
+    private final Map<Tag, Set<Key>> byTag = new HashMap<>();
+    // Generations: a tag's is set from the shared counter whenever it is
+    // invalidated, clearedAt on clear(). A result is stored only if its tag's
+    // generation did not move while it was computed, so writes elsewhere never
+    // stop it from being cached.
+    private final Map<Tag, Long> tagGenerations = new HashMap<>();
+    private long counter;
+    private long clearedAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public SearchResultCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Cache capacity must be > 0.");
+        this.capacity = capacity;
+    }
+
+    public static final class Key {
+        private final String areaKey;
+        private final Integer minPrice;
+        private final Integer maxPrice;
+        private final RoomType type;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final RoomSortStrategy strategy;
+
+        private Key(SearchCriteria c, RoomSortStrategy strategy) {
+            this.areaKey = (c.getArea() != null) ? c.getArea().trim().toLowerCase(Locale.ROOT) : null;
+            this.minPrice = c.getMinPrice();
+            this.maxPrice = c.getMaxPrice();
+            this.type = c.getRoomType();
+            this.startDate = c.getStartDate();
+            this.endDate = c.getEndDate();
+            this.strategy = strategy;
+        }
+
+        boolean matchesPrice(int price) {
+            return (minPrice == null || price >= minPrice) && (maxPrice == null || price <= maxPrice);
+        }
+
+        // null bounds mean the change is not limited to a date range
+        boolean overlapsDates(LocalDate from, LocalDate to) {
+            return from == null || to == null || (!startDate.isAfter(to) && !from.isAfter(endDate));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key k)) return false;
+            return Objects.equals(areaKey, k.areaKey) && Objects.equals(minPrice, k.minPrice)
+                    && Objects.equals(maxPrice, k.maxPrice) && type == k.type
+                    && Objects.equals(startDate, k.startDate) && Objects.equals(endDate, k.endDate)
+                    && strategy.equals(k.strategy);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(areaKey, minPrice, maxPrice, type, startDate, endDate, strategy);
+        }
+    }
+
+    private static final class Tag {
+        private final String areaKey;
+        private final RoomType type;
+
+        Tag(String areaKey, RoomType type) {
+            this.areaKey = areaKey;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Tag t)) return false;
+            return Objects.equals(areaKey, t.areaKey) && type == t.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(areaKey) + Objects.hashCode(type);
+        }
+    }
+
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public int getSize() { return size; }
+    }
+
+    public Key keyFor(SearchCriteria criteria, RoomSortStrategy strategy) {
+        return new Key(criteria, strategy);
+    }
+
+    // Read before computing a result and pass to put(), so a result that raced
+    // with an invalidation of its tag is never cached.
+    public long generation(Key key) {
+        synchronized (lock) {
+            return generationOf(new Tag(key.areaKey, key.type));
+        }
+    }
+
+    // Cached result (unmodifiable), or null on a miss
+    public List<Room> get(Key key) {
+        List<Room> result;
+        synchronized (lock) {
+            result = entries.get(key);
+        }
+        if (result != null) hits.increment();
+        else misses.increment();
+        return result;
+    }
+
+    public void put(Key key, List<Room> result, long generationAtStart) {
+        List<Room> copy = List.copyOf(result);
+        Tag tag = new Tag(key.areaKey, key.type);
+        synchronized (lock) {
+            if (generationOf(tag) != generationAtStart) return;
+            if (entries.put(key, copy) == null) {
+                byTag.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+            }
+            if (entries.size() > capacity) {
+                Iterator<Map.Entry<Key, List<Room>>> eldest = entries.entrySet().iterator();
+                Key evicted = eldest.next().getKey();
+                eldest.remove();
+                untag(evicted);
+                evictions.increment();
+            }
+        }
+    }
+
+    // Drops cached searches a room with this area, type and price could appear in.
+    // from/to limit it to searches overlapping those dates (null: any dates).
+    public void invalidate(String areaKey, RoomType type, int price, LocalDate from, LocalDate to) {
+        synchronized (lock) {
+            long g = ++counter;
+            invalidateTag(new Tag(areaKey, type), g, price, from, to);
+            invalidateTag(new Tag(areaKey, null), g, price, from, to);
+            invalidateTag(new Tag(null, type), g, price, from, to);
+            invalidateTag(new Tag(null, null), g, price, from, to);
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            clearedAt = ++counter;
+            // every tag is now at least clearedAt, so older ones can go
+            tagGenerations.clear();
+            entries.clear();
+            byTag.clear();
+        }
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), entries.size());
+        }
+    }
+
+    // caller holds lock
+    private long generationOf(Tag tag) {
+        Long g = tagGenerations.get(tag);
+        return g != null ? g : clearedAt;
+    }
+
+    // caller holds lock
+    private void invalidateTag(Tag tag, long generation, int price, LocalDate from, LocalDate to) {
+        tagGenerations.put(tag, generation);
+        Set<Key> keys = byTag.get(tag);
+        if (keys == null) return;
+        for (Iterator<Key> it = keys.iterator(); it.hasNext(); ) {
+            Key k = it.next();
+            if (k.matchesPrice(price) && k.overlapsDates(from, to)) {
+                it.remove();
+                entries.remove(k);
+                invalidations.increment();
+            }
+        }
+        if (keys.isEmpty()) byTag.remove(tag);
+    }
+
+    // caller holds lock
+    private void untag(Key key) {
+        Tag tag = new Tag(key.areaKey, key.type);
+        Set<Key> keys = byTag.get(tag);
+        if (keys == null) return;
+        keys.remove(key);
+        if (keys.isEmpty()) byTag.remove(tag);
+    }
+}
@@ -0,0 +1,118 @@
+package studentrentals.search;
+
+import studentrentals.model.Room;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+// Filters and sorts search candidates. The match function returns a room's sort
+// key when it matches (null when not), and sorting and merging use only those
+// keys. Lists shorter than the threshold are done on the calling thread; longer
+// ones are split into shards on a ForkJoin pool, each shard filtered and sorted
+// with the strategy, and the sorted shards merged pairwise with its comparator.
+// Strategy orders are total, so the result is the same list the sequential path
+// gives. A TopKSort strategy keeps only k rooms per shard and per merge.
+public final class ShardedSearch implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int threshold;
+
+    // parallelism 1 never forks; threshold is the smallest candidate list worth splitting
+    public ShardedSearch(int parallelism, int threshold) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be >= 1.");
+        if (threshold < 2) throw new IllegalArgumentException("Threshold must be >= 2.");
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public int getParallelism() { return parallelism; }
+    public int getThreshold() { return threshold; }
+
+    public List<RoomSortKey> filterAndSort(List<Room> candidates, Function<Room, RoomSortKey> match,
+                                           RoomSortStrategy strategy) {
+        if (pool == null || candidates.size() < threshold) {
+            return filterAndSort(candidates, 0, candidates.size(), match, strategy);
+        }
+        // a few shards per worker so an unlucky shard does not hold up the rest
+        int shardSize = Math.max(threshold / 2, candidates.size() / (parallelism * 4) + 1);
+        try {
+            return pool.invoke(new Shard(candidates, 0, candidates.size(), shardSize, match, strategy));
+        } catch (RejectedExecutionException e) {
+            // closed under us by a parallelism change
+            return filterAndSort(candidates, 0, candidates.size(), match, strategy);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdown();
+    }
+
+    private static List<RoomSortKey> filterAndSort(List<Room> candidates, int from, int to,
+                                                   Function<Room, RoomSortKey> match, RoomSortStrategy strategy) {
+        List<RoomSortKey> matching = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            RoomSortKey key = match.apply(candidates.get(i));
+            if (key != null) matching.add(key);
+        }
+        return strategy.sortKeys(matching);
+    }
+
+    private static final class Shard extends RecursiveTask<List<RoomSortKey>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Room> candidates;
+        private final int from;
+        private final int to;
+        private final int shardSize;
+        private final Function<Room, RoomSortKey> match;
+        private final RoomSortStrategy strategy;
+
+        Shard(List<Room> candidates, int from, int to, int shardSize, Function<Room, RoomSortKey> match,
+              RoomSortStrategy strategy) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.shardSize = shardSize;
+            this.match = match;
+            this.strategy = strategy;
+        }
+
+        @Override
+        protected List<RoomSortKey> compute() {
+            if (to - from <= shardSize) {
+                return filterAndSort(candidates, from, to, match, strategy);
+            }
+            int mid = (from + to) >>> 1;
+            Shard left = new Shard(candidates, from, mid, shardSize, match, strategy);
+            left.fork();
+            List<RoomSortKey> right = new Shard(candidates, mid, to, shardSize, match, strategy).compute();
+            return merge(left.join(), right);
+        }
+
+        private List<RoomSortKey> merge(List<RoomSortKey> a, List<RoomSortKey> b) {
+            Comparator<RoomSortKey> order = strategy.comparator();
+            int limit = a.size() + b.size();
+            if (strategy instanceof TopKSort top) limit = Math.min(limit, top.getK());
+            List<RoomSortKey> out = new ArrayList<>(limit);
+            int i = 0;
+            int j = 0;
+            while (out.size() < limit) {
+                // ties go to the left shard, as in a stable sort of the whole list
+                if (j == b.size() || (i < a.size() && order.compare(a.get(i), b.get(j)) <= 0)) {
+                    out.add(a.get(i++));
+                } else {
+                    out.add(b.get(j++));
+                }
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package studentrentals.search;
+
+import java.util.Comparator;
+
+public final class SortByAvailableFromThenPrice implements RoomSortStrategy {
+
+    private static final Comparator<RoomSortKey> ORDER = RoomComparators.total(
+            RoomComparators.BY_AVAILABLE_FROM.thenComparing(RoomComparators.BY_PRICE));
+
+    @Override
+    public Comparator<RoomSortKey> comparator() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SortByAvailableFromThenPrice;
+    }
+
+    @Override
+    public int hashCode() {
+        return SortByAvailableFromThenPrice.class.hashCode();
+    }
+}
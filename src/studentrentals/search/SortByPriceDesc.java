@@ -1,30 +1,24 @@
 package studentrentals.search;
 
-import studentrentals.model.Room;
-
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Comparator;
 
 public final class SortByPriceDesc implements RoomSortStrategy {
 
-    @Override
-    public List<Room> sort(List<Room> rooms) {
-        List<Room> sorted = new ArrayList<>(rooms);
+    // cheapest-last, but equal prices still list in id order
+    private static final Comparator<RoomSortKey> ORDER = RoomComparators.total(RoomComparators.BY_PRICE.reversed());
 
-        // selection-style sort by price (descending)
-        for (int i = 0; i < sorted.size(); i++) {
-            for (int j = i + 1; j < sorted.size(); j++) {
-                Room roomA = sorted.get(i);
-                Room roomB = sorted.get(j);
+    @Override
+    public Comparator<RoomSortKey> comparator() {
+        return ORDER;
+    }
 
-                if (roomB.getPricePerMonth() > roomA.getPricePerMonth()) {
-                    // Swap
-                    sorted.set(i, roomB);
-                    sorted.set(j, roomA);
-                }
-            }
-        }
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SortByPriceDesc;
+    }
 
-        return sorted;
+    @Override
+    public int hashCode() {
+        return SortByPriceDesc.class.hashCode();
     }
 }
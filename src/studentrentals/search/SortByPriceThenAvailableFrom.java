@@ -0,0 +1,24 @@
+package studentrentals.search;
+
+import java.util.Comparator;
+
+public final class SortByPriceThenAvailableFrom implements RoomSortStrategy {
+
+    private static final Comparator<RoomSortKey> ORDER = RoomComparators.total(
+            RoomComparators.BY_PRICE.thenComparing(RoomComparators.BY_AVAILABLE_FROM));
+
+    @Override
+    public Comparator<RoomSortKey> comparator() {
+        return ORDER;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SortByPriceThenAvailableFrom;
+    }
+
+    @Override
+    public int hashCode() {
+        return SortByPriceThenAvailableFrom.class.hashCode();
+    }
+}
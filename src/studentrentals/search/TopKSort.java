@@ -0,0 +1,65 @@
+package studentrentals.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Returns only the first k rooms of another strategy's order. Keeps a bounded
+// max-heap of size k, so cost is O(n log k) instead of sorting everything.
+public final class TopKSort implements RoomSortStrategy {
+
+    private final RoomSortStrategy order;
+    private final int k;
+
+    public TopKSort(RoomSortStrategy order, int k) {
+        if (order == null) throw new IllegalArgumentException("Sort strategy must not be null.");
+        if (k <= 0) throw new IllegalArgumentException("k must be > 0.");
+        this.order = order;
+        this.k = k;
+    }
+
+    public RoomSortStrategy getOrder() { return order; }
+    public int getK() { return k; }
+
+    @Override
+    public Comparator<RoomSortKey> comparator() {
+        return order.comparator();
+    }
+
+    @Override
+    public List<RoomSortKey> sortKeys(List<RoomSortKey> rooms) {
+        Comparator<RoomSortKey> cmp = order.comparator();
+        if (rooms.size() <= k) {
+            List<RoomSortKey> sorted = new ArrayList<>(rooms);
+            sorted.sort(cmp);
+            return sorted;
+        }
+
+        // head of the heap is the worst of the current best k
+        PriorityQueue<RoomSortKey> heap = new PriorityQueue<>(k, cmp.reversed());
+        for (RoomSortKey r : rooms) {
+            if (heap.size() < k) {
+                heap.add(r);
+            } else if (cmp.compare(r, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(r);
+            }
+        }
+
+        List<RoomSortKey> top = new ArrayList<>(heap);
+        top.sort(cmp);
+        return top;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof TopKSort t)) return false;
+        return k == t.k && order.equals(t.order);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * order.hashCode() + k;
+    }
+}
@@ -0,0 +1,34 @@
+package studentrentals.shard;
+
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+
+import java.util.List;
+
+// Everything one instance holds for an area, detached from its live state:
+// what StudentRentalsSystem.exportArea hands out and importArea takes in.
+// Archived bookings stay behind in the source instance's archive.
+public final class AreaData {
+    private final String area;
+    private final List<Property> properties;
+    private final List<Room> rooms;
+    private final List<Booking> bookings;
+    private final List<BookingRequest> requests;
+
+    public AreaData(String area, List<Property> properties, List<Room> rooms, List<Booking> bookings,
+                    List<BookingRequest> requests) {
+        this.area = area;
+        this.properties = List.copyOf(properties);
+        this.rooms = List.copyOf(rooms);
+        this.bookings = List.copyOf(bookings);
+        this.requests = List.copyOf(requests);
+    }
+
+    public String getArea() { return area; }
+    public List<Property> getProperties() { return properties; }
+    public List<Room> getRooms() { return rooms; }
+    public List<Booking> getBookings() { return bookings; }
+    public List<BookingRequest> getRequests() { return requests; }
+}
@@ -0,0 +1,114 @@
+package studentrentals.shard;
+
+import studentrentals.StudentRentalsSystem;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Homeowner;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchPage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// A shard living in this JVM; also what ShardServer serves
+public final class LocalShard implements Shard {
+
+    private final StudentRentalsSystem system;
+
+    public LocalShard(StudentRentalsSystem system) {
+        if (system == null) throw new IllegalArgumentException("System must not be null.");
+        this.system = system;
+    }
+
+    public StudentRentalsSystem getSystem() { return system; }
+
+    @Override
+    public Student registerStudent(String name, String email, String phone, String password, String university,
+                                   String studentId) {
+        return system.registerStudent(name, email, phone, password, university, studentId);
+    }
+
+    @Override
+    public Homeowner registerHomeowner(String name, String email, String phone, String password) {
+        return system.registerHomeowner(name, email, phone, password);
+    }
+
+    @Override
+    public void importUser(User user) {
+        system.importUser(user);
+    }
+
+    @Override
+    public void adminDeactivateUser(String adminEmail, String userEmail) {
+        system.adminDeactivateUser(adminEmail, userEmail);
+    }
+
+    @Override
+    public Property createProperty(String ownerEmail, String address, String area, String description) {
+        return system.createProperty(ownerEmail, address, area, description);
+    }
+
+    @Override
+    public Room addRoom(String ownerEmail, UUID propertyId, RoomType type, int pricePerMonth, String amenities,
+                        LocalDate availableFrom, LocalDate availableTo) {
+        return system.addRoom(ownerEmail, propertyId, type, pricePerMonth, amenities, availableFrom, availableTo);
+    }
+
+    @Override
+    public SearchPage searchRoomsPage(SearchCriteria criteria, RoomSortStrategy sortStrategy, int pageSize, String cursor) {
+        return system.searchRoomsPage(criteria, sortStrategy, pageSize, cursor);
+    }
+
+    @Override
+    public BookingRequest requestBooking(String studentEmail, UUID roomId, LocalDate start, LocalDate end) {
+        return system.requestBooking(studentEmail, roomId, start, end);
+    }
+
+    @Override
+    public Booking decideRequest(String ownerEmail, UUID requestId, boolean accept) {
+        return system.decideRequest(ownerEmail, requestId, accept);
+    }
+
+    @Override
+    public List<BookingRequest> listRequestsForOwner(String ownerEmail) {
+        return system.listRequestsForOwner(ownerEmail);
+    }
+
+    @Override
+    public String locate(UUID id) {
+        return system.locate(id);
+    }
+
+    @Override
+    public Set<String> areas() {
+        return system.areas();
+    }
+
+    @Override
+    public AreaData exportArea(String area) {
+        return system.exportArea(area);
+    }
+
+    @Override
+    public void importArea(AreaData data) {
+        system.importArea(data);
+    }
+
+    @Override
+    public int dropArea(String area) {
+        return system.dropArea(area);
+    }
+
+    @Override
+    public void close() {
+        // the system belongs to the caller
+    }
+}
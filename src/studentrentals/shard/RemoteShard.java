@@ -0,0 +1,343 @@
+package studentrentals.shard;
+
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Homeowner;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchPage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+// Client side of a shard served by ShardServer in another process. Calls run
+// concurrently over a small pool of connections, one call per connection at a
+// time; a call that finds every connection busy waits for one. A connection
+// that fails or times out is dropped and the next call opens a new one. Calls
+// are not retried, since most are not idempotent. Moving an area (export,
+// import, drop) ships the whole area in one call, so those calls wait longer.
+public final class RemoteShard implements Shard {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final int DEFAULT_MAX_CONNECTIONS = 8;
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 30_000;
+    private static final int DEFAULT_AREA_TIMEOUT_MILLIS = 600_000;
+
+    private static final class Connection {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // nothing left to do with it
+            }
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final int readTimeoutMillis;
+    private final int areaTimeoutMillis;
+    // one permit per connection that may be open
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private boolean closed;
+
+    public RemoteShard(String host, int port) {
+        this(host, port, DEFAULT_MAX_CONNECTIONS, DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    // readTimeoutMillis: longest wait for a shard's answer before the call fails
+    public RemoteShard(String host, int port, int maxConnections, int readTimeoutMillis) {
+        if (host == null || host.isBlank()) throw new IllegalArgumentException("Host must not be blank.");
+        if (port <= 0 || port > 65535) throw new IllegalArgumentException("Invalid port " + port + ".");
+        if (maxConnections <= 0) throw new IllegalArgumentException("Max connections must be > 0.");
+        if (readTimeoutMillis <= 0) throw new IllegalArgumentException("Read timeout must be > 0.");
+        this.host = host;
+        this.port = port;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.areaTimeoutMillis = Math.max(readTimeoutMillis, DEFAULT_AREA_TIMEOUT_MILLIS);
+        this.permits = new Semaphore(maxConnections);
+    }
+
+    // "host:port"
+    public static RemoteShard parse(String address) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) throw new IllegalArgumentException("Expected host:port, got " + address);
+        try {
+            return new RemoteShard(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid port in " + address);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+
+    @Override
+    public Student registerStudent(String name, String email, String phone, String password, String university,
+                                   String studentId) {
+        return (Student) call(Wire.REGISTER_STUDENT, o -> {
+            Wire.writeString(o, name);
+            Wire.writeString(o, email);
+            Wire.writeString(o, phone);
+            Wire.writeString(o, password);
+            Wire.writeString(o, university);
+            Wire.writeString(o, studentId);
+        }, Wire::readUser);
+    }
+
+    @Override
+    public Homeowner registerHomeowner(String name, String email, String phone, String password) {
+        return (Homeowner) call(Wire.REGISTER_HOMEOWNER, o -> {
+            Wire.writeString(o, name);
+            Wire.writeString(o, email);
+            Wire.writeString(o, phone);
+            Wire.writeString(o, password);
+        }, Wire::readUser);
+    }
+
+    @Override
+    public void importUser(User user) {
+        call(Wire.IMPORT_USER, o -> Wire.writeUser(o, user), i -> null);
+    }
+
+    @Override
+    public void adminDeactivateUser(String adminEmail, String userEmail) {
+        call(Wire.DEACTIVATE_USER, o -> {
+            Wire.writeString(o, adminEmail);
+            Wire.writeString(o, userEmail);
+        }, i -> null);
+    }
+
+    @Override
+    public Property createProperty(String ownerEmail, String address, String area, String description) {
+        return call(Wire.CREATE_PROPERTY, o -> {
+            Wire.writeString(o, ownerEmail);
+            Wire.writeString(o, address);
+            Wire.writeString(o, area);
+            Wire.writeString(o, description);
+        }, Wire::readProperty);
+    }
+
+    @Override
+    public Room addRoom(String ownerEmail, UUID propertyId, RoomType type, int pricePerMonth, String amenities,
+                        LocalDate availableFrom, LocalDate availableTo) {
+        if (propertyId == null || type == null) throw new IllegalArgumentException("Property and room type are required.");
+        return call(Wire.ADD_ROOM, o -> {
+            Wire.writeString(o, ownerEmail);
+            Wire.writeUuid(o, propertyId);
+            o.writeByte(type.ordinal());
+            o.writeInt(pricePerMonth);
+            Wire.writeString(o, amenities);
+            Wire.writeDate(o, availableFrom);
+            Wire.writeDate(o, availableTo);
+        }, Wire::readRoom);
+    }
+
+    @Override
+    public SearchPage searchRoomsPage(SearchCriteria criteria, RoomSortStrategy sortStrategy, int pageSize, String cursor) {
+        if (criteria == null) throw new IllegalArgumentException("Search criteria must not be null.");
+        if (sortStrategy == null) throw new IllegalArgumentException("Sort strategy must not be null.");
+        return call(Wire.SEARCH_PAGE, o -> {
+            Wire.writeCriteria(o, criteria);
+            Wire.writeStrategy(o, sortStrategy);
+            o.writeInt(pageSize);
+            Wire.writeString(o, cursor);
+        }, Wire::readPage);
+    }
+
+    @Override
+    public BookingRequest requestBooking(String studentEmail, UUID roomId, LocalDate start, LocalDate end) {
+        if (roomId == null) throw new IllegalArgumentException("Room not found.");
+        return call(Wire.REQUEST_BOOKING, o -> {
+            Wire.writeString(o, studentEmail);
+            Wire.writeUuid(o, roomId);
+            Wire.writeDate(o, start);
+            Wire.writeDate(o, end);
+        }, Wire::readRequest);
+    }
+
+    @Override
+    public Booking decideRequest(String ownerEmail, UUID requestId, boolean accept) {
+        if (requestId == null) throw new IllegalArgumentException("Request not found.");
+        return call(Wire.DECIDE_REQUEST, o -> {
+            Wire.writeString(o, ownerEmail);
+            Wire.writeUuid(o, requestId);
+            o.writeBoolean(accept);
+        }, i -> i.readBoolean() ? Wire.readBooking(i) : null);
+    }
+
+    @Override
+    public List<BookingRequest> listRequestsForOwner(String ownerEmail) {
+        return call(Wire.LIST_REQUESTS, o -> Wire.writeString(o, ownerEmail), i -> Wire.readList(i, Wire::readRequest));
+    }
+
+    @Override
+    public String locate(UUID id) {
+        return call(Wire.LOCATE, o -> Wire.writeUuid(o, id), Wire::readString);
+    }
+
+    @Override
+    public Set<String> areas() {
+        return call(Wire.AREAS, o -> { }, i -> new HashSet<>(Wire.readList(i, DataInput::readUTF)));
+    }
+
+    @Override
+    public AreaData exportArea(String area) {
+        return call(Wire.EXPORT_AREA, o -> Wire.writeString(o, area), Wire::readAreaData, areaTimeoutMillis);
+    }
+
+    @Override
+    public void importArea(AreaData data) {
+        call(Wire.IMPORT_AREA, o -> Wire.writeAreaData(o, data), i -> null, areaTimeoutMillis);
+    }
+
+    @Override
+    public int dropArea(String area) {
+        return call(Wire.DROP_AREA, o -> Wire.writeString(o, area), DataInputStream::readInt, areaTimeoutMillis);
+    }
+
+    // Idle connections close now, busy ones as their calls finish
+    @Override
+    public void close() {
+        List<Connection> open;
+        synchronized (idle) {
+            closed = true;
+            open = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (Connection c : open) c.close();
+    }
+
+    private <T> T call(byte op, Wire.Body args, Wire.Reader<T> result) {
+        return call(op, args, result, readTimeoutMillis);
+    }
+
+    private <T> T call(byte op, Wire.Body args, Wire.Reader<T> result, int timeoutMillis) {
+        byte[] request;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream o = new DataOutputStream(bytes);
+            o.writeByte(op);
+            args.write(o);
+            o.flush();
+            request = bytes.toByteArray();
+        } catch (IOException e) {
+            // in-memory streams do not throw
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] response = exchange(request, timeoutMillis);
+
+        try {
+            DataInputStream i = new DataInputStream(new ByteArrayInputStream(response));
+            byte status = i.readByte();
+            switch (status) {
+                case Wire.OK -> {
+                    return result.read(i);
+                }
+                case Wire.BAD_ARGUMENT -> throw new IllegalArgumentException(i.readUTF());
+                case Wire.BAD_STATE -> throw new IllegalStateException(i.readUTF());
+                default -> throw new IllegalStateException("Shard " + this + " failed: " + i.readUTF());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bad response from shard " + this + ".", e);
+        }
+    }
+
+    // One request/response on a pooled connection. A connection that failed,
+    // or whose answer may still arrive after a timeout, is closed, not reused.
+    private byte[] exchange(byte[] request, int timeoutMillis) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for shard " + this + "."));
+        }
+        Connection c = null;
+        try {
+            c = take();
+            if (timeoutMillis != readTimeoutMillis) c.socket.setSoTimeout(timeoutMillis);
+            Wire.writeFrame(c.out, request);
+            byte[] response = Wire.readFrame(c.in);
+            if (response == null) throw new EOFException("Shard " + this + " closed the connection.");
+            if (timeoutMillis != readTimeoutMillis) c.socket.setSoTimeout(readTimeoutMillis);
+            release(c);
+            c = null;
+            return response;
+        } catch (SocketTimeoutException e) {
+            throw new UncheckedIOException("Shard " + this + " did not answer within " + timeoutMillis + " ms.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard " + this + " unreachable.", e);
+        } finally {
+            if (c != null) c.close();
+            permits.release();
+        }
+    }
+
+    private Connection take() throws IOException {
+        synchronized (idle) {
+            if (closed) throw new IllegalStateException("Shard client " + this + " is closed.");
+            Connection c = idle.pollFirst();
+            if (c != null) return c;
+        }
+        Socket s = new Socket();
+        try {
+            s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            s.setTcpNoDelay(true);
+            s.setSoTimeout(readTimeoutMillis);
+            return new Connection(s);
+        } catch (IOException e) {
+            s.close();
+            throw e;
+        }
+    }
+
+    private void release(Connection c) {
+        synchronized (idle) {
+            if (!closed) {
+                idle.addFirst(c);
+                return;
+            }
+        }
+        c.close();
+    }
+}
@@ -0,0 +1,58 @@
+package studentrentals.shard;
+
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Homeowner;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchPage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// The part of StudentRentalsSystem a ShardRouter drives: in this JVM
+// (LocalShard) or in another process over a socket (RemoteShard). Methods
+// behave and fail like the StudentRentalsSystem methods of the same name.
+public interface Shard extends AutoCloseable {
+
+    Student registerStudent(String name, String email, String phone, String password, String university, String studentId);
+
+    Homeowner registerHomeowner(String name, String email, String phone, String password);
+
+    void importUser(User user);
+
+    void adminDeactivateUser(String adminEmail, String userEmail);
+
+    Property createProperty(String ownerEmail, String address, String area, String description);
+
+    Room addRoom(String ownerEmail, UUID propertyId, RoomType type, int pricePerMonth, String amenities,
+                 LocalDate availableFrom, LocalDate availableTo);
+
+    SearchPage searchRoomsPage(SearchCriteria criteria, RoomSortStrategy sortStrategy, int pageSize, String cursor);
+
+    BookingRequest requestBooking(String studentEmail, UUID roomId, LocalDate start, LocalDate end);
+
+    Booking decideRequest(String ownerEmail, UUID requestId, boolean accept);
+
+    List<BookingRequest> listRequestsForOwner(String ownerEmail);
+
+    String locate(UUID id);
+
+    Set<String> areas();
+
+    AreaData exportArea(String area);
+
+    void importArea(AreaData data);
+
+    int dropArea(String area);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,462 @@
+package studentrentals.shard;
+
+import studentrentals.model.Administrator;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Homeowner;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+import studentrentals.search.RoomSortKey;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchCursor;
+import studentrentals.search.SearchPage;
+import studentrentals.search.SortByPriceAsc;
+import studentrentals.util.PasswordHasher;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Spreads areas over shards. Everything about a property (its rooms, their
+// requests and bookings) lives on the shard its area is assigned to, so
+// area-scoped calls go to one shard and area-less searches scatter to all of
+// them and merge. Users are registered on shard 0 and copied to the others;
+// a copy that fails is retried before that shard's next call, so a shard that
+// was briefly unreachable catches up instead of missing the user for good.
+public final class ShardRouter implements AutoCloseable {
+
+    // tries per shard for a user copy or a deactivation before giving up on that shard
+    private static final int ATTEMPTS = 3;
+    private static final long RETRY_PAUSE_MILLIS = 100;
+
+    private static final Comparator<BookingRequest> REQUEST_ORDER =
+            Comparator.comparing(BookingRequest::getCreatedAt).thenComparing(BookingRequest::getId);
+
+    private final List<Shard> shards;
+    // area key -> shard index; areas not seen yet are placed by hash
+    private final Map<String, Integer> assignment = new ConcurrentHashMap<>();
+    // calls into an area take the read side, rebalance the write side
+    private final Map<String, ReentrantReadWriteLock> areaLocks = new ConcurrentHashMap<>();
+    // property, room and request ids -> area key; ids never change area, so rebalancing keeps these valid
+    private final Map<UUID, String> locations = new ConcurrentHashMap<>();
+    private final ExecutorService scatter;
+    // per shard: users registered elsewhere that it has not taken yet
+    private final List<Queue<User>> unreplicated = new ArrayList<>();
+
+    public ShardRouter(List<? extends Shard> shards) {
+        if (shards == null || shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required.");
+        this.shards = List.copyOf(shards);
+        for (int i = 0; i < this.shards.size(); i++) {
+            for (String area : this.shards.get(i).areas()) {
+                Integer previous = assignment.putIfAbsent(area, i);
+                if (previous != null) {
+                    throw new IllegalStateException("Area " + area + " is held by shards " + previous + " and " + i + ".");
+                }
+            }
+        }
+        for (int i = 0; i < this.shards.size(); i++) unreplicated.add(new ConcurrentLinkedQueue<>());
+        scatter = Executors.newFixedThreadPool(this.shards.size(), r -> {
+            Thread t = new Thread(r, "Shard scatter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public int shardCount() { return shards.size(); }
+
+    // index of the shard holding (or that would hold) this area
+    public int shardOf(String area) {
+        requireNonBlank(area, "Area");
+        return shardIndex(areaKey(area));
+    }
+
+    public Student registerStudent(String name, String email, String phone, String password, String university,
+                                   String studentId) {
+        Student s = shards.get(0).registerStudent(name, email, phone, password, university, studentId);
+        replicate(s);
+        return s;
+    }
+
+    public Homeowner registerHomeowner(String name, String email, String phone, String password) {
+        Homeowner h = shards.get(0).registerHomeowner(name, email, phone, password);
+        replicate(h);
+        return h;
+    }
+
+    // Puts an administrator on every shard under one id; shards start without
+    // one (ShardServer does not seed), and admin calls are checked per shard.
+    public Administrator bootstrapAdmin(String name, String email, String phone, String password) {
+        requireNonBlank(name, "Name");
+        requireNonBlank(email, "Email");
+        requireNonBlank(phone, "Phone");
+        requireNonBlank(password, "Password");
+        Administrator admin = new Administrator(UUID.randomUUID(), name, email.toLowerCase(Locale.ROOT), phone,
+                PasswordHasher.hashPassword(password), true);
+        // shard 0 first: an email already taken there fails here, before any copy is made
+        shards.get(0).importUser(admin);
+        replicate(admin);
+        return admin;
+    }
+
+    // Deactivates the user on every shard. Each shard is tried even if another
+    // fails; deactivating is idempotent, so calling again finishes the job.
+    public void adminDeactivateUser(String adminEmail, String userEmail) {
+        List<Integer> failed = new ArrayList<>();
+        RuntimeException first = null;
+        for (int i = 0; i < shards.size(); i++) {
+            try {
+                int index = i;
+                withRetries(() -> {
+                    syncUsers(index);
+                    shards.get(index).adminDeactivateUser(adminEmail, userEmail);
+                });
+            } catch (IllegalArgumentException e) {
+                // the same answer everywhere (not an admin, no such user): no shard was changed
+                if (i == 0) throw e;
+                failed.add(i);
+                if (first == null) first = e;
+            } catch (RuntimeException e) {
+                failed.add(i);
+                if (first == null) first = e;
+            }
+        }
+        if (first != null) {
+            throw new IllegalStateException("User not deactivated on shards " + failed + ": " + first.getMessage()
+                    + " Call again to retry.", first);
+        }
+    }
+
+    public Property createProperty(String ownerEmail, String address, String area, String description) {
+        requireNonBlank(area, "Area");
+        String key = areaKey(area);
+        Property p = inArea(key, shard -> shard.createProperty(ownerEmail, address, area, description));
+        locations.put(p.getId(), key);
+        return p;
+    }
+
+    public Room addRoom(String ownerEmail, UUID propertyId, RoomType type, int pricePerMonth, String amenities,
+                        LocalDate availableFrom, LocalDate availableTo) {
+        String key = locate(propertyId, "Property not found.");
+        Room r = inArea(key, shard -> shard.addRoom(ownerEmail, propertyId, type, pricePerMonth, amenities,
+                availableFrom, availableTo));
+        locations.put(r.getId(), key);
+        return r;
+    }
+
+    public BookingRequest requestBooking(String studentEmail, UUID roomId, LocalDate start, LocalDate end) {
+        String key = locate(roomId, "Room not found.");
+        BookingRequest req = inArea(key, shard -> shard.requestBooking(studentEmail, roomId, start, end));
+        locations.put(req.getId(), key);
+        return req;
+    }
+
+    public Booking decideRequest(String ownerEmail, UUID requestId, boolean accept) {
+        String key = locate(requestId, "Request not found.");
+        return inArea(key, shard -> shard.decideRequest(ownerEmail, requestId, accept));
+    }
+
+    // an owner's properties may span shards: gather and keep the oldest-first order
+    public List<BookingRequest> listRequestsForOwner(String ownerEmail) {
+        List<BookingRequest> all = new ArrayList<>();
+        for (List<BookingRequest> part : gather(shard -> shard.listRequestsForOwner(ownerEmail))) all.addAll(part);
+        all.sort(REQUEST_ORDER);
+        return all;
+    }
+
+    // Same cursor contract as StudentRentalsSystem.searchRoomsPage. Without an
+    // area every shard returns its own next page after the cursor; the first
+    // pageSize of their merge is the global page, because each shard's page is
+    // a prefix of that shard's share of the global order.
+    public SearchPage searchRoomsPage(SearchCriteria criteria, RoomSortStrategy sortStrategy, int pageSize, String cursor) {
+        if (criteria == null) throw new IllegalArgumentException("Search criteria must not be null.");
+        if (sortStrategy == null) throw new IllegalArgumentException("Sort strategy must not be null.");
+        if (pageSize <= 0) throw new IllegalArgumentException("Page size must be > 0.");
+        if (criteria.getArea() != null) {
+            requireNonBlank(criteria.getArea(), "Area");
+            return inArea(areaKey(criteria.getArea()), shard -> shard.searchRoomsPage(criteria, sortStrategy, pageSize, cursor));
+        }
+
+        List<SearchPage> pages = gather(shard -> shard.searchRoomsPage(criteria, sortStrategy, pageSize, cursor));
+        boolean shardHasMore = false;
+        // keys read once up front: a local shard's rooms are live and may be re-priced during the merge
+        List<RoomSortKey> merged = new ArrayList<>();
+        for (SearchPage page : pages) {
+            for (Room r : page.getRooms()) merged.add(RoomSortKey.of(r));
+            shardHasMore |= page.getNextCursor() != null;
+        }
+        merged.sort(sortStrategy.comparator());
+
+        // an area caught mid-rebalance can show up on two shards at once; refs
+        // belong to each shard's own registry, so rooms are matched by id halves
+        Set<UUID> seen = new HashSet<>();
+        List<Room> page = new ArrayList<>(pageSize);
+        RoomSortKey last = null;
+        boolean more = shardHasMore;
+        for (RoomSortKey k : merged) {
+            if (!seen.add(new UUID(k.getIdMostBits(), k.getIdLeastBits()))) continue;
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(k.getRoom());
+            last = k;
+        }
+        String next = more && last != null ? SearchCursor.encode(last, criteria, sortStrategy) : null;
+        return new SearchPage(page, next);
+    }
+
+    // Moves an area to another shard: copy, switch routing, then drop the
+    // source copy. Calls into the area wait meanwhile. If the router dies
+    // between import and drop, both shards hold the area and the next router
+    // refuses to start until one copy is dropped by hand. A failed import is
+    // dropped from the target again and the area stays where it was.
+    // Returns the number of properties moved.
+    public int rebalance(String area, int targetShard) {
+        requireNonBlank(area, "Area");
+        if (targetShard < 0 || targetShard >= shards.size()) {
+            throw new IllegalArgumentException("No shard " + targetShard + ".");
+        }
+        String key = areaKey(area);
+        Lock lock = areaLock(key).writeLock();
+        lock.lock();
+        try {
+            int source = shardIndex(key);
+            if (source == targetShard) return 0;
+            AreaData data = shards.get(source).exportArea(key);
+            Shard target = shards.get(targetShard);
+            syncUsers(targetShard);
+            try {
+                target.importArea(data);
+            } catch (RuntimeException e) {
+                // a timed-out import may still have landed: take it back so the
+                // area is held only by the source, which keeps serving it
+                try {
+                    target.dropArea(key);
+                } catch (RuntimeException dropFailure) {
+                    e.addSuppressed(dropFailure);
+                }
+                throw e;
+            }
+            assignment.put(key, targetShard);
+            shards.get(source).dropArea(key);
+            return data.getProperties().size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        scatter.shutdownNow();
+        for (Shard shard : shards) shard.close();
+    }
+
+    // Drives running ShardServers from a console:
+    //   java -cp out studentrentals.shard.ShardRouter <host:port>...
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ShardRouter <host:port>...");
+            System.exit(2);
+        }
+        List<Shard> shards = new ArrayList<>();
+        for (String address : args) shards.add(RemoteShard.parse(address));
+        try (ShardRouter router = new ShardRouter(shards); Scanner sc = new Scanner(System.in)) {
+            System.out.println("Commands: admin <name> <email> <phone> <password> | deactivate <admin-email> <user-email>");
+            System.out.println("          shard-of <area> | rebalance <area> <shard> | search <start> <end> [area] | quit");
+            while (true) {
+                System.out.print("> ");
+                if (!sc.hasNextLine()) return;
+                String[] words = sc.nextLine().trim().split("\\s+");
+                try {
+                    switch (words[0]) {
+                        case "admin" -> {
+                            requireWords(words, 5);
+                            Administrator a = router.bootstrapAdmin(words[1], words[2], words[3], words[4]);
+                            System.out.println("Administrator " + a.getEmail() + " is on all " + router.shardCount() + " shards.");
+                        }
+                        case "deactivate" -> {
+                            requireWords(words, 3);
+                            router.adminDeactivateUser(words[1], words[2]);
+                            System.out.println("Deactivated on every shard.");
+                        }
+                        case "shard-of" -> {
+                            requireWords(words, 2);
+                            System.out.println("Shard " + router.shardOf(words[1]));
+                        }
+                        case "rebalance" -> {
+                            requireWords(words, 3);
+                            int moved = router.rebalance(words[1], Integer.parseInt(words[2]));
+                            System.out.println("Moved " + moved + " properties.");
+                        }
+                        case "search" -> {
+                            requireWords(words, 3);
+                            SearchCriteria c = new SearchCriteria();
+                            c.setStartDate(LocalDate.parse(words[1]));
+                            c.setEndDate(LocalDate.parse(words[2]));
+                            if (words.length > 3) c.setArea(words[3]);
+                            String cursor = null;
+                            do {
+                                SearchPage page = router.searchRoomsPage(c, new SortByPriceAsc(), 50, cursor);
+                                for (Room r : page.getRooms()) {
+                                    System.out.printf("- Room %s | %s | £%d%n", r.getId(), r.getType(), r.getPricePerMonth());
+                                }
+                                cursor = page.getNextCursor();
+                            } while (cursor != null);
+                        }
+                        case "quit", "0" -> {
+                            return;
+                        }
+                        case "" -> { }
+                        default -> System.out.println("Unknown command " + words[0] + ".");
+                    }
+                } catch (RuntimeException e) {
+                    System.out.println("Error: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void requireWords(String[] words, int count) {
+        if (words.length < count) throw new IllegalArgumentException("Expected " + (count - 1) + " arguments.");
+    }
+
+    // Copies a user registered on shard 0 to the other shards. importUser takes
+    // the same user twice without complaint, so a copy is simply retried; one
+    // still failing stays queued for that shard's next call (syncUsers).
+    private void replicate(User user) {
+        for (int i = 1; i < shards.size(); i++) {
+            unreplicated.get(i).add(user);
+            int index = i;
+            try {
+                withRetries(() -> syncUsers(index));
+            } catch (IllegalArgumentException e) {
+                // the email belongs to another user there; retrying cannot help
+                throw e;
+            } catch (RuntimeException e) {
+                // unreachable for now: the shard catches up before it serves anything else
+            }
+        }
+    }
+
+    // hands the shard the users it missed; a user whose email it already holds
+    // under another id is dropped from the queue and reported
+    private void syncUsers(int index) {
+        Queue<User> queue = unreplicated.get(index);
+        User user;
+        while ((user = queue.peek()) != null) {
+            try {
+                shards.get(index).importUser(user);
+            } catch (IllegalArgumentException e) {
+                queue.remove(user);
+                throw e;
+            }
+            queue.remove(user);
+        }
+    }
+
+    private static void withRetries(Runnable call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                call.run();
+                return;
+            } catch (IllegalArgumentException e) {
+                // the shard answered: a retry would get the same answer
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt == ATTEMPTS) throw e;
+                try {
+                    Thread.sleep(RETRY_PAUSE_MILLIS * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private <T> T inArea(String key, Function<Shard, T> call) {
+        Lock lock = areaLock(key).readLock();
+        lock.lock();
+        try {
+            int index = shardIndex(key);
+            syncUsers(index);
+            return call.apply(shards.get(index));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> List<T> gather(Function<Shard, T> call) {
+        if (shards.size() == 1) return List.of(call.apply(shards.get(0)));
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int index = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                syncUsers(index);
+                return call.apply(shards.get(index));
+            }, scatter));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (CompletableFuture<T> f : futures) results.add(f.join());
+        } catch (CompletionException e) {
+            // rethrow what the shard threw, as a direct call would
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return results;
+    }
+
+    private String locate(UUID id, String notFound) {
+        if (id == null) throw new IllegalArgumentException(notFound);
+        String key = locations.get(id);
+        if (key != null) return key;
+        for (String area : gather(shard -> shard.locate(id))) {
+            if (area != null) {
+                locations.put(id, area);
+                return area;
+            }
+        }
+        throw new IllegalArgumentException(notFound);
+    }
+
+    private int shardIndex(String key) {
+        return assignment.computeIfAbsent(key, k -> Math.floorMod(k.hashCode(), shards.size()));
+    }
+
+    private ReentrantReadWriteLock areaLock(String key) {
+        return areaLocks.computeIfAbsent(key, k -> new ReentrantReadWriteLock());
+    }
+
+    // must match StudentRentalsSystem's area keys
+    private static String areaKey(String area) {
+        return area.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void requireNonBlank(String value, String fieldName) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(fieldName + " must not be blank.");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package studentrentals.shard;
+
+import studentrentals.Services;
+import studentrentals.StudentRentalsSystem;
+import studentrentals.model.Booking;
+import studentrentals.model.RoomType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Set;
+
+// Serves one shard over the Wire protocol, a thread per connection (each
+// router's RemoteShard keeps a small pool of them). Run as its own process with
+//   java -cp out studentrentals.shard.ShardServer <port> [data-dir]
+public final class ShardServer implements AutoCloseable {
+
+    private final Shard shard;
+    private final ServerSocket server;
+    private final Thread acceptor;
+
+    public ShardServer(Shard shard, int port) {
+        if (shard == null) throw new IllegalArgumentException("Shard must not be null.");
+        this.shard = shard;
+        try {
+            server = new ServerSocket();
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen on port " + port + ".", e);
+        }
+        acceptor = new Thread(this::acceptLoop, "Shard server :" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    // the bound port (useful when constructed with 0)
+    public int getPort() { return server.getLocalPort(); }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+            acceptor.join();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket s = server.accept();
+                Thread t = new Thread(() -> serve(s), "Shard connection " + s.getRemoteSocketAddress());
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) System.err.println("Shard server accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket s) {
+        try (s) {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            byte[] request;
+            while ((request = Wire.readFrame(in)) != null) {
+                Wire.writeFrame(out, handle(request));
+            }
+        } catch (IOException e) {
+            // the router went away; it reconnects when it needs to
+        }
+    }
+
+    private byte[] handle(byte[] request) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(request));
+                ByteArrayOutputStream result = new ByteArrayOutputStream(256);
+                dispatch(in.readByte(), in, new DataOutputStream(result));
+                out.writeByte(Wire.OK);
+                result.writeTo(out);
+            } catch (IllegalArgumentException e) {
+                fail(bytes, out, Wire.BAD_ARGUMENT, e.getMessage());
+            } catch (IllegalStateException e) {
+                fail(bytes, out, Wire.BAD_STATE, e.getMessage());
+            } catch (RuntimeException | IOException e) {
+                fail(bytes, out, Wire.FAILED, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+            out.flush();
+        } catch (IOException e) {
+            // in-memory streams do not throw
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void fail(ByteArrayOutputStream bytes, DataOutputStream out, byte status, String message)
+            throws IOException {
+        bytes.reset();
+        out.writeByte(status);
+        out.writeUTF(message != null ? message : "");
+    }
+
+    private void dispatch(byte op, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (op) {
+            case Wire.REGISTER_STUDENT -> Wire.writeUser(out, shard.registerStudent(Wire.readString(in), Wire.readString(in),
+                    Wire.readString(in), Wire.readString(in), Wire.readString(in), Wire.readString(in)));
+            case Wire.REGISTER_HOMEOWNER -> Wire.writeUser(out, shard.registerHomeowner(Wire.readString(in),
+                    Wire.readString(in), Wire.readString(in), Wire.readString(in)));
+            case Wire.IMPORT_USER -> shard.importUser(Wire.readUser(in));
+            case Wire.DEACTIVATE_USER -> shard.adminDeactivateUser(Wire.readString(in), Wire.readString(in));
+            case Wire.CREATE_PROPERTY -> Wire.writeProperty(out, shard.createProperty(Wire.readString(in),
+                    Wire.readString(in), Wire.readString(in), Wire.readString(in)));
+            case Wire.ADD_ROOM -> Wire.writeRoom(out, shard.addRoom(Wire.readString(in), Wire.readUuid(in),
+                    RoomType.values()[in.readByte()], in.readInt(), Wire.readString(in), Wire.readDate(in),
+                    Wire.readDate(in)));
+            case Wire.SEARCH_PAGE -> Wire.writePage(out, shard.searchRoomsPage(Wire.readCriteria(in),
+                    Wire.readStrategy(in), in.readInt(), Wire.readString(in)));
+            case Wire.REQUEST_BOOKING -> Wire.writeRequest(out, shard.requestBooking(Wire.readString(in),
+                    Wire.readUuid(in), Wire.readDate(in), Wire.readDate(in)));
+            case Wire.DECIDE_REQUEST -> {
+                Booking b = shard.decideRequest(Wire.readString(in), Wire.readUuid(in), in.readBoolean());
+                out.writeBoolean(b != null);
+                if (b != null) Wire.writeBooking(out, b);
+            }
+            case Wire.LIST_REQUESTS -> Wire.writeList(out, shard.listRequestsForOwner(Wire.readString(in)),
+                    Wire::writeRequest);
+            case Wire.LOCATE -> Wire.writeString(out, shard.locate(Wire.readUuid(in)));
+            case Wire.AREAS -> {
+                Set<String> areas = shard.areas();
+                Wire.writeList(out, new ArrayList<>(areas), DataOutputStream::writeUTF);
+            }
+            case Wire.EXPORT_AREA -> Wire.writeAreaData(out, shard.exportArea(Wire.readString(in)));
+            case Wire.IMPORT_AREA -> shard.importArea(Wire.readAreaData(in));
+            case Wire.DROP_AREA -> out.writeInt(shard.dropArea(Wire.readString(in)));
+            default -> throw new IllegalArgumentException("Unknown operation " + op + ".");
+        }
+        out.flush();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: ShardServer <port> [data-dir]");
+            System.exit(2);
+        }
+        StudentRentalsSystem system = new StudentRentalsSystem();
+        Services services = new Services(system, args.length > 1 ? Paths.get(args[1]) : null);
+        try (ShardServer server = new ShardServer(new LocalShard(system), Integer.parseInt(args[0]))) {
+            System.out.println("Shard listening on port " + server.getPort());
+            server.acceptor.join();
+        } finally {
+            services.close();
+        }
+    }
+}
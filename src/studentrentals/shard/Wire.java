@@ -0,0 +1,304 @@
+package studentrentals.shard;
+
+import studentrentals.model.Administrator;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Homeowner;
+import studentrentals.model.Property;
+import studentrentals.model.RequestStatus;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchPage;
+import studentrentals.search.SortByAvailableFromThenPrice;
+import studentrentals.search.SortByPriceAsc;
+import studentrentals.search.SortByPriceDesc;
+import studentrentals.search.SortByPriceThenAvailableFrom;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Shard socket protocol. Every message is a frame: [int length][body].
+// Request body:  [byte op][arguments]
+// Response body: [byte status][result], or [byte status][string message] on failure
+// Values are written with DataOutputStream; nullable values carry a presence byte.
+final class Wire {
+    private Wire() {}
+
+    static final int MAX_FRAME_BYTES = 256 * 1024 * 1024;
+
+    static final byte REGISTER_STUDENT = 1;
+    static final byte REGISTER_HOMEOWNER = 2;
+    static final byte IMPORT_USER = 3;
+    static final byte DEACTIVATE_USER = 4;
+    static final byte CREATE_PROPERTY = 5;
+    static final byte ADD_ROOM = 6;
+    static final byte SEARCH_PAGE = 7;
+    static final byte REQUEST_BOOKING = 8;
+    static final byte DECIDE_REQUEST = 9;
+    static final byte LIST_REQUESTS = 10;
+    static final byte LOCATE = 11;
+    static final byte AREAS = 12;
+    static final byte EXPORT_AREA = 13;
+    static final byte IMPORT_AREA = 14;
+    static final byte DROP_AREA = 15;
+
+    static final byte OK = 0;
+    // thrown again on the caller's side as the same exception type
+    static final byte BAD_ARGUMENT = 1;
+    static final byte BAD_STATE = 2;
+    static final byte FAILED = 3;
+
+    private static final byte STUDENT = 0;
+    private static final byte HOMEOWNER = 1;
+    private static final byte ADMIN = 2;
+
+    interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    interface Writer<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+    }
+
+    interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    static void writeFrame(DataOutputStream out, byte[] body) throws IOException {
+        out.writeInt(body.length);
+        out.write(body);
+        out.flush();
+    }
+
+    // null at a clean end of stream
+    static byte[] readFrame(DataInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) return null;
+        int length = (first << 24) | (in.readUnsignedByte() << 16) | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+        if (length < 1 || length > MAX_FRAME_BYTES) throw new IOException("Bad frame length " + length + ".");
+        byte[] body = new byte[length];
+        in.readFully(body);
+        return body;
+    }
+
+    static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static void writeDate(DataOutputStream out, LocalDate d) throws IOException {
+        out.writeBoolean(d != null);
+        if (d != null) out.writeLong(d.toEpochDay());
+    }
+
+    static LocalDate readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    static void writeDateTime(DataOutputStream out, LocalDateTime t) throws IOException {
+        out.writeLong(t.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(t.getNano());
+    }
+
+    static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    static void writeInteger(DataOutputStream out, Integer i) throws IOException {
+        out.writeBoolean(i != null);
+        if (i != null) out.writeInt(i);
+    }
+
+    static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    static <T> void writeList(DataOutputStream out, List<T> items, Writer<T> writer) throws IOException {
+        out.writeInt(items.size());
+        for (T item : items) writer.write(out, item);
+    }
+
+    static <T> List<T> readList(DataInputStream in, Reader<T> reader) throws IOException {
+        int n = in.readInt();
+        if (n < 0) throw new IOException("Bad list length " + n + ".");
+        List<T> items = new ArrayList<>(Math.min(n, 1024));
+        for (int i = 0; i < n; i++) items.add(reader.read(in));
+        return items;
+    }
+
+    static void writeUser(DataOutputStream out, User u) throws IOException {
+        out.writeByte(u instanceof Student ? STUDENT : u instanceof Homeowner ? HOMEOWNER : ADMIN);
+        writeUuid(out, u.getId());
+        out.writeUTF(u.getName());
+        out.writeUTF(u.getEmail());
+        out.writeUTF(u.getPhone());
+        out.writeUTF(u.getPasswordHash());
+        out.writeBoolean(u.isActive());
+        if (u instanceof Student s) {
+            out.writeUTF(s.getUniversityName());
+            out.writeUTF(s.getStudentId());
+        }
+    }
+
+    static User readUser(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        UUID id = readUuid(in);
+        String name = in.readUTF();
+        String email = in.readUTF();
+        String phone = in.readUTF();
+        String hash = in.readUTF();
+        boolean active = in.readBoolean();
+        return switch (kind) {
+            case STUDENT -> new Student(id, name, email, phone, hash, active, in.readUTF(), in.readUTF());
+            case HOMEOWNER -> new Homeowner(id, name, email, phone, hash, active);
+            case ADMIN -> new Administrator(id, name, email, phone, hash, active);
+            default -> throw new IOException("Unknown user kind " + kind + ".");
+        };
+    }
+
+    static void writeProperty(DataOutputStream out, Property p) throws IOException {
+        writeUuid(out, p.getId());
+        writeUuid(out, p.getOwnerId());
+        out.writeUTF(p.getAddress());
+        out.writeUTF(p.getArea());
+        out.writeUTF(p.getDescription());
+    }
+
+    static Property readProperty(DataInputStream in) throws IOException {
+        return new Property(readUuid(in), readUuid(in), in.readUTF(), in.readUTF(), in.readUTF());
+    }
+
+    static void writeRoom(DataOutputStream out, Room r) throws IOException {
+        writeUuid(out, r.getId());
+        writeUuid(out, r.getPropertyId());
+        writeUuid(out, r.getOwnerId());
+        out.writeByte(r.getType().ordinal());
+        out.writeInt(r.getPricePerMonth());
+        writeString(out, r.getAmenities());
+        writeDate(out, r.getAvailableFrom());
+        writeDate(out, r.getAvailableTo());
+    }
+
+    static Room readRoom(DataInputStream in) throws IOException {
+        return new Room(readUuid(in), readUuid(in), readUuid(in), RoomType.values()[in.readByte()], in.readInt(),
+                readString(in), readDate(in), readDate(in));
+    }
+
+    static void writeRequest(DataOutputStream out, BookingRequest r) throws IOException {
+        writeUuid(out, r.getId());
+        writeUuid(out, r.getStudentId());
+        writeUuid(out, r.getRoomId());
+        writeDate(out, r.getStartDate());
+        writeDate(out, r.getEndDate());
+        out.writeByte(r.getStatus().ordinal());
+        writeDateTime(out, r.getCreatedAt());
+        writeString(out, r.getReason());
+    }
+
+    static BookingRequest readRequest(DataInputStream in) throws IOException {
+        return new BookingRequest(readUuid(in), readUuid(in), readUuid(in), readDate(in), readDate(in),
+                RequestStatus.values()[in.readByte()], readDateTime(in), readString(in));
+    }
+
+    static void writeBooking(DataOutputStream out, Booking b) throws IOException {
+        writeUuid(out, b.getId());
+        writeUuid(out, b.getStudentId());
+        writeUuid(out, b.getRoomId());
+        writeDate(out, b.getStartDate());
+        writeDate(out, b.getEndDate());
+        writeDateTime(out, b.getConfirmedAt());
+    }
+
+    static Booking readBooking(DataInputStream in) throws IOException {
+        return new Booking(readUuid(in), readUuid(in), readUuid(in), readDate(in), readDate(in), readDateTime(in));
+    }
+
+    static void writeCriteria(DataOutputStream out, SearchCriteria c) throws IOException {
+        writeString(out, c.getArea());
+        writeInteger(out, c.getMinPrice());
+        writeInteger(out, c.getMaxPrice());
+        out.writeByte(c.getRoomType() != null ? c.getRoomType().ordinal() : -1);
+        writeDate(out, c.getStartDate());
+        writeDate(out, c.getEndDate());
+    }
+
+    static SearchCriteria readCriteria(DataInputStream in) throws IOException {
+        SearchCriteria c = new SearchCriteria();
+        c.setArea(readString(in));
+        c.setMinPrice(readInteger(in));
+        c.setMaxPrice(readInteger(in));
+        byte type = in.readByte();
+        c.setRoomType(type >= 0 ? RoomType.values()[type] : null);
+        c.setStartDate(readDate(in));
+        c.setEndDate(readDate(in));
+        return c;
+    }
+
+    // only the built-in strategies can cross the wire
+    static void writeStrategy(DataOutputStream out, RoomSortStrategy s) throws IOException {
+        byte code;
+        if (s instanceof SortByPriceAsc) code = 1;
+        else if (s instanceof SortByPriceDesc) code = 2;
+        else if (s instanceof SortByAvailableFromThenPrice) code = 3;
+        else if (s instanceof SortByPriceThenAvailableFrom) code = 4;
+        else throw new IllegalArgumentException("Sort strategy cannot be sent to a shard: " + s.getClass().getSimpleName());
+        out.writeByte(code);
+    }
+
+    static RoomSortStrategy readStrategy(DataInputStream in) throws IOException {
+        byte code = in.readByte();
+        return switch (code) {
+            case 1 -> new SortByPriceAsc();
+            case 2 -> new SortByPriceDesc();
+            case 3 -> new SortByAvailableFromThenPrice();
+            case 4 -> new SortByPriceThenAvailableFrom();
+            default -> throw new IOException("Unknown sort strategy " + code + ".");
+        };
+    }
+
+    static void writePage(DataOutputStream out, SearchPage page) throws IOException {
+        writeList(out, page.getRooms(), Wire::writeRoom);
+        writeString(out, page.getNextCursor());
+    }
+
+    static SearchPage readPage(DataInputStream in) throws IOException {
+        return new SearchPage(readList(in, Wire::readRoom), readString(in));
+    }
+
+    static void writeAreaData(DataOutputStream out, AreaData d) throws IOException {
+        out.writeUTF(d.getArea());
+        writeList(out, d.getProperties(), Wire::writeProperty);
+        writeList(out, d.getRooms(), Wire::writeRoom);
+        writeList(out, d.getBookings(), Wire::writeBooking);
+        writeList(out, d.getRequests(), Wire::writeRequest);
+    }
+
+    static AreaData readAreaData(DataInputStream in) throws IOException {
+        return new AreaData(in.readUTF(), readList(in, Wire::readProperty), readList(in, Wire::readRoom),
+                readList(in, Wire::readBooking), readList(in, Wire::readRequest));
+    }
+}
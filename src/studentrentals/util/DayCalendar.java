@@ -0,0 +1,160 @@
+package studentrentals.util;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// One bit per day over a fixed span of epoch days, set = free. Range checks
+// and updates work a 64-day word at a time. Days are half-open like bookings:
+// a range [start, end) covers the nights from start up to the day before end.
+// Not thread-safe.
+public final class DayCalendar {
+
+    private final long firstDay;
+    private final int days;
+    private final long[] words;
+
+    private DayCalendar(long firstDay, int days) {
+        this.firstDay = firstDay;
+        this.days = Math.max(0, days);
+        this.words = new long[(this.days + 63) >>> 6];
+    }
+
+    // All days in [from, to) free, covering at most maxDays days from 'from'
+    public static DayCalendar free(LocalDate from, LocalDate to, int maxDays) {
+        long first = from.toEpochDay();
+        int span = (int) Math.max(0, Math.min(maxDays, to.toEpochDay() - first));
+        DayCalendar cal = new DayCalendar(first, span);
+        cal.fill(0, span, true);
+        return cal;
+    }
+
+    public LocalDate getFirstDay() { return LocalDate.ofEpochDay(firstDay); }
+
+    public LocalDate getEndDay() { return LocalDate.ofEpochDay(firstDay + days); }
+
+    // True when [start, end) lies inside the span this calendar tracks
+    public boolean covers(LocalDate start, LocalDate end) {
+        long s = start.toEpochDay();
+        long e = end.toEpochDay();
+        return s >= firstDay && e <= firstDay + days && s < e;
+    }
+
+    // Every day of [start, end) free; the range must be covered
+    public boolean isFree(LocalDate start, LocalDate end) {
+        int from = (int) (start.toEpochDay() - firstDay);
+        int to = (int) (end.toEpochDay() - firstDay);
+        int w = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long first = -1L << from;
+        long last = -1L >>> -to;
+        if (w == lastWord) {
+            long mask = first & last;
+            return (words[w] & mask) == mask;
+        }
+        if ((words[w] & first) != first) return false;
+        for (w++; w < lastWord; w++) {
+            if (words[w] != -1L) return false;
+        }
+        return (words[lastWord] & last) == last;
+    }
+
+    // Start of the first run of 'length' free days inside [start, end), or null.
+    // Jumps from gap to gap rather than testing every candidate day; the range must be covered.
+    public LocalDate firstFreeRun(LocalDate start, LocalDate end, int length) {
+        int pos = (int) (start.toEpochDay() - firstDay);
+        int limit = (int) (end.toEpochDay() - firstDay);
+        while (pos + length <= limit) {
+            int free = nextBit(pos, limit, true);
+            if (free < 0 || free + length > limit) return null;
+            int busy = nextBit(free, limit, false);
+            if (busy < 0) busy = limit;
+            if (busy - free >= length) return LocalDate.ofEpochDay(firstDay + free);
+            pos = busy;
+        }
+        return null;
+    }
+
+    // Clipped to the tracked span
+    public void markBusy(LocalDate start, LocalDate end) {
+        mark(start, end, false);
+    }
+
+    public void markFree(LocalDate start, LocalDate end) {
+        mark(start, end, true);
+    }
+
+    // A calendar for [from, to) that keeps this one's bits for the days both
+    // share; days new to the window start free.
+    public DayCalendar resize(LocalDate from, LocalDate to, int maxDays) {
+        DayCalendar next = free(from, to, maxDays);
+        long lo = Math.max(firstDay, next.firstDay);
+        long hi = Math.min(firstDay + days, next.firstDay + next.days);
+        for (long d = lo; d < hi; ) {
+            int src = (int) (d - firstDay);
+            int dst = (int) (d - next.firstDay);
+            int n = (int) Math.min(64, hi - d);
+            next.putBits(dst, n, getBits(src, n));
+            d += n;
+        }
+        return next;
+    }
+
+    // index of the first bit in [from, limit) equal to 'free', or -1
+    private int nextBit(int from, int limit, boolean free) {
+        if (from >= limit) return -1;
+        int w = from >>> 6;
+        long word = (free ? words[w] : ~words[w]) & (-1L << from);
+        while (word == 0) {
+            w++;
+            if ((w << 6) >= limit) return -1;
+            word = free ? words[w] : ~words[w];
+        }
+        int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+        return bit < limit ? bit : -1;
+    }
+
+    private void mark(LocalDate start, LocalDate end, boolean free) {
+        long s = Math.max(start.toEpochDay(), firstDay);
+        long e = Math.min(end.toEpochDay(), firstDay + days);
+        if (s >= e) return;
+        fill((int) (s - firstDay), (int) (e - firstDay), free);
+    }
+
+    private void fill(int from, int to, boolean value) {
+        if (from >= to) return;
+        int w = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long first = -1L << from;
+        long last = -1L >>> -to;
+        if (w == lastWord) {
+            set(w, first & last, value);
+            return;
+        }
+        set(w, first, value);
+        Arrays.fill(words, w + 1, lastWord, value ? -1L : 0L);
+        set(lastWord, last, value);
+    }
+
+    private void set(int w, long mask, boolean value) {
+        words[w] = value ? words[w] | mask : words[w] & ~mask;
+    }
+
+    // n (1..64) bits starting at bit index 'from', low bit first
+    private long getBits(int from, int n) {
+        int w = from >>> 6;
+        int off = from & 63;
+        long bits = words[w] >>> off;
+        if (off != 0 && w + 1 < words.length) bits |= words[w + 1] << (64 - off);
+        return n == 64 ? bits : bits & ((1L << n) - 1);
+    }
+
+    private void putBits(int from, int n, long bits) {
+        int w = from >>> 6;
+        int off = from & 63;
+        long mask = n == 64 ? -1L : (1L << n) - 1;
+        words[w] = (words[w] & ~(mask << off)) | (bits << off);
+        if (off != 0 && off + n > 64) {
+            words[w + 1] = (words[w + 1] & ~(mask >>> (64 - off))) | (bits >>> (64 - off));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package studentrentals.util;
+
+import java.util.UUID;
+
+// A handful of refs and their ids, looked up by a linear scan.
+final class FrozenIds implements IdLookup {
+
+    private final int[] refs;
+    private final UUID[] ids;
+
+    FrozenIds(int[] refs, UUID[] ids) {
+        this.refs = refs;
+        this.ids = ids;
+    }
+
+    @Override
+    public UUID uuid(int ref) {
+        if (ref == IdRegistry.NONE) return null;
+        for (int i = 0; i < refs.length; i++) {
+            if (refs[i] == ref) return ids[i];
+        }
+        throw new IllegalArgumentException("Unknown id ref " + ref + ".");
+    }
+
+    @Override
+    public long mostSignificantBits(int ref) {
+        return required(ref).getMostSignificantBits();
+    }
+
+    @Override
+    public long leastSignificantBits(int ref) {
+        return required(ref).getLeastSignificantBits();
+    }
+
+    @Override
+    public IdLookup freeze(int... refs) {
+        return this;
+    }
+
+    private UUID required(int ref) {
+        UUID id = uuid(ref);
+        if (id == null) throw new IllegalArgumentException("Unknown id ref " + ref + ".");
+        return id;
+    }
+}
@@ -0,0 +1,29 @@
+package studentrentals.util;
+
+import java.util.UUID;
+
+// Where an entity reads the UUIDs behind its int refs. While a system holds
+// the entity that is the system's IdRegistry; once the entity leaves (removed,
+// archived, expired) it switches to a frozen copy of just its own refs before
+// the registry frees them, so a caller still holding it reads the right ids.
+// Entities built from UUIDs (decoded from the journal, the wire or the
+// archive) get a detached lookup and never touch a registry.
+public interface IdLookup {
+
+    // null for IdRegistry.NONE
+    UUID uuid(int ref);
+
+    long mostSignificantBits(int ref);
+
+    long leastSignificantBits(int ref);
+
+    // a lookup that answers for these refs only, and no longer changes
+    IdLookup freeze(int... refs);
+
+    // ref i names ids[i]; a null id reads back as null
+    static IdLookup detached(UUID... ids) {
+        int[] refs = new int[ids.length];
+        for (int i = 0; i < refs.length; i++) refs[i] = i;
+        return new FrozenIds(refs, ids.clone());
+    }
+}
@@ -0,0 +1,295 @@
+package studentrentals.util;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+// Dense int refs for UUIDs. Entities hold refs to themselves and to each other
+// (4 bytes, no object) and are keyed by them in IntTables; a UUID is built only
+// when one leaves through a getter (CLI, HTTP API, journal, wire).
+// The first time a UUID is seen it gets a ref, and its two halves are stored
+// at that ref in parallel long arrays; an open-addressing int[] index (linear
+// probing, tombstones) maps a UUID back to its ref: 24 to 40 bytes per id,
+// with the arrays' spare room.
+// Each system has its own registry. When an entity goes, the system freezes
+// the entity's ids (see IdLookup) and releases its ref, and the next new id
+// takes that ref: the registry holds what is live, not every id ever seen.
+// A ref therefore names an id only while its entity is held; code that looks
+// an entity up by ref must check it is still the one it meant.
+// Writers take a lock; readers read optimistically and retry under the read
+// lock only if a write overlapped.
+public final class IdRegistry implements IdLookup {
+
+    // the ref of a null id
+    public static final int NONE = -1;
+
+    private static final int EMPTY = -1;
+    private static final int TOMBSTONE = -2;
+    private static final int MIN_CAPACITY = 1024;
+
+    // every array is replaced together on growth, so a reader that loads
+    // `state` once always sees arrays of matching sizes
+    private static final class State {
+        final int[] index;
+        final long[] msb;
+        final long[] lsb;
+        // refs handed out so far, live or released
+        int size;
+        int live;
+        int tombstones;
+
+        State(int indexCapacity, int refCapacity) {
+            index = new int[indexCapacity];
+            Arrays.fill(index, EMPTY);
+            msb = new long[refCapacity];
+            lsb = new long[refCapacity];
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private State state = new State(MIN_CAPACITY * 2, MIN_CAPACITY);
+    // released refs, reused last-in first-out; guarded by the write lock
+    private int[] free = new int[16];
+    private int freeCount;
+
+    // the id's ref, assigning one if it has none yet
+    public int of(UUID id) {
+        if (id == null) return NONE;
+        int ref = find(id);
+        if (ref != NONE) return ref;
+
+        long m = id.getMostSignificantBits();
+        long l = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            State s = state;
+            int slot = slotOf(s, m, l);
+            if (s.index[slot] >= 0) return s.index[slot];
+
+            if ((s.live + s.tombstones + 1) * 2 > s.index.length
+                    || (freeCount == 0 && s.size == s.msb.length)) {
+                s = grow(s);
+                slot = slotOf(s, m, l);
+            }
+            if (freeCount > 0) {
+                ref = free[--freeCount];
+            } else {
+                if (s.size == Integer.MAX_VALUE - 8) throw new IllegalStateException("Out of id refs.");
+                ref = s.size++;
+            }
+            // halves first, index slot last: an optimistic reader never finds a ref before its id
+            s.msb[ref] = m;
+            s.lsb[ref] = l;
+            if (s.index[slot] == TOMBSTONE) s.tombstones--;
+            s.index[slot] = ref;
+            s.live++;
+            return ref;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // a ref for a new random id
+    public int newRef() {
+        return of(UUID.randomUUID());
+    }
+
+    // Forgets the ref's id and frees the ref for the next new id. The caller
+    // must be done with it: anything still holding the ref has to read its id
+    // from a frozen copy (see freeze).
+    public void release(int ref) {
+        long stamp = lock.writeLock();
+        try {
+            State s = state;
+            if (ref < 0 || ref >= s.size) throw new IllegalArgumentException("Unknown id ref " + ref + ".");
+            int[] index = s.index;
+            int mask = index.length - 1;
+            int i = hash(s.msb[ref], s.lsb[ref]) & mask;
+            while (index[i] != ref) {
+                if (index[i] == EMPTY) throw new IllegalStateException("Id ref " + ref + " is already released.");
+                i = (i + 1) & mask;
+            }
+            index[i] = TOMBSTONE;
+            s.live--;
+            s.tombstones++;
+            if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+            free[freeCount++] = ref;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // the id's ref, or NONE if it has none (nothing is assigned)
+    public int find(UUID id) {
+        if (id == null) return NONE;
+        long m = id.getMostSignificantBits();
+        long l = id.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int ref = probe(state, m, l);
+            if (lock.validate(stamp)) return ref;
+        }
+        stamp = lock.readLock();
+        try {
+            return probe(state, m, l);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ids currently holding a ref
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return state.live;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // a new UUID equal to the one the ref is assigned to; null for NONE
+    @Override
+    public UUID uuid(int ref) {
+        if (ref == NONE) return null;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            State s = state;
+            if (ref >= 0 && ref < s.size) {
+                long m = s.msb[ref];
+                long l = s.lsb[ref];
+                if (lock.validate(stamp)) return new UUID(m, l);
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            State s = state;
+            requireAssigned(s, ref);
+            return new UUID(s.msb[ref], s.lsb[ref]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long mostSignificantBits(int ref) {
+        return half(ref, true);
+    }
+
+    @Override
+    public long leastSignificantBits(int ref) {
+        return half(ref, false);
+    }
+
+    @Override
+    public IdLookup freeze(int... refs) {
+        UUID[] ids = new UUID[refs.length];
+        long stamp = lock.readLock();
+        try {
+            State s = state;
+            for (int i = 0; i < refs.length; i++) {
+                if (refs[i] == NONE) continue;
+                requireAssigned(s, refs[i]);
+                ids[i] = new UUID(s.msb[refs[i]], s.lsb[refs[i]]);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return new FrozenIds(refs.clone(), ids);
+    }
+
+    // orders refs as UUID.compareTo orders their ids, so anything sorted by id
+    // comes out the same in every process and across restarts
+    public int compare(int a, int b) {
+        if (a == b) return 0;
+        int c = Long.compare(mostSignificantBits(a), mostSignificantBits(b));
+        return c != 0 ? c : Long.compare(leastSignificantBits(a), leastSignificantBits(b));
+    }
+
+    private long half(int ref, boolean most) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            State s = state;
+            if (ref >= 0 && ref < s.size) {
+                long v = most ? s.msb[ref] : s.lsb[ref];
+                if (lock.validate(stamp)) return v;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            State s = state;
+            requireAssigned(s, ref);
+            return most ? s.msb[ref] : s.lsb[ref];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static void requireAssigned(State s, int ref) {
+        if (ref < 0 || ref >= s.size) throw new IllegalArgumentException("Unknown id ref " + ref + ".");
+    }
+
+    // Bounded to one lap of the index, since under an optimistic read the
+    // arrays may be mid-update; validate() then throws the result away.
+    private static int probe(State s, long m, long l) {
+        int[] index = s.index;
+        int mask = index.length - 1;
+        int i = hash(m, l) & mask;
+        for (int probes = 0; probes < index.length; probes++) {
+            int ref = index[i];
+            if (ref == EMPTY) return NONE;
+            if (ref >= 0 && ref < s.msb.length && s.msb[ref] == m && s.lsb[ref] == l) return ref;
+            i = (i + 1) & mask;
+        }
+        return NONE;
+    }
+
+    // index slot holding the id, else the first free (empty or tombstone) slot
+    // it would go in; caller holds the write lock
+    private static int slotOf(State s, long m, long l) {
+        int[] index = s.index;
+        int mask = index.length - 1;
+        int i = hash(m, l) & mask;
+        int firstTombstone = -1;
+        while (true) {
+            int ref = index[i];
+            if (ref == EMPTY) return firstTombstone >= 0 ? firstTombstone : i;
+            if (ref == TOMBSTONE) {
+                if (firstTombstone < 0) firstTombstone = i;
+            } else if (s.msb[ref] == m && s.lsb[ref] == l) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // Rebuilds into fresh arrays: the halves grow by half once full, the index
+    // doubles until at most half full, and tombstones are dropped. Refs are
+    // kept, so only the index is re-probed.
+    private State grow(State s) {
+        int refCapacity = s.msb.length;
+        if (s.size == refCapacity) refCapacity += refCapacity >> 1;
+        int indexCapacity = s.index.length;
+        while ((s.live + 1) * 2 > indexCapacity) indexCapacity *= 2;
+
+        State g = new State(indexCapacity, refCapacity);
+        System.arraycopy(s.msb, 0, g.msb, 0, s.size);
+        System.arraycopy(s.lsb, 0, g.lsb, 0, s.size);
+        g.size = s.size;
+        g.live = s.live;
+        int mask = indexCapacity - 1;
+        for (int ref : s.index) {
+            if (ref < 0) continue;
+            int i = hash(g.msb[ref], g.lsb[ref]) & mask;
+            while (g.index[i] != EMPTY) i = (i + 1) & mask;
+            g.index[i] = ref;
+        }
+        state = g;
+        return g;
+    }
+
+    // random UUIDs are already well mixed; the fold keeps other ids (name-based, sequential) spreading too
+    private static int hash(long m, long l) {
+        long h = (m ^ l) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,251 @@
+package studentrentals.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+
+// Map from non-negative int keys (IdRegistry refs) to values, in place of
+// ConcurrentHashMap<UUID, T>: open addressing over a flat int[] of keys and a
+// parallel array of values (linear probing, tombstones), so there are no
+// per-entry nodes and no key objects. Kept at most half full: 16 to 32 bytes an entry.
+// Writers take a lock; readers read optimistically and retry under the read
+// lock only if a write overlapped.
+public final class IntTable<T> {
+
+    private static final int EMPTY = -1;
+    private static final int TOMBSTONE = -2;
+    private static final int MIN_CAPACITY = 16;
+
+    // both arrays are replaced together on growth, so a reader that loads
+    // `state` once always sees arrays of matching sizes
+    private static final class State {
+        final int[] keys;
+        final Object[] values;
+        int size;
+        int tombstones;
+
+        State(int capacity) {
+            keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new Object[capacity];
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private State state = new State(MIN_CAPACITY);
+
+    // null for a missing key, including IdRegistry.NONE
+    public T get(int key) {
+        if (key < 0) return null;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T value = find(state, key);
+            if (lock.validate(stamp)) return value;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(state, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = state.size;
+        if (lock.validate(stamp)) return size;
+        stamp = lock.readLock();
+        try {
+            return state.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // returns the previous value, or null
+    public T put(int key, T value) {
+        return insert(key, value, true);
+    }
+
+    // returns the value already there (and leaves it), or null after adding this one
+    public T putIfAbsent(int key, T value) {
+        return insert(key, value, false);
+    }
+
+    // the value for the key, adding the one made by create if there is none;
+    // create runs under the table's lock, so keep it cheap
+    @SuppressWarnings("unchecked")
+    public T computeIfAbsent(int key, IntFunction<T> create) {
+        T value = get(key);
+        if (value != null) return value;
+        requireKey(key);
+        long stamp = lock.writeLock();
+        try {
+            State s = state;
+            int slot = slotOf(s, key);
+            if (slot >= 0) return (T) s.values[slot];
+            value = create.apply(key);
+            if (value == null) throw new IllegalArgumentException("Value must not be null.");
+            add(key, value);
+            return value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // returns the removed value, or null
+    @SuppressWarnings("unchecked")
+    public T remove(int key) {
+        if (key < 0) return null;
+        long stamp = lock.writeLock();
+        try {
+            State s = state;
+            int slot = slotOf(s, key);
+            if (slot < 0) return null;
+            T old = (T) s.values[slot];
+            s.keys[slot] = TOMBSTONE;
+            s.values[slot] = null;
+            s.size--;
+            s.tombstones++;
+            return old;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // removes the key only while it maps to this very value; refs are reused,
+    // so a caller holding an old entity must not remove whatever took its ref
+    public boolean remove(int key, T expected) {
+        if (key < 0) return false;
+        long stamp = lock.writeLock();
+        try {
+            State s = state;
+            int slot = slotOf(s, key);
+            if (slot < 0 || s.values[slot] != expected) return false;
+            s.keys[slot] = TOMBSTONE;
+            s.values[slot] = null;
+            s.size--;
+            s.tombstones++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // a copy, in no particular order; later changes do not show through
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        long stamp = lock.readLock();
+        try {
+            State s = state;
+            List<T> out = new ArrayList<>(s.size);
+            for (Object v : s.values) {
+                if (v != null) out.add((T) v);
+            }
+            return out;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T insert(int key, T value, boolean replace) {
+        requireKey(key);
+        if (value == null) throw new IllegalArgumentException("Value must not be null.");
+        long stamp = lock.writeLock();
+        try {
+            State s = state;
+            int slot = slotOf(s, key);
+            if (slot >= 0) {
+                T old = (T) s.values[slot];
+                if (replace) s.values[slot] = value;
+                return old;
+            }
+            add(key, value);
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // caller holds the write lock and knows the key is absent
+    private void add(int key, Object value) {
+        State s = state;
+        if ((s.size + s.tombstones + 1) * 2 > s.keys.length) s = grow(s);
+        int i = firstFree(s.keys, key);
+        if (s.keys[i] == TOMBSTONE) s.tombstones--;
+        // value first, key last: an optimistic reader never finds a key before its value
+        s.values[i] = value;
+        s.keys[i] = key;
+        s.size++;
+    }
+
+    // Bounded to one lap of the table, since under an optimistic read the
+    // arrays may be mid-update; validate() then throws the result away.
+    @SuppressWarnings("unchecked")
+    private static <T> T find(State s, int key) {
+        int[] keys = s.keys;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        for (int probes = 0; probes < keys.length; probes++) {
+            int k = keys[i];
+            if (k == EMPTY) return null;
+            if (k == key) return (T) s.values[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    // slot holding the key, or -1; caller holds the write lock
+    private static int slotOf(State s, int key) {
+        int[] keys = s.keys;
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == EMPTY) return -1;
+            if (k == key) return i;
+            i = (i + 1) & mask;
+        }
+    }
+
+    private static int firstFree(int[] keys, int key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] >= 0) i = (i + 1) & mask;
+        return i;
+    }
+
+    // Rebuilds into fresh arrays, doubling until at most half full; tombstones are dropped.
+    private State grow(State s) {
+        int capacity = s.keys.length;
+        while ((s.size + 1) * 2 > capacity) capacity *= 2;
+
+        State g = new State(capacity);
+        for (int i = 0; i < s.keys.length; i++) {
+            if (s.keys[i] < 0) continue;
+            int j = firstFree(g.keys, s.keys[i]);
+            g.keys[j] = s.keys[i];
+            g.values[j] = s.values[i];
+        }
+        g.size = s.size;
+        state = g;
+        return g;
+    }
+
+    private static void requireKey(int key) {
+        if (key < 0) throw new IllegalArgumentException("Key must be >= 0.");
+    }
+
+    // refs are handed out mostly in sequence; the multiply spreads runs of them over the table
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
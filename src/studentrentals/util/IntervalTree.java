@@ -0,0 +1,222 @@
+package studentrentals.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Balanced (AVL) interval tree over half-open date ranges [start, end).
+// Nodes are ordered by (start, end) and carry the max end of their subtree,
+// so overlap queries cost O(log n + k) for k matches.
+public final class IntervalTree<T> {
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final List<T> values = new ArrayList<>(1);
+        long maxEnd;
+        int height = 1;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public void insert(LocalDate start, LocalDate end, T value) {
+        long s = start.toEpochDay();
+        long e = end.toEpochDay();
+        if (s >= e) throw new IllegalArgumentException("Start date must be before end date.");
+        root = insert(root, s, e, value);
+        size++;
+    }
+
+    public boolean remove(LocalDate start, LocalDate end, T value) {
+        long s = start.toEpochDay();
+        long e = end.toEpochDay();
+        Node<T> n = find(root, s, e);
+        if (n == null || !n.values.remove(value)) {
+            return false;
+        }
+        size--;
+        if (n.values.isEmpty()) {
+            root = delete(root, s, e);
+        }
+        return true;
+    }
+
+    public boolean overlapsAny(LocalDate start, LocalDate end) {
+        long s = start.toEpochDay();
+        long e = end.toEpochDay();
+        Node<T> n = root;
+        while (n != null) {
+            if (n.start < e && s < n.end) {
+                return true;
+            }
+            // go left while the left subtree can still reach past our start
+            if (n.left != null && n.left.maxEnd > s) {
+                n = n.left;
+            } else {
+                if (n.start >= e) return false;
+                n = n.right;
+            }
+        }
+        return false;
+    }
+
+    public List<T> findOverlapping(LocalDate start, LocalDate end) {
+        List<T> out = new ArrayList<>();
+        collect(root, start.toEpochDay(), end.toEpochDay(), out);
+        return out;
+    }
+
+    // In-order traversal (by start date).
+    public void forEach(Consumer<? super T> action) {
+        forEach(root, action);
+    }
+
+    public List<T> toList() {
+        List<T> out = new ArrayList<>(size);
+        forEach(out::add);
+        return out;
+    }
+
+    private static <T> void collect(Node<T> n, long s, long e, List<T> out) {
+        if (n == null || n.maxEnd <= s) {
+            return;
+        }
+        collect(n.left, s, e, out);
+        if (n.start < e && s < n.end) {
+            out.addAll(n.values);
+        }
+        // nodes to the right start at or after n.start
+        if (n.start < e) {
+            collect(n.right, s, e, out);
+        }
+    }
+
+    private static <T> void forEach(Node<T> n, Consumer<? super T> action) {
+        if (n == null) return;
+        forEach(n.left, action);
+        n.values.forEach(action);
+        forEach(n.right, action);
+    }
+
+    private static int compare(long s1, long e1, long s2, long e2) {
+        int c = Long.compare(s1, s2);
+        return c != 0 ? c : Long.compare(e1, e2);
+    }
+
+    private static <T> Node<T> find(Node<T> n, long s, long e) {
+        while (n != null) {
+            int c = compare(s, e, n.start, n.end);
+            if (c == 0) return n;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    private Node<T> insert(Node<T> n, long s, long e, T value) {
+        if (n == null) {
+            Node<T> created = new Node<>(s, e);
+            created.values.add(value);
+            return created;
+        }
+        int c = compare(s, e, n.start, n.end);
+        if (c == 0) {
+            n.values.add(value);
+            return n;
+        }
+        if (c < 0) {
+            n.left = insert(n.left, s, e, value);
+        } else {
+            n.right = insert(n.right, s, e, value);
+        }
+        return rebalance(n);
+    }
+
+    private Node<T> delete(Node<T> n, long s, long e) {
+        if (n == null) return null;
+        int c = compare(s, e, n.start, n.end);
+        if (c < 0) {
+            n.left = delete(n.left, s, e);
+        } else if (c > 0) {
+            n.right = delete(n.right, s, e);
+        } else {
+            if (n.left == null) return n.right;
+            if (n.right == null) return n.left;
+            // replace with in-order successor
+            Node<T> succ = n.right;
+            while (succ.left != null) succ = succ.left;
+            Node<T> right = removeMin(n.right);
+            succ.right = right;
+            succ.left = n.left;
+            return rebalance(succ);
+        }
+        return rebalance(n);
+    }
+
+    private Node<T> removeMin(Node<T> n) {
+        if (n.left == null) return n.right;
+        n.left = removeMin(n.left);
+        return rebalance(n);
+    }
+
+    private static int height(Node<?> n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static <T> void update(Node<T> n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        long max = n.end;
+        if (n.left != null && n.left.maxEnd > max) max = n.left.maxEnd;
+        if (n.right != null && n.right.maxEnd > max) max = n.right.maxEnd;
+        n.maxEnd = max;
+    }
+
+    private static <T> Node<T> rebalance(Node<T> n) {
+        update(n);
+        int balance = height(n.left) - height(n.right);
+        if (balance > 1) {
+            if (height(n.left.left) < height(n.left.right)) {
+                n.left = rotateLeft(n.left);
+            }
+            return rotateRight(n);
+        }
+        if (balance < -1) {
+            if (height(n.right.right) < height(n.right.left)) {
+                n.right = rotateRight(n.right);
+            }
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+}
@@ -0,0 +1,113 @@
+package studentrentals.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Just enough JSON for flat records: one object whose values are strings,
+// numbers, booleans or null. Every value comes back as its text (null for null).
+public final class Json {
+
+    private Json() {}
+
+    public static Map<String, String> parseFlatObject(String text) {
+        Parser p = new Parser(text);
+        Map<String, String> fields = new LinkedHashMap<>();
+        p.skipSpace();
+        p.expect('{');
+        p.skipSpace();
+        if (p.peek() == '}') {
+            p.pos++;
+        } else {
+            while (true) {
+                p.skipSpace();
+                String key = p.readString();
+                p.skipSpace();
+                p.expect(':');
+                p.skipSpace();
+                fields.put(key, p.readValue());
+                p.skipSpace();
+                char c = p.next();
+                if (c == '}') break;
+                if (c != ',') throw p.error("Expected ',' or '}'");
+            }
+        }
+        p.skipSpace();
+        if (p.pos < text.length()) throw p.error("Unexpected trailing content");
+        return fields;
+    }
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        char peek() {
+            if (pos >= s.length()) throw error("Unexpected end of input");
+            return s.charAt(pos);
+        }
+
+        char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        void expect(char c) {
+            if (next() != c) throw error("Expected '" + c + "'");
+        }
+
+        void skipSpace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        String readValue() {
+            char c = peek();
+            if (c == '"') return readString();
+            if (c == '{' || c == '[') throw error("Nested values are not supported");
+            int start = pos;
+            while (pos < s.length() && ",}] \t\r\n".indexOf(s.charAt(pos)) < 0) pos++;
+            String literal = s.substring(start, pos);
+            if (literal.isEmpty()) throw error("Expected a value");
+            return literal.equals("null") ? null : literal;
+        }
+
+        String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = next();
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append(e);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > s.length()) throw error("Bad unicode escape");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("Bad unicode escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Bad escape '\\" + e + "'");
+                }
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at column " + (pos + 1) + ".");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package studentrentals.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+// Streaming JSON output: values go straight to the writer as they are added,
+// so a long list never exists as one string. Nesting is tracked only as far as
+// comma placement needs; callers are trusted to balance begin/end calls.
+public final class JsonWriter {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // per open object/array: has it got a member yet
+    private final boolean[] hasMember = new boolean[MAX_DEPTH];
+    private int depth;
+    // a name was just written, so the next value needs no comma
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        quote(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String s) {
+        separate();
+        if (s == null) write("null");
+        else quote(s);
+        return this;
+    }
+
+    public JsonWriter value(long n) {
+        separate();
+        write(Long.toString(n));
+        return this;
+    }
+
+    public JsonWriter value(boolean b) {
+        separate();
+        write(b ? "true" : "false");
+        return this;
+    }
+
+    // toString() of a value (dates, ids, enums) as a JSON string, or null
+    public JsonWriter value(Object o) {
+        return value(o != null ? o.toString() : null);
+    }
+
+    public JsonWriter field(String name, String s) {
+        return name(name).value(s);
+    }
+
+    public JsonWriter field(String name, long n) {
+        return name(name).value(n);
+    }
+
+    public JsonWriter field(String name, boolean b) {
+        return name(name).value(b);
+    }
+
+    public JsonWriter field(String name, Object o) {
+        return name(name).value(o);
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonWriter open(char c) {
+        if (depth == MAX_DEPTH) throw new IllegalStateException("JSON nested too deeply.");
+        separate();
+        write(c);
+        hasMember[depth++] = false;
+        return this;
+    }
+
+    private JsonWriter close(char c) {
+        if (depth == 0) throw new IllegalStateException("Nothing to close.");
+        depth--;
+        write(c);
+        return this;
+    }
+
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasMember[depth - 1]) write(',');
+            hasMember[depth - 1] = true;
+        }
+    }
+
+    private void quote(String s) {
+        write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 || c == '\u2028' || c == '\u2029' ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (escape == null) continue;
+            write(s, start, i);
+            write(escape);
+            start = i + 1;
+        }
+        write(s, start, s.length());
+        write('"');
+    }
+
+    private void write(char c) {
+        try {
+            out.write(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String s) {
+        write(s, 0, s.length());
+    }
+
+    private void write(String s, int from, int to) {
+        if (from == to) return;
+        try {
+            out.write(s, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
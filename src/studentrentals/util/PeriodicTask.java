@@ -0,0 +1,38 @@
+package studentrentals.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Runs a maintenance task periodically on its own daemon thread.
+public final class PeriodicTask implements AutoCloseable {
+
+    private final ScheduledExecutorService executor;
+
+    public PeriodicTask(String name, Runnable task, long periodMillis) {
+        if (periodMillis <= 0) throw new IllegalArgumentException("Task period must be > 0.");
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            // a failed run must not cancel later ones
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println(name + " failed: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
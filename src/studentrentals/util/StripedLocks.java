@@ -0,0 +1,50 @@
+package studentrentals.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Fixed pool of read/write locks; keys (IdRegistry refs) hash onto a stripe so
+// unrelated rooms rarely contend while a given room always maps to the same lock.
+public final class StripedLocks {
+    private final ReadWriteLock[] stripes;
+    private final int mask;
+
+    public StripedLocks(int minStripes) {
+        if (minStripes <= 0) throw new IllegalArgumentException("Stripe count must be > 0.");
+        int n = Integer.highestOneBit(minStripes);
+        if (n < minStripes) n <<= 1;
+        stripes = new ReadWriteLock[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+        mask = n - 1;
+    }
+
+    public ReadWriteLock forKey(int key) {
+        return stripes[stripeOf(key)];
+    }
+
+    // Write locks covering all the keys, each stripe once, in stripe order.
+    // Take them in the returned order (and release in reverse) so two callers
+    // locking overlapping sets can never deadlock.
+    public List<Lock> writeLocksFor(int[] keys) {
+        BitSet used = new BitSet(stripes.length);
+        for (int key : keys) used.set(stripeOf(key));
+        List<Lock> locks = new ArrayList<>(used.cardinality());
+        for (int i = used.nextSetBit(0); i >= 0; i = used.nextSetBit(i + 1)) {
+            locks.add(stripes[i].writeLock());
+        }
+        return locks;
+    }
+
+    private int stripeOf(int key) {
+        int h = key ^ (key >>> 16);
+        return h & mask;
+    }
+
+    public int stripeCount() { return stripes.length; }
+}
@@ -0,0 +1,123 @@
+package studentrentals.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel: four levels of 64 slots, each level's slot spanning
+// 64 times the one below, so one wheel covers 64^4 ticks. schedule() is O(1);
+// advance() hands back what fell due, and an entry is moved down at most once
+// per level on the way, so the cost per entry is amortised O(1).
+// Entries cannot be cancelled: callers re-check what they get back.
+// Not thread-safe.
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private static final class Entry<T> {
+        final T value;
+        final long tick;
+
+        Entry(T value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Entry<T>>[][] slots = newSlots();
+    // already due when scheduled; returned by the next advance()
+    private final List<Entry<T>> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be > 0.");
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public int size() { return size; }
+
+    // Deadlines further out than the wheel reaches come back early, at its far edge
+    public void schedule(T value, long deadlineMillis) {
+        long tick = Math.min(ceilDiv(deadlineMillis, tickMillis), currentTick + SPAN - 1);
+        place(new Entry<>(value, tick));
+        size++;
+    }
+
+    // Moves time forward to nowMillis and returns everything that fell due, oldest tick first
+    public List<T> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<T> out = new ArrayList<>();
+        drain(due, out);
+        if (size == 0) {
+            currentTick = Math.max(currentTick, target);
+            return out;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            // push the next block of each level down; the highest level goes first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & MASK));
+                }
+            }
+            drain(due, out); // cascaded entries due on this very tick
+            int idx = (int) (currentTick & MASK);
+            List<Entry<T>> slot = slots[0][idx];
+            if (slot != null) {
+                slots[0][idx] = null;
+                drain(slot, out);
+            }
+            if (size == 0) {
+                currentTick = target;
+            }
+        }
+        return out;
+    }
+
+    private void place(Entry<T> e) {
+        long delta = e.tick - currentTick;
+        if (delta <= 0) {
+            due.add(e);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                int idx = (int) ((e.tick >>> (SLOT_BITS * level)) & MASK);
+                List<Entry<T>> slot = slots[level][idx];
+                if (slot == null) slots[level][idx] = slot = new ArrayList<>();
+                slot.add(e);
+                return;
+            }
+        }
+        throw new IllegalStateException("Tick beyond wheel span.");
+    }
+
+    private void cascade(int level, int idx) {
+        List<Entry<T>> slot = slots[level][idx];
+        if (slot == null) return;
+        slots[level][idx] = null;
+        for (Entry<T> e : slot) place(e);
+    }
+
+    private void drain(List<Entry<T>> entries, List<T> out) {
+        for (Entry<T> e : entries) out.add(e.value);
+        size -= entries.size();
+        if (entries == due) due.clear();
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    // generic arrays cannot be created directly; the slots only ever hold Entry<T> lists
+    @SuppressWarnings("unchecked")
+    private static <T> List<Entry<T>>[][] newSlots() {
+        return (List<Entry<T>>[][]) new List<?>[LEVELS][SLOTS];
+    }
+}
@@ -0,0 +1,129 @@
+package studentrentals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.RequestStatus;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.persistence.BookingArchive;
+import studentrentals.search.SortByPriceAsc;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Archived bookings leave the rooms' calendars, so dates before the archive's
+// watermark are refused; without an archive past dates are fine.
+class ArchiveGuardTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final String STUDENT = "student@x.com";
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @TempDir
+    Path dir;
+
+    private StudentRentalsSystem system;
+    private Room room;
+    private BookingArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        system = new StudentRentalsSystem();
+        system.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        system.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        Property p = system.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        room = system.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", TODAY.minusDays(90), TODAY.plusDays(365));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (archive != null) archive.close();
+    }
+
+    @Test
+    void pastDatesWorkWithoutAnArchive() {
+        assertEquals(List.of(room), system.searchRooms(criteria(TODAY.minusDays(60), TODAY.minusDays(50)),
+                new SortByPriceAsc()));
+        BookingRequest req = system.requestBooking(STUDENT, room.getId(), TODAY.minusDays(60), TODAY.minusDays(50));
+        Booking b = system.decideRequest(OWNER, req.getId(), true);
+        assertEquals(req.getStartDate(), b.getStartDate());
+    }
+
+    @Test
+    void datesBeforeTheWatermarkAreRefusedOnceArchived() {
+        LocalDate end = TODAY.minusDays(10);
+        book(TODAY.minusDays(20), end);
+        BookingRequest earlier = system.requestBooking(STUDENT, room.getId(), TODAY.minusDays(40), TODAY.minusDays(30));
+
+        archive = BookingArchive.open(dir);
+        system.attachArchive(archive);
+        // attached but still empty: nothing is archived yet
+        system.requestBooking(STUDENT, room.getId(), TODAY.minusDays(80), TODAY.minusDays(70));
+
+        assertEquals(1, system.archiveCompletedBookings(TODAY));
+        assertEquals(end, archive.archivedThrough());
+
+        SortByPriceAsc sort = new SortByPriceAsc();
+        assertThrows(IllegalArgumentException.class,
+                () -> system.searchRooms(criteria(TODAY.minusDays(15), TODAY.minusDays(12)), sort));
+        assertThrows(IllegalArgumentException.class,
+                () -> system.searchRoomsPage(criteria(TODAY.minusDays(15), TODAY.minusDays(12)), sort, 10, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> system.requestBooking(STUDENT, room.getId(), TODAY.minusDays(15), TODAY.minusDays(12)));
+        assertThrows(IllegalArgumentException.class,
+                () -> system.searchFlexibleDates(criteria(TODAY.minusDays(40), TODAY.minusDays(11)), 3, sort));
+
+        // from the watermark on the calendar is whole again
+        assertEquals(List.of(room), system.searchRooms(criteria(end, end.plusDays(3)), sort));
+        assertEquals(end, system.searchFlexibleDates(criteria(TODAY.minusDays(40), end), 3, sort).get(0).getStartDate());
+
+        // made before the archival, decided after: it may overlap what was archived
+        assertThrows(IllegalArgumentException.class, () -> system.decideRequest(OWNER, earlier.getId(), true));
+        assertEquals(RequestStatus.REJECTED, earlier.getStatus());
+    }
+
+    @Test
+    void watermarkSurvivesReopeningTheArchive() {
+        book(TODAY.minusDays(30), TODAY.minusDays(25));
+        archive = BookingArchive.open(dir);
+        system.attachArchive(archive);
+        system.archiveCompletedBookings(TODAY);
+        archive.close();
+
+        archive = BookingArchive.open(dir);
+        assertEquals(TODAY.minusDays(25), archive.archivedThrough());
+        List<Booking> history = new ArrayList<>();
+        archive.forEach(room.getId(), history::add);
+        assertEquals(1, history.size());
+    }
+
+    @Test
+    void emptyArchiveHasNoWatermark() {
+        archive = BookingArchive.open(dir);
+        assertNull(archive.archivedThrough());
+    }
+
+    private void book(LocalDate start, LocalDate end) {
+        BookingRequest req = system.requestBooking(STUDENT, room.getId(), start, end);
+        system.decideRequest(OWNER, req.getId(), true);
+    }
+
+    private static SearchCriteria criteria(LocalDate start, LocalDate end) {
+        SearchCriteria c = new SearchCriteria();
+        c.setStartDate(start);
+        c.setEndDate(end);
+        return c;
+    }
+}
@@ -0,0 +1,85 @@
+package studentrentals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.DecisionOutcome;
+import studentrentals.model.Property;
+import studentrentals.model.RequestDecision;
+import studentrentals.model.RequestStatus;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Accepting a request rejects the pending requests it clashes with, and only those.
+class AutoRejectTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final String STUDENT = "student@x.com";
+    private static final LocalDate FROM = LocalDate.now().plusDays(10);
+
+    private StudentRentalsSystem system;
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        system = new StudentRentalsSystem();
+        system.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        system.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        Property p = system.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        room = system.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", FROM, FROM.plusDays(90));
+    }
+
+    @Test
+    void acceptingRejectsOnlyTheOverlappingPendingRequests() {
+        BookingRequest accepted = request(10, 20);
+        BookingRequest before = request(5, 11);
+        BookingRequest inside = request(12, 14);
+        // end dates are exclusive: these touch the booking but do not overlap it
+        BookingRequest endsAtStart = request(5, 10);
+        BookingRequest startsAtEnd = request(20, 25);
+
+        Booking booking = system.decideRequest(OWNER, accepted.getId(), true);
+
+        for (BookingRequest clash : List.of(before, inside)) {
+            assertEquals(RequestStatus.REJECTED, clash.getStatus());
+            assertTrue(clash.getReason().contains(booking.getId().toString()));
+            assertThrows(IllegalArgumentException.class, () -> system.decideRequest(OWNER, clash.getId(), true));
+        }
+        assertEquals(RequestStatus.PENDING, endsAtStart.getStatus());
+        assertEquals(RequestStatus.PENDING, startsAtEnd.getStatus());
+        assertNotNull(system.decideRequest(OWNER, endsAtStart.getId(), true));
+        assertNotNull(system.decideRequest(OWNER, startsAtEnd.getId(), true));
+        assertEquals(3, room.getConfirmedBookings().size());
+    }
+
+    @Test
+    void theOlderOfTwoClashingAcceptsInABatchWins() throws InterruptedException {
+        BookingRequest older = request(10, 20);
+        // createdAt decides; equal timestamps would fall back to the ids
+        Thread.sleep(5);
+        BookingRequest newer = request(15, 25);
+
+        // submitted newest first: the order in the batch does not matter
+        List<DecisionOutcome> outcomes = system.decideRequests(OWNER,
+                List.of(new RequestDecision(newer.getId(), true), new RequestDecision(older.getId(), true)));
+
+        assertEquals(DecisionOutcome.Result.CONFLICT, outcomes.get(0).getResult());
+        assertEquals(DecisionOutcome.Result.ACCEPTED, outcomes.get(1).getResult());
+        assertEquals(RequestStatus.REJECTED, newer.getStatus());
+        assertEquals(List.of(older.getStartDate()),
+                room.getConfirmedBookings().stream().map(Booking::getStartDate).toList());
+    }
+
+    private BookingRequest request(int startDay, int endDay) {
+        return system.requestBooking(STUDENT, room.getId(), FROM.plusDays(startDay), FROM.plusDays(endDay));
+    }
+}
@@ -0,0 +1,136 @@
+package studentrentals;
+
+import org.junit.jupiter.api.Test;
+import studentrentals.model.Booking;
+import studentrentals.model.DecisionOutcome;
+import studentrentals.model.Property;
+import studentrentals.model.RequestDecision;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Students request and owners decide at the same time, on the same few rooms:
+// no two confirmed bookings of a room may overlap (FR-14), and every accept
+// that returned a booking is one the room holds.
+class BookingRaceTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final int STUDENTS = 8;
+    private static final int DECIDERS = 4;
+    private static final int REQUESTS_PER_STUDENT = 150;
+    private static final LocalDate FROM = LocalDate.now().plusDays(10);
+    private static final int WINDOW_DAYS = 60;
+
+    @Test
+    void concurrentRequestsAndDecisionsNeverDoubleBook() throws Exception {
+        StudentRentalsSystem system = new StudentRentalsSystem(4);
+        system.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        for (int s = 0; s < STUDENTS; s++) {
+            system.registerStudent("Student " + s, student(s), "0701", "secret2", "Leeds", "S" + s);
+        }
+        Property p = system.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rooms.add(system.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", FROM, FROM.plusDays(WINDOW_DAYS)));
+        }
+
+        BlockingQueue<UUID> pending = new LinkedBlockingQueue<>();
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger studentsLeft = new AtomicInteger(STUDENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(STUDENTS + DECIDERS);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int s = 0; s < STUDENTS; s++) {
+            String email = student(s);
+            tasks.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < REQUESTS_PER_STUDENT; i++) {
+                    Room room = rooms.get(rnd.nextInt(rooms.size()));
+                    LocalDate begin = FROM.plusDays(rnd.nextInt(WINDOW_DAYS - 5));
+                    try {
+                        pending.add(system.requestBooking(email, room.getId(), begin, begin.plusDays(1 + rnd.nextInt(5))).getId());
+                    } catch (IllegalArgumentException taken) {
+                        // already booked: fine
+                    }
+                }
+                studentsLeft.decrementAndGet();
+                return null;
+            }));
+        }
+        for (int d = 0; d < DECIDERS; d++) {
+            boolean batch = d % 2 == 0;
+            tasks.add(pool.submit(() -> {
+                start.await();
+                while (studentsLeft.get() > 0 || !pending.isEmpty()) {
+                    List<UUID> ids = new ArrayList<>();
+                    UUID first = pending.poll(10, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    ids.add(first);
+                    if (batch) pending.drainTo(ids, 7);
+                    accepted.addAndGet(batch ? acceptBatch(system, ids) : acceptOne(system, first));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) task.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        int confirmed = 0;
+        for (Room room : rooms) {
+            List<Booking> bookings = room.getConfirmedBookings();
+            confirmed += bookings.size();
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    assertFalse(a.getStartDate().isBefore(b.getEndDate()) && b.getStartDate().isBefore(a.getEndDate()),
+                            "overlapping bookings " + a.getId() + " and " + b.getId());
+                }
+            }
+        }
+        assertTrue(confirmed > 0);
+        assertEquals(accepted.get(), confirmed);
+    }
+
+    private static int acceptOne(StudentRentalsSystem system, UUID requestId) {
+        try {
+            return system.decideRequest(OWNER, requestId, true) != null ? 1 : 0;
+        } catch (IllegalArgumentException lost) {
+            // rejected by a booking confirmed first
+            return 0;
+        }
+    }
+
+    private static int acceptBatch(StudentRentalsSystem system, List<UUID> requestIds) {
+        List<RequestDecision> decisions = new ArrayList<>();
+        for (UUID id : requestIds) decisions.add(new RequestDecision(id, true));
+        int accepted = 0;
+        for (DecisionOutcome outcome : system.decideRequests(OWNER, decisions)) {
+            if (outcome.getResult() == DecisionOutcome.Result.ACCEPTED) accepted++;
+        }
+        return accepted;
+    }
+
+    private static String student(int i) {
+        return "student" + i + "@x.com";
+    }
+}
@@ -0,0 +1,97 @@
+package studentrentals;
+
+import org.junit.jupiter.api.Test;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.RequestStatus;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Requests starting today are due for expiry at once. Expiring them while an
+// owner accepts them must settle each one exactly one way: accepted with its
+// booking, or expired with none.
+class ExpiryRaceTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final String STUDENT = "student@x.com";
+    private static final int ROOMS = 300;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Test
+    void aRequestIsEitherAcceptedOrExpiredNeverBoth() throws Exception {
+        StudentRentalsSystem system = new StudentRentalsSystem(8);
+        system.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        system.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        Property p = system.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        List<Room> rooms = new ArrayList<>();
+        List<BookingRequest> requests = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = system.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", TODAY, TODAY.plusDays(30));
+            rooms.add(room);
+            requests.add(system.requestBooking(STUDENT, room.getId(), TODAY, TODAY.plusDays(3)));
+        }
+
+        Booking[] accepted = new Booking[ROOMS];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        Future<Integer> expirer = pool.submit(() -> {
+            start.await();
+            int expired = 0;
+            for (int round = 0; round < 50; round++) expired += system.expireRequests();
+            return expired;
+        });
+        List<Future<?>> deciders = new ArrayList<>();
+        for (int d = 0; d < 2; d++) {
+            int first = d;
+            deciders.add(pool.submit(() -> {
+                start.await();
+                for (int i = first; i < ROOMS; i += 2) {
+                    try {
+                        accepted[i] = system.decideRequest(OWNER, requests.get(i).getId(), true);
+                    } catch (IllegalArgumentException expired) {
+                        // expired first: "Request is not pending." or "Request not found."
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : deciders) f.get(60, TimeUnit.SECONDS);
+        int expired = expirer.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        int acceptedCount = 0;
+        for (int i = 0; i < ROOMS; i++) {
+            BookingRequest req = requests.get(i);
+            List<Booking> bookings = rooms.get(i).getConfirmedBookings();
+            if (accepted[i] != null) {
+                acceptedCount++;
+                assertEquals(RequestStatus.ACCEPTED, req.getStatus());
+                assertEquals(List.of(accepted[i]), bookings);
+            } else {
+                assertEquals(RequestStatus.EXPIRED, req.getStatus());
+                assertTrue(bookings.isEmpty());
+                assertEquals(0, rooms.get(i).pendingRequestCount());
+            }
+        }
+        assertEquals(ROOMS - acceptedCount, expired);
+        // whatever expired is gone from the owner's inbox; what was accepted stays
+        assertEquals(acceptedCount, system.listRequestsForOwner(OWNER).size());
+        assertNull(system.listRequestsForOwner(OWNER).stream()
+                .filter(r -> r.getStatus() != RequestStatus.ACCEPTED).findFirst().orElse(null));
+    }
+}
@@ -0,0 +1,101 @@
+package studentrentals;
+
+import org.junit.jupiter.api.Test;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Each system numbers its own ids and frees them with the entity; an entity
+// that has gone keeps its ids even once its refs are reused.
+class IdScopeTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final String STUDENT = "student@x.com";
+    private static final LocalDate FROM = LocalDate.now().plusDays(10);
+
+    @Test
+    void aRemovedRoomKeepsItsIdsAfterItsRefIsReused() {
+        StudentRentalsSystem system = newSystem();
+        Property p = system.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        Room room = addRoom(system, p);
+        UUID roomId = room.getId();
+        BookingRequest req = system.requestBooking(STUDENT, roomId, FROM, FROM.plusDays(5));
+        UUID requestId = req.getId();
+        Booking booking = system.decideRequest(OWNER, requestId, true);
+        UUID bookingId = booking.getId();
+
+        system.adminRemoveListing("admin@studentrentals.com", roomId);
+        // the freed refs go to whatever is created next
+        Room next = addRoom(system, p);
+        system.requestBooking(STUDENT, next.getId(), FROM, FROM.plusDays(5));
+
+        assertEquals(roomId, room.getId());
+        assertEquals(p.getId(), room.getPropertyId());
+        assertEquals(requestId, req.getId());
+        assertEquals(roomId, req.getRoomId());
+        assertEquals(bookingId, booking.getId());
+        assertThrows(IllegalArgumentException.class, () -> system.getRoomDetails(roomId));
+        assertThrows(IllegalArgumentException.class, () -> system.decideRequest(OWNER, requestId, true));
+        assertNull(system.locate(roomId));
+        assertEquals(next, system.getRoomDetails(next.getId()));
+    }
+
+    @Test
+    void systemsInOneJvmDoNotShareIds() {
+        StudentRentalsSystem first = newSystem();
+        StudentRentalsSystem second = newSystem();
+        Room room = addRoom(first, first.createProperty(OWNER, "1 High St", "Leeds", "Flat"));
+
+        assertThrows(IllegalArgumentException.class, () -> second.getRoomDetails(room.getId()));
+        assertNull(second.locate(room.getId()));
+        assertEquals("leeds", first.locate(room.getId()));
+    }
+
+    @Test
+    void anExportedAreaImportsUnderTheSameIds() {
+        StudentRentalsSystem source = new StudentRentalsSystem();
+        StudentRentalsSystem target = new StudentRentalsSystem();
+        // users are copied across with their ids, as ShardRouter does
+        target.importUser(source.registerHomeowner("Owner", OWNER, "0700", "secret1"));
+        target.importUser(source.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1"));
+        Property p = source.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        Room room = addRoom(source, p);
+        BookingRequest req = source.requestBooking(STUDENT, room.getId(), FROM, FROM.plusDays(5));
+        source.decideRequest(OWNER, req.getId(), true);
+        BookingRequest pending = source.requestBooking(STUDENT, room.getId(), FROM.plusDays(10), FROM.plusDays(12));
+
+        target.importArea(source.exportArea("Leeds"));
+        source.dropArea("Leeds");
+
+        Room moved = target.getRoomDetails(room.getId());
+        assertEquals(p.getId(), moved.getPropertyId());
+        assertEquals(1, moved.getConfirmedBookings().size());
+        assertEquals(req.getStartDate(), moved.getConfirmedBookings().get(0).getStartDate());
+        assertEquals("leeds", target.locate(pending.getId()));
+        assertNull(target.decideRequest(OWNER, pending.getId(), false));
+        // the source's copies still read their ids after their refs were freed
+        assertEquals(room.getId(), moved.getId());
+        assertEquals(pending.getRoomId(), room.getId());
+    }
+
+    private static StudentRentalsSystem newSystem() {
+        StudentRentalsSystem system = new StudentRentalsSystem();
+        system.seedAdminAndSampleData();
+        system.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        system.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        return system;
+    }
+
+    private static Room addRoom(StudentRentalsSystem system, Property p) {
+        return system.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", FROM, FROM.plusDays(90));
+    }
+}
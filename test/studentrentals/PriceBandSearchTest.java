@@ -0,0 +1,89 @@
+package studentrentals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.search.SortByPriceThenAvailableFrom;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Price-only searches slice narrow bands from the price index and scan the
+// room columns for wide ones; either way the results must be the same.
+class PriceBandSearchTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final LocalDate FROM = LocalDate.now().plusDays(30);
+    private static final int ROOMS = 3000;
+
+    private StudentRentalsSystem system;
+    private final List<Room> rooms = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        system = new StudentRentalsSystem();
+        system.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        Property p = system.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(system.addRoom(OWNER, p.getId(), RoomType.SINGLE, 300 + (i * 37) % 900, "WiFi",
+                    FROM, FROM.plusDays(365)));
+        }
+    }
+
+    @Test
+    void narrowBandMatchesEveryRoomInIt() {
+        assertEquals(expected(500, 510), search(500, 510));
+        assertEquals(expected(null, 305), search(null, 305));
+        assertEquals(expected(1190, null), search(1190, null));
+    }
+
+    @Test
+    void wideBandMatchesEveryRoomInIt() {
+        List<UUID> found = search(300, 1100);
+        assertTrue(found.size() > ROOMS / 2);
+        assertEquals(expected(300, 1100), found);
+    }
+
+    @Test
+    void repricedRoomShowsUpOnlyAtItsNewPrice() {
+        Room moved = rooms.get(0);
+        int oldPrice = moved.getPricePerMonth();
+        system.updateRoom(OWNER, moved.getId(), null, 1195, null, null, null);
+
+        assertTrue(search(1195, 1199).contains(moved.getId()));
+        assertFalse(search(oldPrice, oldPrice).contains(moved.getId()));
+        assertEquals(expected(1190, 1199), search(1190, 1199));
+    }
+
+    private List<UUID> search(Integer min, Integer max) {
+        SearchCriteria c = new SearchCriteria();
+        c.setMinPrice(min);
+        c.setMaxPrice(max);
+        c.setStartDate(FROM.plusDays(1));
+        c.setEndDate(FROM.plusDays(60));
+        List<UUID> ids = new ArrayList<>();
+        for (Room r : system.searchRooms(c, new SortByPriceThenAvailableFrom())) ids.add(r.getId());
+        return ids;
+    }
+
+    // brute force over every room, in the same order
+    private List<UUID> expected(Integer min, Integer max) {
+        List<Room> in = new ArrayList<>();
+        for (Room r : rooms) {
+            int price = r.getPricePerMonth();
+            if ((min == null || price >= min) && (max == null || price <= max)) in.add(r);
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (Room r : new SortByPriceThenAvailableFrom().sort(in)) ids.add(r.getId());
+        return ids;
+    }
+}
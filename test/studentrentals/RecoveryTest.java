@@ -0,0 +1,145 @@
+package studentrentals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.RequestStatus;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.persistence.Journal;
+import studentrentals.search.SortByPriceAsc;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A restarted system rebuilds from the newest snapshot plus the journal written
+// after it, and ends up where the old one was.
+class RecoveryTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final String STUDENT = "student@x.com";
+    private static final LocalDate FROM = LocalDate.now().plusDays(10);
+
+    @TempDir
+    Path dir;
+
+    private Journal recovered;
+
+    @AfterEach
+    void tearDown() {
+        if (recovered != null) recovered.close();
+    }
+
+    @Test
+    void journalAloneRestoresTheState() {
+        Expected expected;
+        try (Journal journal = Journal.open(dir, 1, 0)) {
+            StudentRentalsSystem system = attached(journal);
+            expected = buildHistory(system);
+        }
+        check(recover(), expected);
+    }
+
+    @Test
+    void snapshotPlusLaterJournalRestoresTheState() {
+        Expected expected;
+        UUID goneId;
+        try (Journal journal = Journal.open(dir, 1, 0)) {
+            StudentRentalsSystem system = attached(journal);
+            Expected before = buildHistory(system);
+            system.takeSnapshot();
+
+            // after the snapshot: a re-price, a removal, a new booking and a deactivation
+            system.updateRoom(OWNER, before.kept.getId(), null, 450, null, null, null);
+            Room gone = system.addRoom(OWNER, before.kept.getPropertyId(), RoomType.SINGLE, 300, "Desk", FROM, FROM.plusDays(30));
+            system.removeRoom(OWNER, gone.getId());
+            goneId = gone.getId();
+            BookingRequest late = system.requestBooking(STUDENT, before.kept.getId(), FROM.plusDays(20), FROM.plusDays(25));
+            system.decideRequest(OWNER, late.getId(), true);
+            system.registerStudent("Other", "other@x.com", "0702", "secret3", "Leeds", "S2");
+            system.adminDeactivateUser("admin@studentrentals.com", "other@x.com");
+            expected = new Expected(before.kept, before.removed, before.booking, before.rejected, 450, 2);
+        }
+        StudentRentalsSystem recovered = recover();
+        check(recovered, expected);
+        assertThrows(IllegalArgumentException.class, () -> recovered.getRoomDetails(goneId));
+        assertThrows(IllegalArgumentException.class,
+                () -> recovered.requestBooking("other@x.com", expected.kept.getId(), FROM.plusDays(40), FROM.plusDays(41)));
+    }
+
+    @Test
+    void aSecondSnapshotReplacesTheFirst() {
+        Expected expected;
+        try (Journal journal = Journal.open(dir, 1, 0)) {
+            StudentRentalsSystem system = attached(journal);
+            expected = buildHistory(system);
+            system.takeSnapshot();
+            system.takeSnapshot();
+        }
+        check(recover(), expected);
+    }
+
+    // two rooms, one kept with a booking and a rejected request, one removed
+    private static Expected buildHistory(StudentRentalsSystem system) {
+        system.seedAdminAndSampleData();
+        system.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        system.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        Property p = system.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        Room kept = system.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", FROM, FROM.plusDays(90));
+        Room removed = system.addRoom(OWNER, p.getId(), RoomType.DOUBLE, 700, "WiFi", FROM, FROM.plusDays(90));
+
+        BookingRequest first = system.requestBooking(STUDENT, kept.getId(), FROM, FROM.plusDays(5));
+        BookingRequest clash = system.requestBooking(STUDENT, kept.getId(), FROM.plusDays(2), FROM.plusDays(7));
+        Booking booking = system.decideRequest(OWNER, first.getId(), true);
+        system.requestBooking(STUDENT, removed.getId(), FROM, FROM.plusDays(3));
+        system.adminRemoveListing("admin@studentrentals.com", removed.getId());
+        return new Expected(kept, removed, booking, clash, 500, 1);
+    }
+
+    private StudentRentalsSystem attached(Journal journal) {
+        StudentRentalsSystem system = new StudentRentalsSystem();
+        system.attachJournal(journal);
+        return system;
+    }
+
+    private StudentRentalsSystem recover() {
+        StudentRentalsSystem system = new StudentRentalsSystem();
+        recovered = Journal.open(dir, 1, 0);
+        system.attachJournal(recovered);
+        return system;
+    }
+
+    private static void check(StudentRentalsSystem system, Expected expected) {
+        Room room = system.getRoomDetails(expected.kept.getId());
+        assertEquals(expected.price, room.getPricePerMonth());
+        assertEquals(expected.bookings, room.getConfirmedBookings().size());
+        assertEquals(expected.booking.getId(), room.getConfirmedBookings().get(0).getId());
+        assertThrows(IllegalArgumentException.class, () -> system.getRoomDetails(expected.removed.getId()));
+
+        List<BookingRequest> requests = system.listRequestsForOwner(OWNER);
+        BookingRequest rejected = requests.stream()
+                .filter(r -> r.getId().equals(expected.rejected.getId())).findFirst().orElseThrow();
+        assertEquals(RequestStatus.REJECTED, rejected.getStatus());
+        assertEquals(expected.rejected.getReason(), rejected.getReason());
+
+        // the recovered indexes serve searches, and the booked dates stay booked
+        SearchCriteria free = new SearchCriteria();
+        free.setArea("Leeds");
+        free.setStartDate(FROM.plusDays(50));
+        free.setEndDate(FROM.plusDays(55));
+        assertEquals(List.of(room), system.searchRooms(free, new SortByPriceAsc()));
+        assertThrows(IllegalArgumentException.class,
+                () -> system.requestBooking(STUDENT, room.getId(), FROM, FROM.plusDays(3)));
+    }
+
+    private record Expected(Room kept, Room removed, Booking booking, BookingRequest rejected, int price, int bookings) {}
+}
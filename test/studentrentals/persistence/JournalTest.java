@@ -0,0 +1,109 @@
+package studentrentals.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysEverythingBeforeAPartialFrame() throws IOException {
+        writeDeactivations("a@x.com", "b@x.com");
+        // a length with only part of its record behind it
+        appendToLastSegment(ByteBuffer.allocate(10).putInt(64).put(new byte[6]).array());
+
+        assertEquals(List.of("a@x.com", "b@x.com"), replay());
+    }
+
+    @Test
+    void replaysEverythingBeforeALengthNearIntMax() throws IOException {
+        writeDeactivations("a@x.com", "b@x.com");
+        // len + 4 overflows to a negative number; this must read as a torn tail, not throw
+        appendToLastSegment(ByteBuffer.allocate(12).putInt(Integer.MAX_VALUE - 1).put(new byte[8]).array());
+
+        assertEquals(List.of("a@x.com", "b@x.com"), replay());
+    }
+
+    @Test
+    void stopsAtARecordWithABadChecksum() throws IOException {
+        writeDeactivations("a@x.com", "b@x.com");
+        Path seg = lastSegment();
+        byte[] bytes = Files.readAllBytes(seg);
+        // last byte is the crc of the second record
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(seg, bytes);
+
+        assertEquals(List.of("a@x.com"), replay());
+    }
+
+    @Test
+    void laterSegmentsStillReplayAfterATornOne() throws IOException {
+        writeDeactivations("a@x.com");
+        appendToLastSegment(new byte[] {0, 0});
+        writeDeactivations("b@x.com");
+
+        assertEquals(List.of("a@x.com", "b@x.com"), replay());
+    }
+
+    private void writeDeactivations(String... emails) {
+        try (Journal journal = Journal.open(dir, 1, 0)) {
+            for (String email : emails) journal.appendUserDeactivated(email);
+            journal.sync();
+        }
+    }
+
+    private List<String> replay() {
+        Recorder recorder = new Recorder();
+        try (Journal journal = Journal.open(dir, 1, 0)) {
+            journal.replay(recorder);
+        }
+        return recorder.deactivated;
+    }
+
+    private void appendToLastSegment(byte[] bytes) throws IOException {
+        Files.write(lastSegment(), bytes, StandardOpenOption.APPEND);
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log"))
+                    .filter(p -> p.toFile().length() > 0)
+                    .sorted()
+                    .reduce((a, b) -> b)
+                    .orElseThrow();
+        }
+    }
+
+    private static final class Recorder implements JournalHandler {
+        final List<String> deactivated = new ArrayList<>();
+
+        @Override public void onUser(User user) {}
+        @Override public void onUserDeactivated(String email) { deactivated.add(email); }
+        @Override public void onProperty(Property property) {}
+        @Override public void onPropertyRemoved(UUID propertyId) {}
+        @Override public void onRoom(Room room) {}
+        @Override public void onRoomRemoved(UUID roomId) {}
+        @Override public void onRequest(BookingRequest request) {}
+        @Override public void onBooking(Booking booking) {}
+        @Override public void onBookingArchived(UUID bookingId, UUID roomId) {}
+    }
+}
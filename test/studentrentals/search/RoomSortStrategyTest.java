@@ -0,0 +1,60 @@
+package studentrentals.search;
+
+import org.junit.jupiter.api.Test;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomSortStrategyTest {
+
+    private static final LocalDate FROM = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void sortsRoomsWithoutTouchingTheInput() {
+        Room a = room(1, 500, FROM);
+        Room b = room(2, 300, FROM.plusDays(5));
+        Room c = room(3, 300, FROM);
+        List<Room> input = List.of(a, b, c);
+
+        assertEquals(List.of(b, c, a), new SortByPriceAsc().sort(input));
+        assertEquals(List.of(a, b, c), new SortByPriceDesc().sort(input));
+        assertEquals(List.of(c, b, a), new SortByPriceThenAvailableFrom().sort(input));
+        assertEquals(List.of(c, a, b), new SortByAvailableFromThenPrice().sort(input));
+        assertEquals(List.of(a, b, c), input);
+    }
+
+    @Test
+    void topKKeepsTheFirstKOfTheFullOrder() {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 50; i++) rooms.add(room(i, 1000 - (i * 7) % 300, FROM.plusDays(i % 4)));
+
+        List<Room> full = new SortByPriceThenAvailableFrom().sort(rooms);
+        List<Room> top = new TopKSort(new SortByPriceThenAvailableFrom(), 5).sort(rooms);
+
+        assertEquals(full.subList(0, 5), top);
+    }
+
+    // a custom strategy written against the interface only needs a comparator
+    @Test
+    void customStrategyGetsTheRoomEntryPoint() {
+        RoomSortStrategy byPriceOnly = () -> (x, y) -> {
+            int c = Integer.compare(x.getPricePerMonth(), y.getPricePerMonth());
+            return c != 0 ? c : RoomComparators.BY_ID.compare(x, y);
+        };
+        Room a = room(1, 800, FROM);
+        Room b = room(2, 400, FROM);
+
+        assertEquals(List.of(b, a), byPriceOnly.sort(List.of(a, b)));
+    }
+
+    private static Room room(long n, int price, LocalDate from) {
+        return new Room(new UUID(0, n), UUID.randomUUID(), UUID.randomUUID(), RoomType.SINGLE, price, "WiFi",
+                from, from.plusDays(365));
+    }
+}
@@ -0,0 +1,352 @@
+package studentrentals.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import studentrentals.StudentRentalsSystem;
+import studentrentals.model.Booking;
+import studentrentals.model.BookingRequest;
+import studentrentals.model.Homeowner;
+import studentrentals.model.Property;
+import studentrentals.model.Room;
+import studentrentals.model.RoomType;
+import studentrentals.model.SearchCriteria;
+import studentrentals.model.Student;
+import studentrentals.model.User;
+import studentrentals.search.RoomSortStrategy;
+import studentrentals.search.SearchPage;
+import studentrentals.search.SortByPriceAsc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The router over in-process shards: merged search pages, an area moving
+// while it is booked, and users and admin calls reaching every shard.
+class ShardRouterTest {
+
+    private static final String OWNER = "owner@x.com";
+    private static final String STUDENT = "student@x.com";
+    private static final String ADMIN = "root@x.com";
+    private static final LocalDate FROM = LocalDate.now().plusDays(10);
+
+    private final List<StudentRentalsSystem> systems = new ArrayList<>();
+    private ShardRouter router;
+
+    @AfterEach
+    void close() {
+        if (router != null) router.close();
+    }
+
+    @Test
+    void scatterSearchPagesFollowOneGlobalOrder() {
+        router = new ShardRouter(localShards(3));
+        router.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        Random rnd = new Random(7);
+        List<Room> all = new ArrayList<>();
+        for (int a = 0; a < 6; a++) {
+            Property p = router.createProperty(OWNER, a + " High St", "Area" + a, "Flat");
+            for (int i = 0; i < 9; i++) {
+                // few distinct prices, so many ties are broken by id across shards
+                all.add(router.addRoom(OWNER, p.getId(), RoomType.SINGLE, 400 + 50 * rnd.nextInt(4), "WiFi",
+                        FROM, FROM.plusDays(90)));
+            }
+        }
+        all.sort(Comparator.comparingInt(Room::getPricePerMonth).thenComparing(Room::getId));
+
+        SearchCriteria c = new SearchCriteria();
+        c.setStartDate(FROM);
+        c.setEndDate(FROM.plusDays(5));
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SearchPage page = router.searchRoomsPage(c, new SortByPriceAsc(), 7, cursor);
+            for (Room r : page.getRooms()) seen.add(r.getId());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertTrue(pages > 5);
+        assertEquals(all.stream().map(Room::getId).toList(), seen);
+    }
+
+    @Test
+    void rebalanceUnderLoadKeepsEveryBookingAndNoOverlap() throws Exception {
+        router = new ShardRouter(localShards(2));
+        router.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        router.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        Property p = router.createProperty(OWNER, "1 High St", "Leeds", "Flat");
+        List<UUID> rooms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rooms.add(router.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", FROM, FROM.plusDays(60)).getId());
+        }
+
+        BlockingQueue<UUID> pending = new LinkedBlockingQueue<>();
+        List<Booking> accepted = new ArrayList<>();
+        AtomicBoolean requesting = new AtomicBoolean(true);
+        AtomicInteger moves = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        List<Future<?>> tasks = new ArrayList<>();
+        AtomicInteger studentsLeft = new AtomicInteger(3);
+        for (int s = 0; s < 3; s++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < 100; i++) {
+                    LocalDate begin = FROM.plusDays(rnd.nextInt(55));
+                    UUID room = rooms.get(rnd.nextInt(rooms.size()));
+                    try {
+                        pending.add(router.requestBooking(STUDENT, room, begin, begin.plusDays(1 + rnd.nextInt(4))).getId());
+                    } catch (IllegalArgumentException taken) {
+                        // already booked: fine
+                    }
+                }
+                if (studentsLeft.decrementAndGet() == 0) requesting.set(false);
+                return null;
+            }));
+        }
+        for (int d = 0; d < 2; d++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                while (requesting.get() || !pending.isEmpty()) {
+                    UUID id = pending.poll(10, TimeUnit.MILLISECONDS);
+                    if (id == null) continue;
+                    try {
+                        Booking b = router.decideRequest(OWNER, id, true);
+                        synchronized (accepted) {
+                            accepted.add(b);
+                        }
+                    } catch (IllegalArgumentException lost) {
+                        // rejected by a booking confirmed first
+                    }
+                }
+                return null;
+            }));
+        }
+        tasks.add(pool.submit(() -> {
+            start.await();
+            while (requesting.get()) {
+                router.rebalance("Leeds", 1 - router.shardOf("Leeds"));
+                moves.incrementAndGet();
+            }
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> task : tasks) task.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        int holder = router.shardOf("Leeds");
+        assertTrue(moves.get() > 0);
+        assertEquals(Set.of("leeds"), systems.get(holder).areas());
+        assertTrue(systems.get(1 - holder).areas().isEmpty());
+        int confirmed = 0;
+        for (UUID roomId : rooms) {
+            List<Booking> bookings = systems.get(holder).getRoomDetails(roomId).getConfirmedBookings();
+            confirmed += bookings.size();
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    assertFalse(a.getStartDate().isBefore(b.getEndDate()) && b.getStartDate().isBefore(a.getEndDate()),
+                            "overlapping bookings " + a.getId() + " and " + b.getId());
+                }
+            }
+        }
+        assertTrue(confirmed > 0);
+        assertEquals(accepted.size(), confirmed);
+    }
+
+    @Test
+    void aUserMissedByAShardReachesItBeforeItsNextCall() {
+        List<Shard> shards = localShards(2);
+        FlakyShard flaky = new FlakyShard(shards.get(1));
+        shards.set(1, flaky);
+        router = new ShardRouter(shards);
+        String area = areaOn(1);
+
+        // every try fails: the owner stays queued for shard 1
+        flaky.failures.set(10);
+        router.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        flaky.failures.set(0);
+        Property p = router.createProperty(OWNER, "1 High St", area, "Flat");
+        assertEquals(area.toLowerCase(), systems.get(1).locate(p.getId()));
+
+        // one failure is absorbed by a retry
+        flaky.failures.set(1);
+        router.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        Room room = router.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", FROM, FROM.plusDays(60));
+        router.requestBooking(STUDENT, room.getId(), FROM, FROM.plusDays(5));
+    }
+
+    @Test
+    void aBootstrappedAdminDeactivatesOnEveryShard() {
+        List<Shard> shards = localShards(3);
+        FlakyShard flaky = new FlakyShard(shards.get(2));
+        shards.set(2, flaky);
+        router = new ShardRouter(shards);
+        router.bootstrapAdmin("Root", ADMIN, "0799", "secret0");
+        router.registerStudent("Student", STUDENT, "0701", "secret2", "Leeds", "S1");
+        router.registerHomeowner("Owner", OWNER, "0700", "secret1");
+        List<UUID> rooms = new ArrayList<>();
+        for (int s = 0; s < 3; s++) {
+            Property p = router.createProperty(OWNER, s + " High St", areaOn(s), "Flat");
+            rooms.add(router.addRoom(OWNER, p.getId(), RoomType.SINGLE, 500, "WiFi", FROM, FROM.plusDays(60)).getId());
+        }
+
+        // shard 2 keeps failing: the others are still deactivated, and a second call finishes
+        flaky.failures.set(10);
+        assertThrows(IllegalStateException.class, () -> router.adminDeactivateUser(ADMIN, STUDENT));
+        assertThrows(IllegalArgumentException.class,
+                () -> router.requestBooking(STUDENT, rooms.get(1), FROM, FROM.plusDays(5)));
+        flaky.failures.set(0);
+        router.requestBooking(STUDENT, rooms.get(2), FROM, FROM.plusDays(5));
+        router.adminDeactivateUser(ADMIN, STUDENT);
+
+        for (UUID roomId : rooms) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> router.requestBooking(STUDENT, roomId, FROM.plusDays(10), FROM.plusDays(15)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> router.adminDeactivateUser(OWNER, STUDENT));
+    }
+
+    private List<Shard> localShards(int count) {
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StudentRentalsSystem system = new StudentRentalsSystem();
+            systems.add(system);
+            shards.add(new LocalShard(system));
+        }
+        return shards;
+    }
+
+    // an area name the router places on this shard
+    private String areaOn(int shard) {
+        for (int i = 0; ; i++) {
+            if (router.shardOf("Area" + i) == shard) return "Area" + i;
+        }
+    }
+
+    // Fails user copies and deactivations the way an unreachable RemoteShard does
+    private static final class FlakyShard implements Shard {
+        final AtomicInteger failures = new AtomicInteger();
+        private final Shard shard;
+
+        FlakyShard(Shard shard) {
+            this.shard = shard;
+        }
+
+        private void maybeFail() {
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new UncheckedIOException(new IOException("Shard unreachable."));
+            }
+        }
+
+        @Override
+        public void importUser(User user) {
+            maybeFail();
+            shard.importUser(user);
+        }
+
+        @Override
+        public void adminDeactivateUser(String adminEmail, String userEmail) {
+            maybeFail();
+            shard.adminDeactivateUser(adminEmail, userEmail);
+        }
+
+        @Override
+        public Student registerStudent(String name, String email, String phone, String password,
+                                                            String university, String studentId) {
+            return shard.registerStudent(name, email, phone, password, university, studentId);
+        }
+
+        @Override
+        public Homeowner registerHomeowner(String name, String email, String phone, String password) {
+            return shard.registerHomeowner(name, email, phone, password);
+        }
+
+        @Override
+        public Property createProperty(String ownerEmail, String address, String area, String description) {
+            return shard.createProperty(ownerEmail, address, area, description);
+        }
+
+        @Override
+        public Room addRoom(String ownerEmail, UUID propertyId, RoomType type, int pricePerMonth, String amenities,
+                            LocalDate availableFrom, LocalDate availableTo) {
+            return shard.addRoom(ownerEmail, propertyId, type, pricePerMonth, amenities, availableFrom, availableTo);
+        }
+
+        @Override
+        public SearchPage searchRoomsPage(SearchCriteria criteria, RoomSortStrategy sortStrategy,
+                                          int pageSize, String cursor) {
+            return shard.searchRoomsPage(criteria, sortStrategy, pageSize, cursor);
+        }
+
+        @Override
+        public BookingRequest requestBooking(String studentEmail, UUID roomId, LocalDate start,
+                                                                  LocalDate end) {
+            return shard.requestBooking(studentEmail, roomId, start, end);
+        }
+
+        @Override
+        public Booking decideRequest(String ownerEmail, UUID requestId, boolean accept) {
+            return shard.decideRequest(ownerEmail, requestId, accept);
+        }
+
+        @Override
+        public List<BookingRequest> listRequestsForOwner(String ownerEmail) {
+            return shard.listRequestsForOwner(ownerEmail);
+        }
+
+        @Override
+        public String locate(UUID id) {
+            return shard.locate(id);
+        }
+
+        @Override
+        public Set<String> areas() {
+            return shard.areas();
+        }
+
+        @Override
+        public AreaData exportArea(String area) {
+            return shard.exportArea(area);
+        }
+
+        @Override
+        public void importArea(AreaData data) {
+            shard.importArea(data);
+        }
+
+        @Override
+        public int dropArea(String area) {
+            return shard.dropArea(area);
+        }
+
+        @Override
+        public void close() {
+            shard.close();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package studentrentals.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdRegistryTest {
+
+    @Test
+    void releasedRefsAreReusedAndTheirIdsForgotten() {
+        IdRegistry ids = new IdRegistry();
+        UUID a = UUID.randomUUID();
+        int ref = ids.of(a);
+        assertEquals(ref, ids.of(a));
+
+        ids.release(ref);
+        assertEquals(IdRegistry.NONE, ids.find(a));
+        assertEquals(0, ids.size());
+
+        UUID b = UUID.randomUUID();
+        assertEquals(ref, ids.of(b));
+        assertEquals(b, ids.uuid(ref));
+        ids.release(ref);
+        assertThrows(IllegalStateException.class, () -> ids.release(ref));
+    }
+
+    @Test
+    void findStillWorksPastReleasedSlotsAndAcrossGrowth() {
+        IdRegistry ids = new IdRegistry();
+        List<UUID> kept = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            List<Integer> dropped = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                UUID id = UUID.randomUUID();
+                int ref = ids.of(id);
+                if (i % 2 == 0) kept.add(id);
+                else dropped.add(ref);
+            }
+            dropped.forEach(ids::release);
+        }
+        assertEquals(kept.size(), ids.size());
+        for (UUID id : kept) assertEquals(id, ids.uuid(ids.find(id)));
+    }
+
+    @Test
+    void aFrozenLookupKeepsItsIdsAfterTheRefsMoveOn() {
+        IdRegistry ids = new IdRegistry();
+        UUID a = UUID.randomUUID();
+        int ref = ids.of(a);
+        IdLookup frozen = ids.freeze(ref, IdRegistry.NONE);
+        ids.release(ref);
+        ids.of(UUID.randomUUID());
+
+        assertEquals(a, frozen.uuid(ref));
+        assertEquals(a.getLeastSignificantBits(), frozen.leastSignificantBits(ref));
+        assertNull(frozen.uuid(IdRegistry.NONE));
+    }
+
+    @Test
+    void registriesAreIndependent() {
+        IdRegistry first = new IdRegistry();
+        IdRegistry second = new IdRegistry();
+        UUID a = UUID.randomUUID();
+        first.of(a);
+        assertEquals(IdRegistry.NONE, second.find(a));
+    }
+}